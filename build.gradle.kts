@@ -14,6 +14,9 @@ plugins {
   id("com.diffplug.spotless") version "6.25.0"
 
   id("org.openjfx.javafxplugin") version "0.1.0"
+
+  // cf. https://github.com/melix/jmh-gradle-plugin
+  id("me.champeau.jmh") version "0.7.2"
 }
 
 repositories {
@@ -38,6 +41,15 @@ tasks.named<JavaExec>("runShell") {
   classpath = tasks.named<JavaExec>("run").get().classpath
   standardInput = System.`in`
   enableAssertions = true
+  // Gradle pipes the terminal into the shell, which would otherwise start in batch mode
+  args("--interactive")
+}
+
+tasks.register<JavaExec>("runTournament")
+
+tasks.named<JavaExec>("runTournament") {
+  mainClass.set("bauernschach.tournament.Tournament")
+  classpath = tasks.named<JavaExec>("run").get().classpath
 }
 
 javafx {
@@ -66,6 +78,17 @@ tasks.named<Test>("test") {
   useJUnitPlatform()
 }
 
+// Benchmarks live in src/jmh/java; run them with ./gradlew jmh
+jmh {
+  jmhVersion = "1.37"
+  // report allocation rates next to the timings
+  profilers = listOf("gc")
+  fork = 1
+  warmupIterations = 3
+  iterations = 5
+  resultFormat = "JSON"
+}
+
 checkstyle {
   toolVersion = "10.15.0"
   maxWarnings = 0
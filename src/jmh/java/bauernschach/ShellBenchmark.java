@@ -0,0 +1,56 @@
+package bauernschach;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.GameState;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks of the board rendering that the {@link Shell} does after every command. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class ShellBenchmark {
+  /** Board size as rows x columns. The shell labels rows with the letters A to Z. */
+  @Param({"8x8", "16x16", "26x64"})
+  public String size;
+
+  private GameState gameState;
+
+  /** Starts a game. */
+  @Setup
+  public void setUp() {
+    final String[] dimensions = size.split("x");
+    gameState =
+        new Bauernschach(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]))
+            .getGameState();
+  }
+
+  /**
+   * Renders the board as shown while the player on turn selects a piece.
+   *
+   * @return the rendered board
+   */
+  @Benchmark
+  public String renderPieceSelection() {
+    return Shell.renderChessBoard(gameState, Shell.PrintMode.PIECE_SELECT);
+  }
+
+  /**
+   * Renders the board without piece IDs.
+   *
+   * @return the rendered board
+   */
+  @Benchmark
+  public String renderPlain() {
+    return Shell.renderChessBoard(gameState, Shell.PrintMode.PLAIN);
+  }
+}
@@ -0,0 +1,91 @@
+package bauernschach.model;
+
+import bauernschach.model.board.ChessBoard;
+import bauernschach.model.board.ChessPiece;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks of the {@link Bauernschach} operations that the views call. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class BauernschachBenchmark {
+  // passes in one game before a new game is started, which bounds the history
+  private static final int MAX_PASSES = 1024;
+
+  /** Board size as rows x columns. */
+  @Param({"8x8", "16x16", "26x64"})
+  public String size;
+
+  private int numRows;
+  private int numCols;
+  private Bauernschach game;
+  private int nextPiece;
+
+  /** Starts a game. */
+  @Setup
+  public void setUp() {
+    final String[] dimensions = size.split("x");
+    numRows = Integer.parseInt(dimensions[0]);
+    numCols = Integer.parseInt(dimensions[1]);
+    game = new Bauernschach(numRows, numCols);
+  }
+
+  /**
+   * Selects a piece and moves it, taking the pieces of the player on turn in rotation. When a game
+   * ends, a new one is started, which is amortized over the moves of the game.
+   *
+   * @return the game state after the move
+   */
+  @Benchmark
+  public GameState selectAndMove() {
+    final GameState gameState = game.getGameState();
+    final List<ChessPiece> pieces = gameState.getPieceListAtCurrentRound();
+    // the player on turn always has a piece with possible moves
+    ChessPiece piece = pieces.get(nextPiece++ % pieces.size());
+    for (int i = 0; !piece.hasPossibleMoves(); ++i) {
+      piece = pieces.get(i);
+    }
+    game.selectPieceById(piece.getId());
+    game.move(0);
+    if (!game.getGameState().isGameRunning()) {
+      game = new Bauernschach(numRows, numCols);
+    }
+    return game.getGameState();
+  }
+
+  /**
+   * Passes the current round. After {@value #MAX_PASSES} passes a new game is started, so the
+   * history does not grow over the whole run. This is amortized over the passes of the game.
+   *
+   * @return the game state after passing
+   */
+  @Benchmark
+  public GameState pass() {
+    game.pass();
+    if (game.getHistoryLength() >= MAX_PASSES) {
+      game = new Bauernschach(numRows, numCols);
+    }
+    return game.getGameState();
+  }
+
+  /**
+   * Copies the chess board of the current game state, as the views do to read it.
+   *
+   * @return the copy
+   */
+  @Benchmark
+  public ChessBoard getChessBoard() {
+    return game.getGameState().getChessBoard();
+  }
+}
@@ -0,0 +1,91 @@
+package bauernschach.model.board;
+
+import bauernschach.model.board.ChessPiece.Color;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks of the {@link ChessBoard} operations the model uses for every move. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class ChessBoardBenchmark {
+  /** Board size as rows x columns. */
+  @Param({"8x8", "16x16", "26x64"})
+  public String size;
+
+  private ChessBoard startBoard;
+  private ChessBoard board;
+  private Color sideToMove;
+  private int nextPiece;
+
+  /** Creates the boards. */
+  @Setup
+  public void setUp() {
+    final String[] dimensions = size.split("x");
+    startBoard = new ChessBoard(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+    resetBoard();
+  }
+
+  private void resetBoard() {
+    board = startBoard.copyOf();
+    sideToMove = Color.WHITE;
+  }
+
+  /**
+   * Copies a board in its start position, as {@code GameState.getChessBoard()} does.
+   *
+   * @return the copy
+   */
+  @Benchmark
+  public ChessBoard copyOf() {
+    return startBoard.copyOf();
+  }
+
+  /**
+   * Recomputes the possible moves of all white pieces from scratch.
+   *
+   * @return the board
+   */
+  @Benchmark
+  public ChessBoard updatePossibleMovesByColor() {
+    startBoard.updatePossibleMovesByColor(Color.WHITE);
+    return startBoard;
+  }
+
+  /**
+   * Applies one move of a game in which the players take turns moving their pieces in rotation.
+   * When a game ends, the board is reset, which is amortized over the moves of the game.
+   *
+   * @return the board
+   */
+  @Benchmark
+  public ChessBoard applyMove() {
+    final List<ChessPiece> pieces = board.getImmutablePieceListByColor(sideToMove);
+    if (pieces.isEmpty() || !board.hasPossibleMovesByColor(sideToMove)) {
+      resetBoard();
+      return board;
+    }
+    ChessPiece piece = pieces.get(nextPiece++ % pieces.size());
+    for (int i = 0; !piece.hasPossibleMoves(); ++i) {
+      piece = pieces.get(i);
+    }
+    final Move move = piece.getPossibleMoves().get(0);
+    board.applyMove(piece, move);
+    if (move.getNewCoordinate().getRow() == board.getFinishRowByColor(sideToMove)) {
+      resetBoard();
+    } else {
+      sideToMove = sideToMove.getOpposingColor();
+    }
+    return board;
+  }
+}
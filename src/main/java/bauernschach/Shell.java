@@ -1,20 +1,33 @@
 package bauernschach;
 
+import bauernschach.engine.Perft;
 import bauernschach.model.Bauernschach;
 import bauernschach.model.Bauernschach.OperationStatus;
 import bauernschach.model.GameState;
-import bauernschach.model.board.ChessBoard;
+import bauernschach.model.board.ChessBoardSnapshot;
 import bauernschach.model.board.ChessPiece;
 import bauernschach.model.board.Coordinate;
+import bauernschach.model.board.CoordinateTable;
+import bauernschach.model.board.PackedMove;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A Shell interface for a {@link Bauernschach} game. This class handles user's input and displays
  * the chess board.
+ *
+ * <p>In batch mode, for scripts piped into the shell, no prompt is shown and all output goes
+ * through one large buffer that is only flushed by the {@code PRINT} command and at the end. In
+ * quiet mode, the board is only printed by {@code PRINT} and when a game ends, so that only errors
+ * and results remain.
  */
 public class Shell {
 
@@ -25,6 +38,12 @@ public class Shell {
   }
 
   private static final String PROMPT = "BS > ";
+  private static final String BATCH_OPTION = "--batch";
+  private static final String INTERACTIVE_OPTION = "--interactive";
+  private static final String QUIET_OPTION = "--quiet";
+  private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+  // no command takes more than one argument, so further tokens are not stored
+  private static final int MAX_TOKENS = 3;
 
   private static final String NEWGAME_COMMAND = "NEWGAME";
   private static final String PRINT_COMMAND = "PRINT";
@@ -32,6 +51,9 @@ public class Shell {
   private static final String DESELECT_COMMAND = "DESELECT";
   private static final String MOVE_COMMAND = "MOVE";
   private static final String PASS_COMMAND = "PASS";
+  private static final String UNDO_COMMAND = "UNDO";
+  private static final String REDO_COMMAND = "REDO";
+  private static final String PERFT_COMMAND = "PERFT";
   private static final String QUIT_COMMAND = "QUIT";
   private static final String HELP_COMMAND = "HELP";
 
@@ -47,6 +69,9 @@ public class Shell {
           + "- DESELECT: deselect the selected chess piece\n"
           + "- MOVE <int move_id>: move the selected chess according to the chosen move\n"
           + "- PASS: pass the current round\n"
+          + "- UNDO: take back the last move or pass\n"
+          + "- REDO: play the last move that was taken back again\n"
+          + "- PERFT <int depth>: count the positions after depth moves for each possible move\n"
           + "- QUIT: quit the shell\n"
           + "- HELP: print the help message";
 
@@ -58,22 +83,68 @@ public class Shell {
   private static final char ROW_START_CHAR = 'A';
   private static final int COLUMN_DISPLAY_OFFSET = 1;
 
+  private final boolean batch;
+  private final boolean quiet;
+  private final PrintWriter out =
+      new PrintWriter(
+          new BufferedWriter(
+              new OutputStreamWriter(System.out, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE));
+  // tokens of the current input line, and the arguments of the current command by their number
+  private final String[] tokens = new String[MAX_TOKENS];
+  private final String[][] argumentsByCount = new String[MAX_TOKENS][];
+
   private Bauernschach game;
   private PrintMode printMode;
 
   /**
-   * Read and process input until the quit command has been entered.
+   * Read and process input until the quit command has been entered. Batch mode is used if the
+   * standard input is not a terminal, unless {@code --interactive} is given.
    *
-   * @param args Command line arguments.
+   * @param args Command line arguments: {@code --batch} or {@code --interactive} to choose the mode,
+   *     {@code --quiet} to print only errors and results.
    * @throws IOException Error reading from stdin.
    */
   public static void main(String[] args) throws IOException {
-    final Shell shell = new Shell();
+    boolean batch = System.console() == null;
+    boolean quiet = false;
+    for (String arg : args) {
+      switch (arg) {
+        case BATCH_OPTION:
+          batch = true;
+          break;
+        case INTERACTIVE_OPTION:
+          batch = false;
+          break;
+        case QUIET_OPTION:
+          quiet = true;
+          break;
+        default:
+          System.err.println("Usage: Shell [--batch | --interactive] [--quiet]");
+          return;
+      }
+    }
+    final Shell shell = new Shell(batch, quiet);
     shell.run();
   }
 
-  /** Creates a new instance of this class. */
-  public Shell() {}
+  /** Creates a new instance of this class that shows a prompt and prints every board. */
+  public Shell() {
+    this(false, false);
+  }
+
+  /**
+   * Creates a new instance of this class.
+   *
+   * @param batch whether to hide the prompt and buffer the output until {@code PRINT} or the end
+   * @param quiet whether to print the board only on {@code PRINT} and when a game ends
+   */
+  public Shell(boolean batch, boolean quiet) {
+    this.batch = batch;
+    this.quiet = quiet;
+    for (int i = 0; i < MAX_TOKENS; ++i) {
+      argumentsByCount[i] = new String[i];
+    }
+  }
 
   /**
    * Run the Bauernschach shell. Shows prompt 'BS> ', takes commands from the user and executes
@@ -83,28 +154,38 @@ public class Shell {
    */
   public void run() throws IOException {
     BufferedReader in =
-        new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        new BufferedReader(
+            new InputStreamReader(System.in, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE);
+    try {
+      processCommands(in);
+    } finally {
+      out.flush();
+    }
+  }
+
+  private void processCommands(BufferedReader in) throws IOException {
     boolean quit = false;
 
     while (!quit) {
-      System.out.print(PROMPT);
+      if (!batch) {
+        out.print(PROMPT);
+        out.flush();
+      }
 
       String input = in.readLine();
       if (input == null) {
         break;
       }
 
-      // remove all empty tokens
-      String[] tokens =
-          Arrays.stream(input.split("\\s+")).filter(e -> e.length() > 0).toArray(String[]::new);
-
-      if (tokens.length == 0) {
+      final int numTokens = tokenize(input, tokens);
+      if (numTokens == 0) {
         displayError(NO_COMMAND_MESSAGE);
         continue;
       }
 
       String command = tokens[0].toUpperCase();
-      String[] arguments = Arrays.copyOfRange(tokens, 1, tokens.length);
+      String[] arguments = argumentsByCount[numTokens - 1];
+      System.arraycopy(tokens, 1, arguments, 0, arguments.length);
 
       // Consider using enums instead (Effective Java Item 34)
       switch (command) {
@@ -126,6 +207,15 @@ public class Shell {
         case PASS_COMMAND:
           handlePassCommand(arguments);
           break;
+        case UNDO_COMMAND:
+          handleUndoCommand(arguments);
+          break;
+        case REDO_COMMAND:
+          handleRedoCommand(arguments);
+          break;
+        case PERFT_COMMAND:
+          handlePerftCommand(arguments);
+          break;
         case QUIT_COMMAND:
           if (arguments.length != 0) {
             displayError(INVALID_ARGUMENTS_MESSAGE);
@@ -138,7 +228,7 @@ public class Shell {
             displayError(INVALID_ARGUMENTS_MESSAGE);
             continue;
           }
-          System.out.println(HELP_MESSAGE);
+          out.println(HELP_MESSAGE);
           break;
         default:
           displayError(INVALID_COMMAND_MESSAGE);
@@ -157,7 +247,8 @@ public class Shell {
       return;
     }
 
-    printCurrentChessBoard();
+    out.print(renderChessBoard(game.getGameState(), printMode));
+    out.flush();
   }
 
   private void handleNewGameCommand(String[] arguments) {
@@ -250,10 +341,6 @@ public class Shell {
       printMode = PrintMode.PLAIN;
     }
     printCurrentChessBoard();
-
-    if (!game.getGameState().isGameRunning()) {
-      game = null;
-    }
   }
 
   private void handlePassCommand(String[] arguments) {
@@ -272,58 +359,201 @@ public class Shell {
     printCurrentChessBoard();
   }
 
-  private void printCurrentChessBoard() {
-    assert isGameRunning();
+  private void handleUndoCommand(String[] arguments) {
+    // a game that has ended can be continued by taking back its last move
+    if (game == null) {
+      displayError(NO_ACTIVE_GAME_MESSAGE);
+      return;
+    }
+
+    if (arguments.length != 0) {
+      displayError(INVALID_ARGUMENTS_MESSAGE);
+      return;
+    }
+
+    if (game.undo() == OperationStatus.FAIL) {
+      displayError(NOT_POSSIBLE_MESSAGE);
+      return;
+    }
+    printMode = PrintMode.PIECE_SELECT;
+    printCurrentChessBoard();
+  }
+
+  private void handleRedoCommand(String[] arguments) {
+    if (game == null) {
+      displayError(NO_ACTIVE_GAME_MESSAGE);
+      return;
+    }
+
+    if (arguments.length != 0) {
+      displayError(INVALID_ARGUMENTS_MESSAGE);
+      return;
+    }
+
+    if (game.redo() == OperationStatus.FAIL) {
+      displayError(NOT_POSSIBLE_MESSAGE);
+      return;
+    }
+    printMode = isGameRunning() ? PrintMode.PIECE_SELECT : PrintMode.PLAIN;
+    printCurrentChessBoard();
+  }
+
+  private void handlePerftCommand(String[] arguments) {
+    if (!isGameRunning()) {
+      displayError(NO_ACTIVE_GAME_MESSAGE);
+      return;
+    }
+
+    if (arguments.length != 1) {
+      displayError(INVALID_ARGUMENTS_MESSAGE);
+      return;
+    }
+
+    int depth = -1;
+    try {
+      depth = Integer.parseInt(arguments[0]);
+    } catch (NumberFormatException e) {
+      displayError(INVALID_INPUT_MESSAGE);
+      return;
+    }
+    if (depth < 1) {
+      displayError(INVALID_INPUT_MESSAGE);
+      return;
+    }
 
     final GameState gameState = game.getGameState();
+    final long startNanos = System.nanoTime();
+    final Map<Integer, Long> divide =
+        Perft.divideParallel(gameState, depth, ForkJoinPool.commonPool());
+    final long elapsedNanos = System.nanoTime() - startNanos;
+
+    long nodes = 0;
+    for (Map.Entry<Integer, Long> entry : divide.entrySet()) {
+      out.println(perftMoveToString(entry.getKey(), gameState) + ": " + entry.getValue());
+      nodes += entry.getValue();
+    }
+    final long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    final long nodesPerSecond = nodes * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos);
+    out.println("Nodes: " + nodes + " (" + millis + " ms, " + nodesPerSecond + " nodes/s)");
+  }
+
+  private String perftMoveToString(int packedMove, GameState gameState) {
+    if (PackedMove.isPass(packedMove)) {
+      return PASS_COMMAND;
+    }
+    final ChessBoardSnapshot chessBoard = gameState.getChessBoardSnapshot();
+    final CoordinateTable coordinates = chessBoard.getCoordinateTable();
+    final ChessPiece piece =
+        chessBoard.getPieceAt(coordinates.getCoordinate(PackedMove.getFromSquare(packedMove)));
+    final Coordinate target = coordinates.getCoordinate(PackedMove.getToSquare(packedMove));
+    return SELECT_COMMAND
+        + " "
+        + piece.getId()
+        + " "
+        + MOVE_COMMAND
+        + " "
+        + piece.getPossibleMoveCoordinates().indexOf(target);
+  }
+
+  /** Prints the board after a command, in quiet mode only once the game has ended. */
+  private void printCurrentChessBoard() {
+    assert game != null;
+    if (quiet && game.getGameState().isGameRunning()) {
+      return;
+    }
+    out.print(renderChessBoard(game.getGameState(), printMode));
+  }
+
+  /**
+   * Splits the line at whitespace, like {@code line.split("\\s+")} without the empty tokens, but
+   * without a regular expression. Stores at most {@code tokens.length} tokens and ignores the
+   * rest.
+   */
+  private static int tokenize(String line, String[] tokens) {
+    final int length = line.length();
+    int numTokens = 0;
+    int i = 0;
+    while (numTokens < tokens.length) {
+      while (i < length && isWhitespace(line.charAt(i))) {
+        ++i;
+      }
+      if (i == length) {
+        break;
+      }
+      final int start = i;
+      while (i < length && !isWhitespace(line.charAt(i))) {
+        ++i;
+      }
+      tokens[numTokens++] = line.substring(start, i);
+    }
+    return numTokens;
+  }
+
+  /** Returns whether the character is matched by {@code \s} in a regular expression. */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+  }
+
+  /**
+   * Renders the chess board of the given game state together with the status lines below it, as
+   * printed after every command. Each line, including the last one, ends with a line separator.
+   */
+  static String renderChessBoard(GameState gameState, PrintMode printMode) {
     final GameState.GameStatus gameStatus = gameState.getStatus();
-    final ChessBoard chessBoard = gameState.getChessBoard();
+    final ChessBoardSnapshot chessBoard = gameState.getChessBoardSnapshot();
+    final String lineSeparator = System.lineSeparator();
 
     final int numRows = chessBoard.getNumRows();
     final int numColumns = chessBoard.getNumColumns();
 
     // print column index (1~8)
-    StringBuilder line = new StringBuilder("  ");
+    final StringBuilder out = new StringBuilder("  ");
     for (int colNum = 0; colNum < numColumns; ++colNum) {
-      line.append(" ").append(colNum + COLUMN_DISPLAY_OFFSET);
+      out.append(" ").append(colNum + COLUMN_DISPLAY_OFFSET);
     }
-    System.out.println(line);
+    out.append(lineSeparator);
 
     // print each row with row index (A~Z)
     for (int rowNum = 0; rowNum < numRows; ++rowNum) {
-      line = new StringBuilder(" ");
-      line.append((char) (rowNum + ROW_START_CHAR));
+      out.append(" ");
+      out.append((char) (rowNum + ROW_START_CHAR));
       for (int colNum = 0; colNum < numColumns; ++colNum) {
         Coordinate coord = Coordinate.of(rowNum, colNum);
-        line.append(" ");
-        line.append(chessPieceToString(coord, gameState));
+        out.append(" ");
+        out.append(chessPieceToString(coord, gameState, chessBoard, printMode));
       }
-      System.out.println(line);
+      out.append(lineSeparator);
     }
 
     if (gameStatus == GameState.GameStatus.ONGOING) {
-      System.out.println("Current round: " + gameState.getCurrentRound());
+      out.append("Current round: ").append(gameState.getCurrentRound());
     } else if (gameStatus == GameState.GameStatus.WHITE_WON) {
-      System.out.println("Player WHITE wins!");
+      out.append("Player WHITE wins!");
     } else if (gameStatus == GameState.GameStatus.BLACK_WON) {
-      System.out.println("Player BLACK wins!");
+      out.append("Player BLACK wins!");
     } else { // gameStatus == GameStatus.DRAW
-      System.out.println("No possible move left. Draw!");
+      out.append("No possible move left. Draw!");
     }
+    out.append(lineSeparator);
 
     if (printMode == PrintMode.PIECE_SELECT) {
-      System.out.println(SELECT_PIECE_MESSAGE);
+      out.append(SELECT_PIECE_MESSAGE).append(lineSeparator);
     } else if (printMode == PrintMode.MOVE_SELECT) {
-      System.out.println(SELECT_MOVE_MESSAGE);
+      out.append(SELECT_MOVE_MESSAGE).append(lineSeparator);
     }
+    return out.toString();
   }
 
-  private String pieceColorToString(ChessPiece.Color color) {
+  private static String pieceColorToString(ChessPiece.Color color) {
     return (color == ChessPiece.Color.WHITE) ? "W" : "B";
   }
 
-  private String chessPieceToString(Coordinate coord, GameState gameState) {
-    ChessPiece piece = gameState.getChessBoard().getPieceAt(coord);
+  private static String chessPieceToString(
+      Coordinate coord,
+      GameState gameState,
+      ChessBoardSnapshot chessBoard,
+      PrintMode printMode) {
+    ChessPiece piece = chessBoard.getPieceAt(coord);
     if (printMode == PrintMode.PIECE_SELECT) {
       if (piece.isNone()) {
         return ".";
@@ -357,10 +587,10 @@ public class Shell {
   }
 
   private void displayError(String message) {
-    System.out.println("Error! " + message);
+    out.println("Error! " + message);
   }
 
   private boolean isGameRunning() {
-    return game != null;
+    return game != null && game.getGameState().isGameRunning();
   }
 }
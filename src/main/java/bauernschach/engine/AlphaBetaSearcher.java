@@ -0,0 +1,368 @@
+package bauernschach.engine;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.GameState;
+import bauernschach.model.board.ChessPiece.Color;
+import bauernschach.model.board.MoveBuffer;
+import bauernschach.model.board.PackedMove;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A computer player for {@link Bauernschach}. It runs a negamax search with alpha-beta pruning and
+ * iterative deepening on a {@link SearchPosition}, and caches results in a {@link
+ * TranspositionTable}. Passing is searched like any other move, except directly after another pass,
+ * where it scores as a draw, since the position would repeat forever. This matches how {@link
+ * Tablebase} and the tournament score a pass answered by a pass.
+ *
+ * <p>An instance is not thread-safe, but several instances may share one transposition table.
+ */
+public final class AlphaBetaSearcher {
+  /** Default size of the transposition table in megabytes. */
+  public static final int DEFAULT_TABLE_SIZE_MB = 16;
+
+  private static final int INFINITY = Evaluation.WIN + 1;
+  private static final int MAX_PLY = SearchLimits.MAX_DEPTH + 1;
+  // how many nodes are searched between two checks of the limits
+  private static final int CHECK_INTERVAL = 1024;
+  // distinguishes positions right after a pass in the transposition table
+  private static final long AFTER_PASS_KEY = 0x6A09E667F3BCC909L;
+
+  private final TranspositionTable table;
+  // set for workers of a parallel search, which stop together and share the node limit
+  private final AtomicBoolean sharedStop;
+  private final AtomicLong sharedNodes;
+  private final MoveBuffer[] moveBuffers = new MoveBuffer[MAX_PLY];
+  private final int[][] principalVariations = new int[MAX_PLY + 1][MAX_PLY + 1];
+  private final int[] principalVariationLengths = new int[MAX_PLY + 1];
+  private volatile boolean stopRequested;
+
+  // state of the running search
+  private SearchPosition position;
+  private SearchLimits limits;
+  private long nodes;
+  private boolean hasDeadline;
+  private long deadlineNanos;
+  private boolean mayAbort;
+  private boolean aborted;
+
+  /** Constructs a searcher with its own transposition table of the default size. */
+  public AlphaBetaSearcher() {
+    this(new TranspositionTable(DEFAULT_TABLE_SIZE_MB));
+  }
+
+  /**
+   * Constructs a searcher that uses the given transposition table.
+   *
+   * @param table the transposition table, which may be shared with other searchers
+   */
+  public AlphaBetaSearcher(TranspositionTable table) {
+    this(table, null, null);
+  }
+
+  /**
+   * Constructs a worker of a parallel search. The search stops once {@code sharedStop} is set, and
+   * the node limit applies to the sum of {@code sharedNodes} over all workers.
+   */
+  AlphaBetaSearcher(TranspositionTable table, AtomicBoolean sharedStop, AtomicLong sharedNodes) {
+    this.table = table;
+    this.sharedStop = sharedStop;
+    this.sharedNodes = sharedNodes;
+    for (int i = 0; i < MAX_PLY; ++i) {
+      moveBuffers[i] = new MoveBuffer();
+    }
+  }
+
+  /**
+   * Searches the best move for the player on turn in the given game state.
+   *
+   * @param gameState the game state to search, which is not changed
+   * @param limits the limits of the search
+   * @return the best move found and search statistics
+   * @throws IllegalArgumentException if the game is not running
+   */
+  public SearchResult bestMove(GameState gameState, SearchLimits limits) {
+    if (!gameState.isGameRunning()) {
+      throw new IllegalArgumentException("Game is not running.");
+    }
+    return search(SearchPosition.of(gameState), limits);
+  }
+
+  /**
+   * Searches the best move for the player on turn in the given game and plays it through {@link
+   * GameMoves#play(Bauernschach, int)}.
+   *
+   * @param game the game to play a move on
+   * @param limits the limits of the search
+   * @return the best move found and search statistics
+   * @throws IllegalArgumentException if the game is not running
+   */
+  public SearchResult playBestMove(Bauernschach game, SearchLimits limits) {
+    final SearchResult result = bestMove(game.getGameState(), limits);
+    final Bauernschach.OperationStatus status = GameMoves.play(game, result.getBestMove());
+    assert status == Bauernschach.OperationStatus.SUCCESS;
+    return result;
+  }
+
+  /**
+   * Searches the given position with iterative deepening until a limit is reached or {@link
+   * #stop()} is called. The result is the one of the last completed iteration. The first iteration
+   * always completes.
+   *
+   * @param searchPosition the position to search, which is restored when the search returns
+   * @param searchLimits the limits of the search
+   * @return the best move found and search statistics
+   */
+  public SearchResult search(SearchPosition searchPosition, SearchLimits searchLimits) {
+    table.newSearch();
+    return search(searchPosition, searchLimits, 1);
+  }
+
+  /**
+   * Like {@link #search(SearchPosition, SearchLimits)}, but starts iterative deepening at the given
+   * depth, so that parallel searchers can work on different depths.
+   */
+  SearchResult search(SearchPosition searchPosition, SearchLimits searchLimits, int firstDepth) {
+    if (!searchPosition.isGameRunning()) {
+      throw new IllegalArgumentException("Game is not running.");
+    }
+    position = searchPosition;
+    limits = searchLimits;
+    nodes = 0;
+    aborted = false;
+    mayAbort = false;
+    final long startNanos = System.nanoTime();
+    hasDeadline = limits.getMaxTimeMillis() != Long.MAX_VALUE;
+    deadlineNanos = hasDeadline ? startNanos + limits.getMaxTimeMillis() * 1_000_000L : 0L;
+
+    int bestMove = PackedMove.PASS;
+    int bestScore = 0;
+    int completedDepth = 0;
+    int[] principalVariation = new int[0];
+    for (int depth = Math.min(firstDepth, limits.getMaxDepth());
+        depth <= limits.getMaxDepth();
+        ++depth) {
+      final int score = negamax(depth, -INFINITY, INFINITY, 0);
+      if (aborted) {
+        break;
+      }
+      completedDepth = depth;
+      bestScore = score;
+      principalVariation = new int[principalVariationLengths[0]];
+      System.arraycopy(principalVariations[0], 0, principalVariation, 0, principalVariation.length);
+      bestMove = principalVariation[0];
+      mayAbort = true;
+      if (Math.abs(score) > Evaluation.WIN_THRESHOLD) {
+        break; // a forced result does not change with more depth
+      }
+    }
+    position = null;
+    // the stop request, if any, was for this search
+    stopRequested = false;
+    return new SearchResult(
+        bestMove,
+        bestScore,
+        completedDepth,
+        principalVariation,
+        nodes,
+        System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Stops the running search as soon as possible. May be called from any thread. The search still
+   * returns the result of its last completed iteration. If no search is running, the next search
+   * stops after its first iteration, so a stop request is never lost to a search that has not
+   * started yet.
+   */
+  public void stop() {
+    stopRequested = true;
+  }
+
+  /**
+   * Returns the number of nodes searched so far by the running or last search.
+   *
+   * @return the number of searched nodes
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  private int negamax(int depth, int alpha, int beta, int ply) {
+    principalVariationLengths[ply] = ply;
+    if (++nodes % CHECK_INTERVAL == 0) {
+      checkLimits();
+    }
+    if (aborted) {
+      return 0;
+    }
+    if (!position.isGameRunning()) {
+      return terminalScore(ply);
+    }
+    if (depth == 0 || ply == MAX_PLY - 1) {
+      return Evaluation.evaluate(position);
+    }
+
+    // after a pass, passing back ends the game in a draw, so such positions score differently
+    final boolean passEndsGame = position.lastMoveWasPass();
+    final long key = passEndsGame ? position.getKey() ^ AFTER_PASS_KEY : position.getKey();
+    final long entry = table.probe(key);
+    int tableMove = PackedMove.PASS;
+    if (entry != TranspositionTable.MISS) {
+      tableMove = TranspositionTable.getBestMove(entry);
+      if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+        final int score = fromTableScore(TranspositionTable.getScore(entry), ply);
+        switch (TranspositionTable.getBound(entry)) {
+          case EXACT:
+            return score;
+          case LOWER:
+            if (score >= beta) {
+              return score;
+            }
+            break;
+          case UPPER:
+            if (score <= alpha) {
+              return score;
+            }
+            break;
+          default:
+            throw new AssertionError();
+        }
+      }
+    }
+
+    final MoveBuffer moves = moveBuffers[ply];
+    moves.clear();
+    position.generateMoves(moves);
+    orderMoves(moves, tableMove);
+    // passing is always possible and comes last
+    final int numCandidates = moves.size() + 1;
+
+    final int originalAlpha = alpha;
+    int bestScore = -INFINITY;
+    int bestMove = PackedMove.PASS;
+    final Color side = position.getSideToMove();
+    for (int i = 0; i < numCandidates; ++i) {
+      final int move = (i < moves.size()) ? moves.get(i) : PackedMove.PASS;
+      final int score;
+      if (PackedMove.isPass(move) && passEndsGame) {
+        // both players passed, so the position would repeat forever
+        score = Evaluation.DRAW;
+        principalVariationLengths[ply + 1] = ply + 1;
+      } else {
+        position.play(move);
+        if (position.getSideToMove() == side) { // the opponent could not move and was skipped
+          score = negamax(depth - 1, alpha, beta, ply + 1);
+        } else {
+          score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+        }
+        position.undo();
+        if (aborted) {
+          return 0;
+        }
+      }
+
+      if (score > bestScore) {
+        bestScore = score;
+        bestMove = move;
+        if (score > alpha) {
+          alpha = score;
+          updatePrincipalVariation(ply, move);
+          if (alpha >= beta) {
+            break;
+          }
+        }
+      }
+    }
+
+    final TranspositionTable.Bound bound;
+    if (bestScore <= originalAlpha) {
+      bound = TranspositionTable.Bound.UPPER;
+    } else if (bestScore >= beta) {
+      bound = TranspositionTable.Bound.LOWER;
+    } else {
+      bound = TranspositionTable.Bound.EXACT;
+    }
+    table.store(key, depth, toTableScore(bestScore, ply), bound, bestMove);
+    return bestScore;
+  }
+
+  /** Moves the table move to the front, followed by captures, keeping the order otherwise. */
+  private static void orderMoves(MoveBuffer moves, int tableMove) {
+    int next = 0;
+    for (int i = 0; i < moves.size(); ++i) {
+      if (moves.get(i) == tableMove) {
+        moveToIndex(moves, i, next++);
+        break;
+      }
+    }
+    for (int i = next; i < moves.size(); ++i) {
+      if (PackedMove.isCapture(moves.get(i))) {
+        moveToIndex(moves, i, next++);
+      }
+    }
+  }
+
+  /** Moves the entry at {@code from} to {@code to <= from}, shifting the entries in between. */
+  private static void moveToIndex(MoveBuffer moves, int from, int to) {
+    final int move = moves.get(from);
+    for (int i = from; i > to; --i) {
+      moves.set(i, moves.get(i - 1));
+    }
+    moves.set(to, move);
+  }
+
+  private void updatePrincipalVariation(int ply, int move) {
+    final int[] line = principalVariations[ply];
+    line[ply] = move;
+    final int childLength = principalVariationLengths[ply + 1];
+    System.arraycopy(principalVariations[ply + 1], ply + 1, line, ply + 1, childLength - ply - 1);
+    principalVariationLengths[ply] = Math.max(childLength, ply + 1);
+  }
+
+  private int terminalScore(int ply) {
+    switch (position.getStatus()) {
+      case WHITE_WON:
+        return (position.getSideToMove() == Color.WHITE)
+            ? -Evaluation.lossIn(ply)
+            : Evaluation.lossIn(ply);
+      case BLACK_WON:
+        return (position.getSideToMove() == Color.BLACK)
+            ? -Evaluation.lossIn(ply)
+            : Evaluation.lossIn(ply);
+      default:
+        return Evaluation.DRAW;
+    }
+  }
+
+  private void checkLimits() {
+    final long totalNodes = (sharedNodes == null) ? nodes : sharedNodes.addAndGet(CHECK_INTERVAL);
+    if (mayAbort
+        && (stopRequested
+            || (sharedStop != null && sharedStop.get())
+            || totalNodes >= limits.getMaxNodes()
+            || (hasDeadline && System.nanoTime() - deadlineNanos > 0))) {
+      aborted = true;
+    }
+  }
+
+  /** Converts a score relative to the root into one relative to this node, for storing. */
+  private static int toTableScore(int score, int ply) {
+    if (score > Evaluation.WIN_THRESHOLD) {
+      return score + ply;
+    }
+    if (score < -Evaluation.WIN_THRESHOLD) {
+      return score - ply;
+    }
+    return score;
+  }
+
+  private static int fromTableScore(int score, int ply) {
+    if (score > Evaluation.WIN_THRESHOLD) {
+      return score - ply;
+    }
+    if (score < -Evaluation.WIN_THRESHOLD) {
+      return score + ply;
+    }
+    return score;
+  }
+}
@@ -0,0 +1,72 @@
+package bauernschach.engine;
+
+import bauernschach.model.board.ChessBoard;
+import bauernschach.model.board.ChessPiece.Color;
+
+/** Static evaluation of search positions, in centipawns from the view of the player to move. */
+public final class Evaluation {
+  /** Score of a won position at the root. Wins found deeper score one less per ply. */
+  public static final int WIN = 30000;
+  /** Scores above this value, or below its negation, are forced wins or losses. */
+  public static final int WIN_THRESHOLD = WIN - SearchLimits.MAX_DEPTH - 1;
+  /** Score of a drawn position. */
+  public static final int DRAW = 0;
+
+  /**
+   * Static evaluations are clamped to this value, well below {@link #WIN_THRESHOLD}, so that they
+   * are never mistaken for forced results, however wide the board.
+   */
+  public static final int MAX_STATIC_SCORE = 20000;
+
+  private static final int PIECE_VALUE = 100;
+  // bonus of a piece one row before the finish row; on a board with 8 rows the bonus is 4 times
+  // the square of the advancement
+  private static final int MAX_ADVANCEMENT_BONUS = 144;
+
+  private Evaluation() {}
+
+  /**
+   * Evaluates the given running position. Each piece is worth a fixed value plus a bonus that grows
+   * with the square of its distance from its starting row, since advanced pieces are closer to
+   * winning the game. The bonus is scaled to the height of the board, so that it stays the same
+   * for a piece one row before the finish row on any board.
+   *
+   * @param position the position to evaluate
+   * @return the score from the view of the player to move, at most {@link #MAX_STATIC_SCORE} in
+   *     absolute value
+   */
+  public static int evaluate(SearchPosition position) {
+    final ChessBoard board = position.getBoard();
+    final Color side = position.getSideToMove();
+    final long score = evaluate(board, side) - evaluate(board, side.getOpposingColor());
+    return (int) Math.max(-MAX_STATIC_SCORE, Math.min(MAX_STATIC_SCORE, score));
+  }
+
+  private static long evaluate(ChessBoard board, Color color) {
+    final int numCols = board.getNumColumns();
+    final int startRow = board.getFinishRowByColor(color.getOpposingColor());
+    // pieces on the finish row have won, so those before it are advanced the most
+    final long maxAdvancement = Math.max(1, board.getNumRows() - 2);
+    long numPieces = 0;
+    long squaredAdvancements = 0;
+    for (int square = board.nextPieceSquare(color, 0);
+        square >= 0;
+        square = board.nextPieceSquare(color, square + 1)) {
+      final long advancement = Math.abs(square / numCols - startRow);
+      ++numPieces;
+      squaredAdvancements += advancement * advancement;
+    }
+    return PIECE_VALUE * numPieces
+        + MAX_ADVANCEMENT_BONUS * squaredAdvancements / (maxAdvancement * maxAdvancement);
+  }
+
+  /**
+   * Returns the score of a position in which the player to move has lost.
+   *
+   * @param ply the distance of the position from the root
+   * @return the losing score, so that quicker losses score lower
+   */
+  public static int lossIn(int ply) {
+    return -(WIN - ply);
+  }
+}
@@ -0,0 +1,53 @@
+package bauernschach.engine;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.Bauernschach.OperationStatus;
+import bauernschach.model.GameState;
+import bauernschach.model.board.ChessBoardSnapshot;
+import bauernschach.model.board.ChessPiece;
+import bauernschach.model.board.Coordinate;
+import bauernschach.model.board.CoordinateTable;
+import bauernschach.model.board.PackedMove;
+
+/** Plays {@link PackedMove packed moves} chosen by an engine on a {@link Bauernschach} game. */
+public final class GameMoves {
+  private GameMoves() {}
+
+  /**
+   * Plays the given move through the public game API: a pass through {@link Bauernschach#pass()},
+   * any other move by selecting the piece on its from square with {@link
+   * Bauernschach#selectPieceById(int)} and choosing the matching move with {@link
+   * Bauernschach#move(int)}. A piece that is already selected is deselected first.
+   *
+   * @param game the game to play the move on
+   * @param packedMove the move to play
+   * @return OperationStatus.SUCCESS if the move was played; OperationStatus.FAIL if the game is not
+   *     running or the move is not possible in the current game state
+   */
+  public static OperationStatus play(Bauernschach game, int packedMove) {
+    if (PackedMove.isPass(packedMove)) {
+      return game.pass();
+    }
+    final GameState gameState = game.getGameState();
+    if (!gameState.isGameRunning()) {
+      return OperationStatus.FAIL;
+    }
+    if (!gameState.getSelectedPiece().isNone()) {
+      game.deselectPiece();
+    }
+
+    final ChessBoardSnapshot chessBoard = gameState.getChessBoardSnapshot();
+    final CoordinateTable coordinates = chessBoard.getCoordinateTable();
+    final ChessPiece piece =
+        chessBoard.getPieceAt(coordinates.getCoordinate(PackedMove.getFromSquare(packedMove)));
+    final Coordinate target = coordinates.getCoordinate(PackedMove.getToSquare(packedMove));
+    final int moveIndex = piece.getPossibleMoveCoordinates().indexOf(target);
+    if (piece.isNone() || moveIndex < 0) {
+      return OperationStatus.FAIL;
+    }
+    if (game.selectPieceById(piece.getId()) != OperationStatus.SUCCESS) {
+      return OperationStatus.FAIL;
+    }
+    return game.move(moveIndex);
+  }
+}
@@ -0,0 +1,111 @@
+package bauernschach.engine;
+
+import bauernschach.model.board.PackedMove;
+import java.util.concurrent.TimeUnit;
+
+/** The result of a Monte Carlo tree search: the chosen move and search statistics. */
+public final class MonteCarloResult {
+  private final int bestMove;
+  private final double winRate;
+  private final int bestMoveVisits;
+  private final long playouts;
+  private final long reusedPlayouts;
+  private final long elapsedNanos;
+
+  MonteCarloResult(
+      int bestMove,
+      double winRate,
+      int bestMoveVisits,
+      long playouts,
+      long reusedPlayouts,
+      long elapsedNanos) {
+    this.bestMove = bestMove;
+    this.winRate = winRate;
+    this.bestMoveVisits = bestMoveVisits;
+    this.playouts = playouts;
+    this.reusedPlayouts = reusedPlayouts;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns the move that was visited most often.
+   *
+   * @return the best move as a {@link PackedMove packed move}, possibly {@link PackedMove#PASS}
+   */
+  public int getBestMove() {
+    return bestMove;
+  }
+
+  /**
+   * Returns the share of points the player to move scored in the playouts after the best move. A
+   * win counts as one point, a draw as half a point.
+   *
+   * @return the win rate between 0 and 1
+   */
+  public double getWinRate() {
+    return winRate;
+  }
+
+  /**
+   * Returns how often the best move was visited, including visits reused from earlier searches.
+   *
+   * @return the number of visits of the best move
+   */
+  public int getBestMoveVisits() {
+    return bestMoveVisits;
+  }
+
+  /**
+   * Returns the number of playouts run by this search.
+   *
+   * @return the number of playouts
+   */
+  public long getPlayouts() {
+    return playouts;
+  }
+
+  /**
+   * Returns the number of playouts that were kept from earlier searches by reusing their tree.
+   *
+   * @return the number of reused playouts
+   */
+  public long getReusedPlayouts() {
+    return reusedPlayouts;
+  }
+
+  /**
+   * Returns the time the search took.
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Returns the search throughput.
+   *
+   * @return the number of playouts per second
+   */
+  public long getPlayoutsPerSecond() {
+    return playouts * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos);
+  }
+
+  @Override
+  public String toString() {
+    return "MonteCarloResult{"
+        + "bestMove="
+        + PackedMove.toString(bestMove)
+        + ", winRate="
+        + winRate
+        + ", visits="
+        + bestMoveVisits
+        + ", playouts="
+        + playouts
+        + ", reused="
+        + reusedPlayouts
+        + ", playoutsPerSecond="
+        + getPlayoutsPerSecond()
+        + '}';
+  }
+}
@@ -0,0 +1,376 @@
+package bauernschach.engine;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.GameState;
+import bauernschach.model.GameState.GameStatus;
+import bauernschach.model.board.ChessPiece.Color;
+import bauernschach.model.board.MoveBuffer;
+import bauernschach.model.board.PackedMove;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A computer player for {@link Bauernschach} that uses Monte Carlo tree search. Every playout walks
+ * down the search tree by UCT selection, plays random piece moves from the reached position until
+ * the game ends, and adds the result to every node on its path. Unlike a fixed-depth search,
+ * playouts always reach the end of the game, even on wide boards.
+ *
+ * <p>Many playouts run at once, each on its own virtual thread and its own copy of the position.
+ * While a playout passes a node it counts as a lost visit there ("virtual loss"), which steers the
+ * other playouts to different branches. After a move has been played, the subtree below the new
+ * position is kept for the next search.
+ *
+ * <p>Passing is part of the tree. A pass answered by a pass scores as a draw, since the position
+ * would repeat forever, as in {@link AlphaBetaSearcher} and {@link Tablebase}. Playouts never pass,
+ * so every playout ends.
+ */
+public final class MonteCarloSearcher {
+  /** Default weight of the exploration term of UCT. */
+  public static final double DEFAULT_EXPLORATION = 1.4;
+
+  // a leaf is expanded once it was visited this often, which keeps the tree small
+  private static final int EXPANSION_THRESHOLD = 4;
+  // results are counted in half points: 2 for a win, 1 for a draw, 0 for a loss
+  private static final int WIN_POINTS = 2;
+  private static final int DRAW_POINTS = 1;
+
+  private final int numPlayouts;
+  private final double exploration;
+  private volatile boolean stopRequested;
+  // set when the search fails or is interrupted, unlike stopRequested only for this search
+  private volatile boolean aborted;
+
+  // tree of the last search, kept for the next one
+  private Node root;
+
+  // state of the running search
+  private final AtomicLong playouts = new AtomicLong();
+  private long maxPlayouts;
+  private boolean hasDeadline;
+  private long deadlineNanos;
+
+  /**
+   * Constructs a searcher that runs four concurrent playouts per available processor and uses the
+   * default exploration weight.
+   */
+  public MonteCarloSearcher() {
+    this(4 * Runtime.getRuntime().availableProcessors(), DEFAULT_EXPLORATION);
+  }
+
+  /**
+   * Constructs a searcher.
+   *
+   * @param numPlayouts the number of playouts that run at once, each on a virtual thread
+   * @param exploration the weight of the exploration term of UCT
+   * @throws IllegalArgumentException if numPlayouts is less than 1 or exploration is negative
+   */
+  public MonteCarloSearcher(int numPlayouts, double exploration) {
+    if (numPlayouts < 1 || !(exploration >= 0)) {
+      throw new IllegalArgumentException("Invalid search parameters.");
+    }
+    this.numPlayouts = numPlayouts;
+    this.exploration = exploration;
+  }
+
+  /**
+   * Searches the best move for the player on turn in the given game state. If the state was reached
+   * from the position of the previous search by one or two moves, the tree below it is reused.
+   *
+   * @param gameState the game state to search, which is not changed
+   * @param limits the limits of the search. The node limit is the number of playouts, the depth
+   *     limit is ignored
+   * @return the move visited most often and search statistics
+   * @throws IllegalArgumentException if the game is not running
+   */
+  public MonteCarloResult bestMove(GameState gameState, SearchLimits limits) {
+    if (!gameState.isGameRunning()) {
+      throw new IllegalArgumentException("Game is not running.");
+    }
+    final SearchPosition position = SearchPosition.of(gameState);
+    root = findReusableRoot(position.getKey());
+    if (root == null) {
+      final Color mover = position.getSideToMove().getOpposingColor();
+      root = new Node(null, PackedMove.PASS, mover, position.getKey());
+    }
+    root.parent = null;
+    if (root.children == null) {
+      root.expand(position, new MoveBuffer());
+    }
+    final long reusedPlayouts = root.visits;
+
+    aborted = false;
+    playouts.set(0);
+    maxPlayouts = limits.getMaxNodes();
+    final long startNanos = System.nanoTime();
+    hasDeadline = limits.getMaxTimeMillis() != Long.MAX_VALUE;
+    deadlineNanos = hasDeadline ? startNanos + limits.getMaxTimeMillis() * 1_000_000L : 0L;
+
+    final SplittableRandom seeds = new SplittableRandom();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      final List<Future<?>> workers = new ArrayList<>();
+      for (int i = 0; i < numPlayouts; ++i) {
+        final SearchPosition workerPosition = position.copyOf();
+        final SplittableRandom random = seeds.split();
+        workers.add(executor.submit(() -> runPlayouts(workerPosition, random)));
+      }
+      for (Future<?> worker : workers) {
+        try {
+          worker.get();
+        } catch (InterruptedException e) {
+          aborted = true;
+          Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+          aborted = true;
+          throw new IllegalStateException("Playout failed.", e.getCause());
+        }
+      }
+    }
+
+    // the stop request, if any, was for this search
+    stopRequested = false;
+
+    final Node best = mostVisitedChild(root);
+    final int bestMove = (best == null) ? PackedMove.PASS : best.move;
+    final int bestVisits = (best == null) ? 0 : best.visits;
+    final double winRate =
+        (bestVisits == 0) ? 0.5 : (double) best.halfPoints / (WIN_POINTS * (double) bestVisits);
+    return new MonteCarloResult(
+        bestMove,
+        winRate,
+        bestVisits,
+        playouts.get(),
+        reusedPlayouts,
+        System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Stops the running search as soon as possible. May be called from any thread. The search still
+   * returns the most visited move. If no search is running, the next search stops before its first
+   * playout.
+   */
+  public void stop() {
+    stopRequested = true;
+  }
+
+  /** Forgets the tree of the last search, for instance when a new game starts. */
+  public void clearTree() {
+    root = null;
+  }
+
+  private boolean isFinished() {
+    return stopRequested
+        || aborted
+        || playouts.get() >= maxPlayouts
+        || (hasDeadline && System.nanoTime() - deadlineNanos > 0);
+  }
+
+  /** Finds the node of the given position among the root and the next two plies of the tree. */
+  private Node findReusableRoot(long key) {
+    if (root == null) {
+      return null;
+    }
+    if (root.key == key) {
+      return root;
+    }
+    final Node[] children = root.children;
+    if (children == null) {
+      return null;
+    }
+    for (Node child : children) {
+      if (child.key == key) {
+        return child;
+      }
+    }
+    for (Node child : children) {
+      final Node[] grandChildren = child.children;
+      if (grandChildren != null) {
+        for (Node grandChild : grandChildren) {
+          if (grandChild.key == key) {
+            return grandChild;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  private void runPlayouts(SearchPosition position, SplittableRandom random) {
+    final MoveBuffer moves = new MoveBuffer();
+    final List<Node> path = new ArrayList<>();
+    while (!isFinished()) {
+      playout(position, random, moves, path);
+      playouts.incrementAndGet();
+    }
+  }
+
+  /** Runs one playout from the root and takes back all its moves. */
+  private void playout(
+      SearchPosition position, SplittableRandom random, MoveBuffer moves, List<Node> path) {
+    final int numPlayedBefore = position.getNumPlayed();
+    path.clear();
+    Node node = root;
+    path.add(node);
+    node.addVirtualLoss(1);
+
+    // selection and expansion
+    GameStatus result = null;
+    while (position.isGameRunning()) {
+      Node[] children = node.children;
+      if (children == null) {
+        if (node.visits < EXPANSION_THRESHOLD) {
+          break;
+        }
+        children = node.expand(position, moves);
+      }
+      node = select(node, children);
+      path.add(node);
+      node.addVirtualLoss(1);
+      if (PackedMove.isPass(node.move) && position.lastMoveWasPass()) {
+        // both players passed, so the position would repeat forever
+        result = GameStatus.DRAW;
+        break;
+      }
+      position.play(node.move);
+      if (node.visits == 0) {
+        break;
+      }
+    }
+
+    // simulation
+    if (result == null) {
+      while (position.isGameRunning()) {
+        moves.clear();
+        position.generateMoves(moves);
+        position.play(moves.get(random.nextInt(moves.size())));
+      }
+      result = position.getStatus();
+    }
+
+    // backpropagation
+    for (Node visited : path) {
+      visited.addResult(result);
+    }
+    while (position.getNumPlayed() > numPlayedBefore) {
+      position.undo();
+    }
+  }
+
+  /** Selects the child with the highest upper confidence bound, counting virtual losses. */
+  private Node select(Node parent, Node[] children) {
+    final double logParentVisits = Math.log(Math.max(1, parent.visits + parent.virtualLosses));
+    Node best = children[0];
+    double bestValue = Double.NEGATIVE_INFINITY;
+    for (Node child : children) {
+      final int visits = child.visits + child.virtualLosses;
+      if (visits == 0) {
+        return child;
+      }
+      final double mean = child.halfPoints / (WIN_POINTS * (double) visits);
+      final double value = mean + exploration * Math.sqrt(logParentVisits / visits);
+      if (value > bestValue) {
+        bestValue = value;
+        best = child;
+      }
+    }
+    return best;
+  }
+
+  private static Node mostVisitedChild(Node node) {
+    final Node[] children = node.children;
+    Node best = null;
+    if (children != null) {
+      for (Node child : children) {
+        if (best == null || child.visits > best.visits) {
+          best = child;
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * A node of the search tree. Its statistics are from the view of the player who made the move
+   * leading to it, and are updated by many playouts at once without locks.
+   */
+  private static final class Node {
+    private static final VarHandle CHILDREN;
+    private static final VarHandle VISITS;
+    private static final VarHandle VIRTUAL_LOSSES;
+    private static final VarHandle HALF_POINTS;
+
+    static {
+      try {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        CHILDREN = lookup.findVarHandle(Node.class, "children", Node[].class);
+        VISITS = lookup.findVarHandle(Node.class, "visits", int.class);
+        VIRTUAL_LOSSES = lookup.findVarHandle(Node.class, "virtualLosses", int.class);
+        HALF_POINTS = lookup.findVarHandle(Node.class, "halfPoints", long.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    // only changed between searches, when the node becomes the root
+    Node parent;
+    final int move;
+    final Color mover;
+    final long key;
+    volatile Node[] children;
+    volatile int visits;
+    volatile int virtualLosses;
+    volatile long halfPoints;
+
+    Node(Node parent, int move, Color mover, long key) {
+      this.parent = parent;
+      this.move = move;
+      this.mover = mover;
+      this.key = key;
+    }
+
+    void addVirtualLoss(int delta) {
+      VIRTUAL_LOSSES.getAndAdd(this, delta);
+    }
+
+    /** Adds the result of a playout through this node and removes its virtual loss. */
+    void addResult(GameStatus result) {
+      final int points;
+      if (result == GameStatus.DRAW) {
+        points = DRAW_POINTS;
+      } else if ((result == GameStatus.WHITE_WON) == (mover == Color.WHITE)) {
+        points = WIN_POINTS;
+      } else {
+        points = 0;
+      }
+      HALF_POINTS.getAndAdd(this, (long) points);
+      VISITS.getAndAdd(this, 1);
+      VIRTUAL_LOSSES.getAndAdd(this, -1);
+    }
+
+    /**
+     * Creates the children of this node, whose position is the given one. If another playout
+     * expanded this node at the same time, its children are used instead.
+     */
+    Node[] expand(SearchPosition position, MoveBuffer moves) {
+      moves.clear();
+      position.generateMoves(moves);
+      moves.add(PackedMove.PASS);
+      final Color side = position.getSideToMove();
+      final Node[] newChildren = new Node[moves.size()];
+      for (int i = 0; i < newChildren.length; ++i) {
+        position.play(moves.get(i));
+        newChildren[i] = new Node(this, moves.get(i), side, position.getKey());
+        position.undo();
+      }
+      final Node[] witness = (Node[]) CHILDREN.compareAndExchange(this, null, newChildren);
+      return (witness == null) ? newChildren : witness;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package bauernschach.engine;
+
+import bauernschach.model.GameState;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Searches one position on several threads at once ("Lazy SMP"). Every thread runs its own {@link
+ * AlphaBetaSearcher} on its own copy of the position, and all of them share one {@link
+ * TranspositionTable}. Helper threads start iterative deepening at staggered depths, so they fill
+ * the table with results the main thread will need next. The result is always the one of the main
+ * thread, which runs in the calling thread.
+ *
+ * <p>A search returns only after all helper threads have finished, so no thread touches the table
+ * or the position after {@link #bestMove(GameState, SearchLimits)} returned. An instance is not
+ * thread-safe, except for {@link #stop()}.
+ */
+public final class ParallelSearcher {
+  private final TranspositionTable table;
+  private final AlphaBetaSearcher[] searchers;
+  // set when the main thread is done, to stop the helpers
+  private final AtomicBoolean helpersStop = new AtomicBoolean();
+  private final AtomicLong sharedNodes = new AtomicLong();
+
+  /**
+   * Constructs a searcher with one thread per available processor and its own transposition table
+   * of the default size.
+   */
+  public ParallelSearcher() {
+    this(
+        Runtime.getRuntime().availableProcessors(),
+        new TranspositionTable(AlphaBetaSearcher.DEFAULT_TABLE_SIZE_MB));
+  }
+
+  /**
+   * Constructs a searcher with the given number of threads.
+   *
+   * @param numThreads the number of search threads, including the calling thread
+   * @param table the transposition table shared by all threads
+   * @throws IllegalArgumentException if numThreads is less than 1
+   */
+  public ParallelSearcher(int numThreads, TranspositionTable table) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("At least one search thread is needed.");
+    }
+    this.table = table;
+    searchers = new AlphaBetaSearcher[numThreads];
+    for (int i = 0; i < numThreads; ++i) {
+      searchers[i] = new AlphaBetaSearcher(table, helpersStop, sharedNodes);
+    }
+  }
+
+  /**
+   * Returns the number of threads a search runs on.
+   *
+   * @return the number of search threads
+   */
+  public int getNumThreads() {
+    return searchers.length;
+  }
+
+  /**
+   * Searches the best move for the player on turn in the given game state on all threads.
+   *
+   * @param gameState the game state to search, which is not changed
+   * @param limits the limits of the search. The node limit applies to the nodes of all threads
+   * @return the best move found by the main thread, with the nodes of all threads
+   * @throws IllegalArgumentException if the game is not running
+   */
+  public SearchResult bestMove(GameState gameState, SearchLimits limits) {
+    if (!gameState.isGameRunning()) {
+      throw new IllegalArgumentException("Game is not running.");
+    }
+    final SearchPosition position = SearchPosition.of(gameState);
+    helpersStop.set(false);
+    sharedNodes.set(0);
+    table.newSearch();
+    final long startNanos = System.nanoTime();
+
+    final FutureTask<?>[] helpers = new FutureTask<?>[searchers.length - 1];
+    for (int i = 0; i < helpers.length; ++i) {
+      final AlphaBetaSearcher helper = searchers[i + 1];
+      final SearchPosition helperPosition = position.copyOf();
+      // every second helper starts one ply deeper than the main thread
+      final int firstDepth = 1 + (i + 1) % 2;
+      helpers[i] = new FutureTask<>(() -> helper.search(helperPosition, limits, firstDepth));
+      final Thread thread = new Thread(helpers[i], "bauernschach-search-" + (i + 1));
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    final SearchResult mainResult;
+    try {
+      mainResult = searchers[0].search(position, limits, 1);
+    } finally {
+      helpersStop.set(true);
+      awaitAll(helpers);
+    }
+
+    long nodes = 0;
+    for (AlphaBetaSearcher searcher : searchers) {
+      nodes += searcher.getNodes();
+    }
+    return new SearchResult(
+        mainResult.getBestMove(),
+        mainResult.getScore(),
+        mainResult.getDepth(),
+        mainResult.getPrincipalVariation(),
+        nodes,
+        System.nanoTime() - startNanos,
+        searchers.length);
+  }
+
+  /**
+   * Stops the running search on all threads as soon as possible. May be called from any thread.
+   * The search still returns the result of the last iteration the main thread completed. If no
+   * search is running, the next search stops after its first iteration.
+   */
+  public void stop() {
+    for (AlphaBetaSearcher searcher : searchers) {
+      searcher.stop();
+    }
+  }
+
+  /** Waits for all helpers to finish, even if interrupted, and rethrows their failures. */
+  private static void awaitAll(FutureTask<?>[] helpers) {
+    boolean interrupted = false;
+    RuntimeException failure = null;
+    for (FutureTask<?> helper : helpers) {
+      while (true) {
+        try {
+          helper.get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = new IllegalStateException("Search thread failed.", e.getCause());
+          }
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Measures how much faster the given number of threads search than a single thread. Both
+   * searches start with an empty transposition table of the default size.
+   *
+   * @param gameState the game state to search, which is not changed
+   * @param limits the limits of both searches, usually a time limit
+   * @param numThreads the number of threads to compare with one thread
+   * @return the nodes per second of the parallel search divided by those of the single thread
+   */
+  public static double measureSpeedup(GameState gameState, SearchLimits limits, int numThreads) {
+    final SearchResult single =
+        new ParallelSearcher(1, new TranspositionTable(AlphaBetaSearcher.DEFAULT_TABLE_SIZE_MB))
+            .bestMove(gameState, limits);
+    final SearchResult parallel =
+        new ParallelSearcher(
+                numThreads, new TranspositionTable(AlphaBetaSearcher.DEFAULT_TABLE_SIZE_MB))
+            .bestMove(gameState, limits);
+    return (double) parallel.getNodesPerSecond() / Math.max(1, single.getNodesPerSecond());
+  }
+}
@@ -0,0 +1,187 @@
+package bauernschach.engine;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.GameState;
+import bauernschach.model.board.MoveBuffer;
+import bauernschach.model.board.PackedMove;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the tree of possible moves ("perft"), for validating the move generator
+ * and measuring its throughput. The tree follows the rules of {@link Bauernschach}: passing is
+ * possible in every position where the game is running, and a position where a player has won or
+ * the game is drawn has no children.
+ */
+public final class Perft {
+  private Perft() {}
+
+  /**
+   * Counts the positions reached after exactly {@code depth} moves, including passes.
+   *
+   * @param gameState the game state to count from, which is not changed
+   * @param depth the number of moves, at least 0
+   * @return the number of leaf nodes at the given depth
+   * @throws IllegalArgumentException if depth is negative
+   */
+  public static long count(GameState gameState, int depth) {
+    checkDepth(depth);
+    return count(SearchPosition.of(gameState), depth, newBuffers(depth));
+  }
+
+  /**
+   * Counts the leaf nodes below each move possible in the given game state.
+   *
+   * @param gameState the game state to count from, which is not changed
+   * @param depth the number of moves including the root move, at least 1
+   * @return the leaf nodes per root move, in the order of move generation with {@link
+   *     PackedMove#PASS} last. Empty if the game is not running
+   * @throws IllegalArgumentException if depth is less than 1
+   */
+  public static Map<Integer, Long> divide(GameState gameState, int depth) {
+    checkDivideDepth(depth);
+    final SearchPosition position = SearchPosition.of(gameState);
+    final MoveBuffer[] buffers = newBuffers(depth);
+    final Map<Integer, Long> result = new LinkedHashMap<>();
+    for (int move : rootMoves(position)) {
+      position.play(move);
+      result.put(move, count(position, depth - 1, buffers));
+      position.undo();
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * Like {@link #divide(GameState, int)}, but counts the subtree of every root move as a separate
+   * task in the given pool.
+   *
+   * @param gameState the game state to count from, which is not changed
+   * @param depth the number of moves including the root move, at least 1
+   * @param pool the pool to run the tasks in
+   * @return the leaf nodes per root move, in the order of move generation with {@link
+   *     PackedMove#PASS} last. Empty if the game is not running
+   * @throws IllegalArgumentException if depth is less than 1
+   */
+  public static Map<Integer, Long> divideParallel(
+      GameState gameState, int depth, ForkJoinPool pool) {
+    checkDivideDepth(depth);
+    final SearchPosition position = SearchPosition.of(gameState);
+    final List<SubtreeTask> tasks = new ArrayList<>();
+    for (int move : rootMoves(position)) {
+      tasks.add(new SubtreeTask(position.copyOf(), move, depth - 1));
+    }
+    for (SubtreeTask task : tasks) {
+      pool.execute(task);
+    }
+    final Map<Integer, Long> result = new LinkedHashMap<>();
+    for (SubtreeTask task : tasks) {
+      result.put(task.rootMove, task.join());
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * Like {@link #count(GameState, int)}, but counts the subtree of every root move as a separate
+   * task in the given pool.
+   *
+   * @param gameState the game state to count from, which is not changed
+   * @param depth the number of moves, at least 0
+   * @param pool the pool to run the tasks in
+   * @return the number of leaf nodes at the given depth
+   * @throws IllegalArgumentException if depth is negative
+   */
+  public static long countParallel(GameState gameState, int depth, ForkJoinPool pool) {
+    checkDepth(depth);
+    if (depth == 0) {
+      return 1;
+    }
+    long nodes = 0;
+    for (long subtreeNodes : divideParallel(gameState, depth, pool).values()) {
+      nodes += subtreeNodes;
+    }
+    return nodes;
+  }
+
+  private static long count(SearchPosition position, int depth, MoveBuffer[] buffers) {
+    if (depth == 0) {
+      return 1;
+    }
+    if (!position.isGameRunning()) {
+      return 0;
+    }
+    final MoveBuffer moves = buffers[depth - 1];
+    moves.clear();
+    position.generateMoves(moves);
+    if (depth == 1) {
+      // every move and the pass lead to exactly one leaf
+      return moves.size() + 1L;
+    }
+    long nodes = 0;
+    for (int i = 0; i <= moves.size(); ++i) {
+      position.play((i < moves.size()) ? moves.get(i) : PackedMove.PASS);
+      nodes += count(position, depth - 1, buffers);
+      position.undo();
+    }
+    return nodes;
+  }
+
+  private static List<Integer> rootMoves(SearchPosition position) {
+    final List<Integer> moves = new ArrayList<>();
+    if (!position.isGameRunning()) {
+      return moves;
+    }
+    final MoveBuffer buffer = new MoveBuffer();
+    position.generateMoves(buffer);
+    for (int i = 0; i < buffer.size(); ++i) {
+      moves.add(buffer.get(i));
+    }
+    moves.add(PackedMove.PASS);
+    return moves;
+  }
+
+  private static MoveBuffer[] newBuffers(int depth) {
+    final MoveBuffer[] buffers = new MoveBuffer[Math.max(depth, 1)];
+    for (int i = 0; i < buffers.length; ++i) {
+      buffers[i] = new MoveBuffer();
+    }
+    return buffers;
+  }
+
+  private static void checkDepth(int depth) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("Depth must not be negative.");
+    }
+  }
+
+  private static void checkDivideDepth(int depth) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Depth must be at least 1.");
+    }
+  }
+
+  /** Counts the subtree below one root move on its own copy of the position. */
+  private static final class SubtreeTask extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient SearchPosition position;
+    private final int rootMove;
+    private final int depth;
+
+    SubtreeTask(SearchPosition position, int rootMove, int depth) {
+      this.position = position;
+      this.rootMove = rootMove;
+      this.depth = depth;
+    }
+
+    @Override
+    protected Long compute() {
+      position.play(rootMove);
+      return count(position, depth, newBuffers(depth));
+    }
+  }
+}
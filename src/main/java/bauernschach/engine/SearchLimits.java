@@ -0,0 +1,125 @@
+package bauernschach.engine;
+
+/**
+ * The limits of a search. A search stops as soon as one of its limits is reached; a limit that is
+ * not set does not restrict the search. Instances are immutable, use the {@code with} methods to
+ * derive a changed copy.
+ */
+public final class SearchLimits {
+  /** The largest depth any search will go to. */
+  public static final int MAX_DEPTH = 64;
+
+  private static final long UNLIMITED = Long.MAX_VALUE;
+
+  private final int maxDepth;
+  private final long maxNodes;
+  private final long maxTimeMillis;
+
+  private SearchLimits(int maxDepth, long maxNodes, long maxTimeMillis) {
+    if (maxDepth < 1 || maxNodes < 1 || maxTimeMillis < 0) {
+      throw new IllegalArgumentException("Search limits must be positive.");
+    }
+    this.maxDepth = Math.min(maxDepth, MAX_DEPTH);
+    this.maxNodes = maxNodes;
+    this.maxTimeMillis = maxTimeMillis;
+  }
+
+  /**
+   * Creates limits that only restrict the search depth.
+   *
+   * @param maxDepth the maximum number of plies to search
+   * @return limits with the given depth
+   */
+  public static SearchLimits ofDepth(int maxDepth) {
+    return new SearchLimits(maxDepth, UNLIMITED, UNLIMITED);
+  }
+
+  /**
+   * Creates limits that only restrict the number of searched nodes.
+   *
+   * @param maxNodes the maximum number of nodes to search
+   * @return limits with the given number of nodes
+   */
+  public static SearchLimits ofNodes(long maxNodes) {
+    return new SearchLimits(MAX_DEPTH, maxNodes, UNLIMITED);
+  }
+
+  /**
+   * Creates limits that only restrict the search time.
+   *
+   * @param maxTimeMillis the maximum search time in milliseconds
+   * @return limits with the given time
+   */
+  public static SearchLimits ofTimeMillis(long maxTimeMillis) {
+    return new SearchLimits(MAX_DEPTH, UNLIMITED, maxTimeMillis);
+  }
+
+  /**
+   * Creates a copy of these limits with the given maximum depth.
+   *
+   * @param newMaxDepth the maximum number of plies to search
+   * @return changed copy of these limits
+   */
+  public SearchLimits withMaxDepth(int newMaxDepth) {
+    return new SearchLimits(newMaxDepth, maxNodes, maxTimeMillis);
+  }
+
+  /**
+   * Creates a copy of these limits with the given maximum number of nodes.
+   *
+   * @param newMaxNodes the maximum number of nodes to search
+   * @return changed copy of these limits
+   */
+  public SearchLimits withMaxNodes(long newMaxNodes) {
+    return new SearchLimits(maxDepth, newMaxNodes, maxTimeMillis);
+  }
+
+  /**
+   * Creates a copy of these limits with the given maximum search time.
+   *
+   * @param newMaxTimeMillis the maximum search time in milliseconds
+   * @return changed copy of these limits
+   */
+  public SearchLimits withMaxTimeMillis(long newMaxTimeMillis) {
+    return new SearchLimits(maxDepth, maxNodes, newMaxTimeMillis);
+  }
+
+  /**
+   * Returns the maximum search depth.
+   *
+   * @return the maximum number of plies to search
+   */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Returns the maximum number of nodes.
+   *
+   * @return the maximum number of nodes, {@link Long#MAX_VALUE} if unlimited
+   */
+  public long getMaxNodes() {
+    return maxNodes;
+  }
+
+  /**
+   * Returns the maximum search time.
+   *
+   * @return the maximum search time in milliseconds, {@link Long#MAX_VALUE} if unlimited
+   */
+  public long getMaxTimeMillis() {
+    return maxTimeMillis;
+  }
+
+  @Override
+  public String toString() {
+    return "SearchLimits{"
+        + "maxDepth="
+        + maxDepth
+        + ", maxNodes="
+        + maxNodes
+        + ", maxTimeMillis="
+        + maxTimeMillis
+        + '}';
+  }
+}
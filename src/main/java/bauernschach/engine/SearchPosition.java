@@ -0,0 +1,199 @@
+package bauernschach.engine;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.GameState;
+import bauernschach.model.GameState.GameStatus;
+import bauernschach.model.board.ChessBoard;
+import bauernschach.model.board.ChessPiece.Color;
+import bauernschach.model.board.MoveBuffer;
+import bauernschach.model.board.PackedMove;
+import bauernschach.model.board.ZobristKeys;
+import java.util.Arrays;
+
+/**
+ * A position of a {@link Bauernschach} game for search. It owns a private {@link ChessBoard} and
+ * plays and takes back {@link PackedMove packed moves} in place, including {@link PackedMove#PASS}.
+ * Winning conditions, draws and the order of rounds follow the rules of {@link Bauernschach}: a
+ * player wins by reaching the finishing row or by capturing the last opposing piece, a player
+ * without possible moves is skipped, and the game is drawn when neither player can move.
+ */
+public final class SearchPosition {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final ChessBoard board;
+  private Color sideToMove;
+  private GameStatus status;
+
+  // state before each played move, to take it back
+  private int[] playedMoves = new int[INITIAL_CAPACITY];
+  private Color[] previousSides = new Color[INITIAL_CAPACITY];
+  private GameStatus[] previousStatuses = new GameStatus[INITIAL_CAPACITY];
+  private int numPlayed;
+
+  private SearchPosition(ChessBoard board, Color sideToMove, GameStatus status) {
+    this.board = board;
+    this.sideToMove = sideToMove;
+    this.status = status;
+  }
+
+  /**
+   * Creates a search position from the given game state. The position uses its own copy of the
+   * chess board, so searching it does not change the game.
+   *
+   * @param gameState the game state to search from
+   * @return a new search position equal to the game state
+   */
+  public static SearchPosition of(GameState gameState) {
+    return new SearchPosition(
+        gameState.getChessBoard(), gameState.getCurrentRound(), gameState.getStatus());
+  }
+
+  /**
+   * Creates an independent copy of this position, without the moves played so far.
+   *
+   * @return a copy of this position
+   */
+  public SearchPosition copyOf() {
+    return new SearchPosition(board.copyOf(), sideToMove, status);
+  }
+
+  /**
+   * Returns the chess board of this position. It must not be changed directly.
+   *
+   * @return the chess board of this position
+   */
+  public ChessBoard getBoard() {
+    return board;
+  }
+
+  /**
+   * Returns the player who is on turn.
+   *
+   * @return the color of the player to move
+   */
+  public Color getSideToMove() {
+    return sideToMove;
+  }
+
+  /**
+   * Returns the status of the game in this position.
+   *
+   * @return the game status
+   */
+  public GameStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * Returns whether the game is still running in this position.
+   *
+   * @return true if the game status is ONGOING. false otherwise
+   */
+  public boolean isGameRunning() {
+    return status == GameStatus.ONGOING;
+  }
+
+  /**
+   * Returns the Zobrist key of this position, including the side to move. It equals {@link
+   * GameState#getPositionKey()} for the same position.
+   *
+   * @return the Zobrist key of this position
+   */
+  public long getKey() {
+    final long sideKey = (sideToMove == Color.BLACK) ? ZobristKeys.BLACK_TO_MOVE : 0L;
+    return board.getZobristKey() ^ sideKey;
+  }
+
+  /**
+   * Returns the number of moves played on this position that can be taken back.
+   *
+   * @return the number of played moves
+   */
+  public int getNumPlayed() {
+    return numPlayed;
+  }
+
+  /**
+   * Returns whether the most recently played move was a pass.
+   *
+   * @return true if the last played move is {@link PackedMove#PASS}. false otherwise
+   */
+  public boolean lastMoveWasPass() {
+    return numPlayed > 0 && PackedMove.isPass(playedMoves[numPlayed - 1]);
+  }
+
+  /**
+   * Appends the possible piece moves of the player to move to the given buffer. Passing is always
+   * possible while the game is running and is not included.
+   *
+   * @param buffer buffer the moves are appended to
+   * @return the number of appended moves
+   */
+  public int generateMoves(MoveBuffer buffer) {
+    if (!isGameRunning()) {
+      return 0;
+    }
+    return board.generateMovesByColor(sideToMove, buffer);
+  }
+
+  /**
+   * Plays the given move for the player to move, then checks the winning conditions and starts a
+   * new round like {@link Bauernschach#move(int)} and {@link Bauernschach#pass()}.
+   *
+   * @param packedMove a move generated by {@link #generateMoves(MoveBuffer)}, or {@link
+   *     PackedMove#PASS}
+   */
+  public void play(int packedMove) {
+    if (!isGameRunning()) {
+      throw new IllegalStateException("Game is not running.");
+    }
+    if (numPlayed == playedMoves.length) {
+      final int capacity = 2 * numPlayed;
+      playedMoves = Arrays.copyOf(playedMoves, capacity);
+      previousSides = Arrays.copyOf(previousSides, capacity);
+      previousStatuses = Arrays.copyOf(previousStatuses, capacity);
+    }
+    playedMoves[numPlayed] = packedMove;
+    previousSides[numPlayed] = sideToMove;
+    previousStatuses[numPlayed] = status;
+    ++numPlayed;
+
+    if (!PackedMove.isPass(packedMove)) {
+      board.makeMove(packedMove);
+      final int toRow = PackedMove.getToSquare(packedMove) / board.getNumColumns();
+      if (toRow == board.getFinishRowByColor(sideToMove)
+          || board.getPieceCountByColor(sideToMove.getOpposingColor()) == 0) {
+        status = (sideToMove == Color.WHITE) ? GameStatus.WHITE_WON : GameStatus.BLACK_WON;
+        return;
+      }
+    }
+    startNewRound();
+  }
+
+  private void startNewRound() {
+    sideToMove = sideToMove.getOpposingColor();
+    if (!board.hasPossibleMovesByColor(sideToMove)) {
+      sideToMove = sideToMove.getOpposingColor();
+      if (!board.hasPossibleMovesByColor(sideToMove)) {
+        status = GameStatus.DRAW;
+      }
+    }
+  }
+
+  /**
+   * Takes back the most recently played move.
+   *
+   * @throws IllegalStateException if no move has been played
+   */
+  public void undo() {
+    if (numPlayed == 0) {
+      throw new IllegalStateException("No move to take back.");
+    }
+    --numPlayed;
+    if (!PackedMove.isPass(playedMoves[numPlayed])) {
+      board.unmakeMove();
+    }
+    sideToMove = previousSides[numPlayed];
+    status = previousStatuses[numPlayed];
+  }
+}
@@ -0,0 +1,131 @@
+package bauernschach.engine;
+
+import bauernschach.model.board.PackedMove;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/** The result of a search: the best move, its score, the principal variation and statistics. */
+public final class SearchResult {
+  private final int bestMove;
+  private final int score;
+  private final int depth;
+  private final int[] principalVariation;
+  private final long nodes;
+  private final long elapsedNanos;
+  private final int numThreads;
+
+  SearchResult(
+      int bestMove, int score, int depth, int[] principalVariation, long nodes, long elapsedNanos) {
+    this(bestMove, score, depth, principalVariation, nodes, elapsedNanos, 1);
+  }
+
+  SearchResult(
+      int bestMove,
+      int score,
+      int depth,
+      int[] principalVariation,
+      long nodes,
+      long elapsedNanos,
+      int numThreads) {
+    this.bestMove = bestMove;
+    this.score = score;
+    this.depth = depth;
+    this.principalVariation = principalVariation.clone();
+    this.nodes = nodes;
+    this.elapsedNanos = elapsedNanos;
+    this.numThreads = numThreads;
+  }
+
+  /**
+   * Returns the best move found.
+   *
+   * @return the best move as a {@link PackedMove packed move}, possibly {@link PackedMove#PASS}
+   */
+  public int getBestMove() {
+    return bestMove;
+  }
+
+  /**
+   * Returns the score of the best move from the view of the player to move. Scores above {@link
+   * Evaluation#WIN_THRESHOLD} are forced wins, scores below its negation forced losses.
+   *
+   * @return the score of the best move
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Returns the depth of the last completed iteration.
+   *
+   * @return the completed search depth in plies
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Returns the principal variation, i.e. the expected line of play starting with the best move.
+   *
+   * @return a copy of the principal variation as packed moves
+   */
+  public int[] getPrincipalVariation() {
+    return principalVariation.clone();
+  }
+
+  /**
+   * Returns the number of searched nodes, summed over all threads.
+   *
+   * @return the number of nodes
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Returns the time the search took.
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Returns the number of threads that took part in the search.
+   *
+   * @return the number of search threads
+   */
+  public int getNumThreads() {
+    return numThreads;
+  }
+
+  /**
+   * Returns the search throughput.
+   *
+   * @return the number of searched nodes per second
+   */
+  public long getNodesPerSecond() {
+    return nodes * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos);
+  }
+
+  @Override
+  public String toString() {
+    return "SearchResult{"
+        + "bestMove="
+        + PackedMove.toString(bestMove)
+        + ", score="
+        + score
+        + ", depth="
+        + depth
+        + ", pv="
+        + Arrays.toString(principalVariation)
+        + ", nodes="
+        + nodes
+        + ", nps="
+        + getNodesPerSecond()
+        + ", threads="
+        + numThreads
+        + '}';
+  }
+}
@@ -0,0 +1,563 @@
+package bauernschach.engine;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.GameState;
+import bauernschach.model.board.ChessBoard;
+import bauernschach.model.board.ChessPiece.Color;
+import bauernschach.model.board.MoveBuffer;
+import bauernschach.model.board.PackedMove;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A solved table of every position that can be reached in a {@link Bauernschach} game of one board
+ * size. For each position and player to move it stores whether the player wins, loses or draws
+ * with perfect play, and in how many plies the game ends.
+ *
+ * <p>Tables are built by {@link #generate(int, int, Path)} and read by {@link #open(Path)}, which
+ * maps the file into memory, so a probe hashes the piece placement and reads a slot or two.
+ *
+ * <p>A piece placement is numbered by a mixed-radix number with one digit per square: empty or
+ * white on the first row, empty or black on the last row, and empty, white or black on the rows in
+ * between. A piece on its finishing row has already won and is not stored. Only a tiny fraction of
+ * these numbers is reachable, so the table is an open-addressing hash table of the reachable
+ * placements, with one {@code long} per slot that packs the placement number and the entries for
+ * white and black to move. This limits tables to boards whose placement numbers fit into 47 bits,
+ * such as 5x5, and in practice to the boards whose reachable positions fit into memory.
+ *
+ * <p>File layout: a header of 32 bytes (magic number, format version, number of rows, number of
+ * columns, number of slots, number of placements), followed by the slots as big-endian {@code long}
+ * words. A slot is 0 if empty, otherwise it holds the placement number plus one in bits 16-63, and
+ * the entries for white and black to move in bits 0-7 and 8-15.
+ */
+public final class Tablebase {
+  /** The result of a position for the player to move, see {@link #getOutcome(int)}. */
+  public enum Outcome {
+    /** The player to move wins with perfect play. */
+    WIN,
+    /** The player to move loses against perfect play. */
+    LOSS,
+    /** Neither player can force a win. */
+    DRAW,
+    /** The position is not in the table, i.e. it cannot be reached or the game is over. */
+    UNKNOWN
+  }
+
+  /** Entry of a position that is not stored. */
+  public static final int NOT_FOUND = 0;
+
+  private static final int MAGIC = 0x42535442; // "BSTB"
+  private static final int FORMAT_VERSION = 1;
+  private static final int HEADER_BYTES = 32;
+  private static final int DRAW_ENTRY = 1;
+  private static final int ENTRY_BITS = 8;
+  private static final int ENTRY_MASK = (1 << ENTRY_BITS) - 1;
+  private static final int PLACEMENT_SHIFT = 2 * ENTRY_BITS;
+  // distances are stored in an 8 bit entry, see toEntry
+  private static final int MAX_DISTANCE = (ENTRY_MASK - 1) / 2;
+  // placement numbers plus one must fit above the entries
+  private static final long MAX_PLACEMENTS = (1L << (Long.SIZE - PLACEMENT_SHIFT - 1)) - 1;
+  // slots fit into a single mapped buffer with int offsets
+  private static final int MAX_SLOTS = 1 << 27;
+
+  private final int numRows;
+  private final int numCols;
+  private final int slotMask;
+  private final int hashShift;
+  private final long[] squareWeights;
+  private final ByteBuffer data;
+
+  private Tablebase(int numRows, int numCols, int numSlots, ByteBuffer data) {
+    this.numRows = numRows;
+    this.numCols = numCols;
+    this.slotMask = numSlots - 1;
+    this.hashShift = Long.SIZE - Integer.numberOfTrailingZeros(numSlots);
+    this.squareWeights = squareWeights(numRows, numCols);
+    this.data = data;
+  }
+
+  /**
+   * Solves every position reachable from the start of a game with the given board size and writes
+   * the table to the given file.
+   *
+   * @param numRows the number of rows of the board, at least 2
+   * @param numCols the number of columns of the board, at least 1
+   * @param file the file to write, which is replaced if it exists
+   * @throws IllegalArgumentException if the board is too small or too large for a table
+   * @throws IOException if the file cannot be written
+   */
+  public static void generate(int numRows, int numCols, Path file) throws IOException {
+    checkBoardSize(numRows, numCols);
+    final Solver solver = new Solver(numRows, numCols);
+    solver.solvePlacement();
+    final PlacementTable solved = solver.solved;
+    // keep the file at most half full, so probes for missing placements end quickly
+    final int numSlots = Integer.highestOneBit(Math.max(1, solved.size()) * 4 - 1);
+    if (numSlots > MAX_SLOTS) {
+      throw new IllegalArgumentException("Board is too large for a tablebase.");
+    }
+
+    final long[] slots = new long[numSlots];
+    final int hashShift = Long.SIZE - Integer.numberOfTrailingZeros(numSlots);
+    for (int i = 0; i < solved.capacity(); ++i) {
+      final long key = solved.keyAt(i);
+      if (key != PlacementTable.EMPTY) {
+        int slot = hash(key - 1, hashShift);
+        while (slots[slot] != 0) {
+          slot = (slot + 1) & (numSlots - 1);
+        }
+        slots[slot] = (key << PLACEMENT_SHIFT) | solved.valueAt(i);
+      }
+    }
+
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+      buffer
+          .putInt(MAGIC)
+          .putInt(FORMAT_VERSION)
+          .putInt(numRows)
+          .putInt(numCols)
+          .putInt(numSlots)
+          .putInt(solved.size())
+          .putLong(0L);
+      for (long slot : slots) {
+        if (buffer.remaining() < Long.BYTES) {
+          writeFully(channel, buffer);
+        }
+        buffer.putLong(slot);
+      }
+      writeFully(channel, buffer);
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Opens a table written by {@link #generate(int, int, Path)} by mapping it into memory.
+   *
+   * @param file the file to open
+   * @return the table
+   * @throws IOException if the file cannot be read or is not a valid table
+   */
+  public static Tablebase open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Not a tablebase file: " + file);
+      }
+      final MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (data.getInt(0) != MAGIC || data.getInt(4) != FORMAT_VERSION) {
+        throw new IOException("Not a tablebase file: " + file);
+      }
+      final int numRows = data.getInt(8);
+      final int numCols = data.getInt(12);
+      final int numSlots = data.getInt(16);
+      if (numRows < 2
+          || numCols < 1
+          || numSlots < 1
+          || Integer.bitCount(numSlots) != 1
+          || channel.size() != HEADER_BYTES + (long) numSlots * Long.BYTES) {
+        throw new IOException("Corrupt tablebase file: " + file);
+      }
+      return new Tablebase(numRows, numCols, numSlots, data);
+    }
+  }
+
+  /**
+   * Returns the number of rows of the boards in this table.
+   *
+   * @return the number of rows
+   */
+  public int getNumRows() {
+    return numRows;
+  }
+
+  /**
+   * Returns the number of columns of the boards in this table.
+   *
+   * @return the number of columns
+   */
+  public int getNumColumns() {
+    return numCols;
+  }
+
+  /**
+   * Looks up the given position.
+   *
+   * @param position the position to look up
+   * @return the entry of the position, to be decoded by {@link #getOutcome(int)} and {@link
+   *     #getDistance(int)}, or {@link #NOT_FOUND} if the game is over or the position was not
+   *     reached while solving
+   * @throws IllegalArgumentException if the board size differs from the size of this table
+   */
+  public int probe(SearchPosition position) {
+    final ChessBoard board = position.getBoard();
+    if (board.getNumRows() != numRows || board.getNumColumns() != numCols) {
+      throw new IllegalArgumentException("Board size does not match the tablebase.");
+    }
+    if (!position.isGameRunning()) {
+      return NOT_FOUND;
+    }
+    final long key = placementIndex(board, squareWeights) + 1;
+    for (int slot = hash(key - 1, hashShift); ; slot = (slot + 1) & slotMask) {
+      final long value = data.getLong(HEADER_BYTES + slot * Long.BYTES);
+      if (value == 0) {
+        return NOT_FOUND;
+      }
+      if (value >>> PLACEMENT_SHIFT == key) {
+        return entryOf((int) value, position.getSideToMove());
+      }
+    }
+  }
+
+  /**
+   * Finds the best move in the given game state by probing the positions after every possible
+   * move. A winning move ends the game as soon as possible, a losing move as late as possible.
+   *
+   * @param gameState the game state to find a move for, which is not changed
+   * @return the best move as a {@link PackedMove packed move}, possibly {@link PackedMove#PASS}
+   * @throws IllegalArgumentException if the game is not running or the board size differs from the
+   *     size of this table
+   */
+  public int bestMove(GameState gameState) {
+    if (!gameState.isGameRunning()) {
+      throw new IllegalArgumentException("Game is not running.");
+    }
+    final SearchPosition position = SearchPosition.of(gameState);
+    final MoveBuffer moves = new MoveBuffer();
+    position.generateMoves(moves);
+    moves.add(PackedMove.PASS);
+
+    final Color side = position.getSideToMove();
+    int bestMove = PackedMove.PASS;
+    int bestScore = Integer.MIN_VALUE;
+    for (int i = 0; i < moves.size(); ++i) {
+      position.play(moves.get(i));
+      final int score;
+      if (position.isGameRunning()) {
+        final int childScore = toScore(probe(position));
+        score = previousPly((position.getSideToMove() == side) ? childScore : -childScore);
+      } else {
+        score = terminalScore(position, side);
+      }
+      position.undo();
+      if (score > bestScore) {
+        bestScore = score;
+        bestMove = moves.get(i);
+      }
+    }
+    return bestMove;
+  }
+
+  /**
+   * Decodes the outcome of an entry.
+   *
+   * @param entry the entry returned by {@link #probe(SearchPosition)}
+   * @return the outcome for the player to move
+   */
+  public static Outcome getOutcome(int entry) {
+    if (entry == NOT_FOUND) {
+      return Outcome.UNKNOWN;
+    }
+    if (entry == DRAW_ENTRY) {
+      return Outcome.DRAW;
+    }
+    return ((entry & 1) == 0) ? Outcome.WIN : Outcome.LOSS;
+  }
+
+  /**
+   * Decodes the distance of an entry.
+   *
+   * @param entry the entry returned by {@link #probe(SearchPosition)}
+   * @return the number of plies until the game is won or lost with perfect play, or 0 for draws
+   *     and unknown positions
+   */
+  public static int getDistance(int entry) {
+    return (entry > DRAW_ENTRY) ? entry >>> 1 : 0;
+  }
+
+  /** Converts an entry into a score: WIN - distance for wins, its negation for losses. */
+  private static int toScore(int entry) {
+    switch (getOutcome(entry)) {
+      case WIN:
+        return Evaluation.WIN - getDistance(entry);
+      case LOSS:
+        return -(Evaluation.WIN - getDistance(entry));
+      default:
+        return Evaluation.DRAW;
+    }
+  }
+
+  /** Converts a score into an entry. */
+  private static int toEntry(int score) {
+    if (score == Evaluation.DRAW) {
+      return DRAW_ENTRY;
+    }
+    final int distance = Evaluation.WIN - Math.abs(score);
+    if (distance > MAX_DISTANCE) {
+      throw new IllegalStateException("Distance too large for a tablebase entry.");
+    }
+    return (score > 0) ? 2 * distance : 2 * distance + 1;
+  }
+
+  /** Moves a score one ply further away from the end of the game. */
+  private static int previousPly(int score) {
+    if (score > Evaluation.DRAW) {
+      return score - 1;
+    }
+    if (score < Evaluation.DRAW) {
+      return score + 1;
+    }
+    return score;
+  }
+
+  private static int terminalScore(SearchPosition position, Color side) {
+    switch (position.getStatus()) {
+      case WHITE_WON:
+        return (side == Color.WHITE) ? Evaluation.WIN - 1 : -(Evaluation.WIN - 1);
+      case BLACK_WON:
+        return (side == Color.BLACK) ? Evaluation.WIN - 1 : -(Evaluation.WIN - 1);
+      default:
+        return Evaluation.DRAW;
+    }
+  }
+
+  private static void checkBoardSize(int numRows, int numCols) {
+    if (numRows < 2 || numCols < 1) {
+      throw new IllegalArgumentException("Board is too small for a tablebase.");
+    }
+    // two states per square on the outer rows, three on the others
+    long numPlacements = 1;
+    for (int row = 0; row < numRows; ++row) {
+      for (int col = 0; col < numCols; ++col) {
+        numPlacements *= (row == 0 || row == numRows - 1) ? 2 : 3;
+        if (numPlacements > MAX_PLACEMENTS) {
+          throw new IllegalArgumentException("Board is too large for a tablebase.");
+        }
+      }
+    }
+  }
+
+  /** Returns the weight of the digit of each square in the placement number. */
+  private static long[] squareWeights(int numRows, int numCols) {
+    final long[] weights = new long[numRows * numCols];
+    long weight = 1;
+    for (int square = 0; square < weights.length; ++square) {
+      weights[square] = weight;
+      final int row = square / numCols;
+      weight *= (row == 0 || row == numRows - 1) ? 2 : 3;
+    }
+    return weights;
+  }
+
+  /** Returns the placement number of the given board, which must have no piece on a finish row. */
+  private static long placementIndex(ChessBoard board, long[] weights) {
+    final int numCols = board.getNumColumns();
+    final int lastRow = board.getNumRows() - 1;
+    long index = 0;
+    for (int square = board.nextPieceSquare(Color.WHITE, 0);
+        square >= 0;
+        square = board.nextPieceSquare(Color.WHITE, square + 1)) {
+      index += weights[square];
+    }
+    for (int square = board.nextPieceSquare(Color.BLACK, 0);
+        square >= 0;
+        square = board.nextPieceSquare(Color.BLACK, square + 1)) {
+      index += (square / numCols == lastRow) ? weights[square] : 2 * weights[square];
+    }
+    return index;
+  }
+
+  /** Returns the first slot to look at for the given placement number. */
+  private static int hash(long placement, int hashShift) {
+    return (int) ((placement * 0x9E3779B97F4A7C15L) >>> hashShift);
+  }
+
+  /** Extracts the entry for the given player to move from the entries of a placement. */
+  private static int entryOf(int entries, Color sideToMove) {
+    final int shift = (sideToMove == Color.WHITE) ? 0 : ENTRY_BITS;
+    return (entries >>> shift) & ENTRY_MASK;
+  }
+
+  /**
+   * A growable open-addressing hash map from placement numbers plus one to the entries for both
+   * players to move, used while solving.
+   */
+  private static final class PlacementTable {
+    static final long EMPTY = 0L;
+
+    private long[] keys = new long[1 << 10];
+    private short[] values = new short[1 << 10];
+    private int size;
+
+    int size() {
+      return size;
+    }
+
+    int capacity() {
+      return keys.length;
+    }
+
+    long keyAt(int slot) {
+      return keys[slot];
+    }
+
+    int valueAt(int slot) {
+      return values[slot] & 0xFFFF;
+    }
+
+    boolean contains(long key) {
+      return keys[find(key)] == key;
+    }
+
+    int get(long key) {
+      final int slot = find(key);
+      return (keys[slot] == key) ? values[slot] & 0xFFFF : 0;
+    }
+
+    void put(long key, int value) {
+      if (2 * (size + 1) > keys.length) {
+        grow();
+      }
+      final int slot = find(key);
+      if (keys[slot] != key) {
+        keys[slot] = key;
+        ++size;
+      }
+      values[slot] = (short) value;
+    }
+
+    private int find(long key) {
+      final int shift = Long.SIZE - Integer.numberOfTrailingZeros(keys.length);
+      int slot = hash(key - 1, shift);
+      while (keys[slot] != EMPTY && keys[slot] != key) {
+        slot = (slot + 1) & (keys.length - 1);
+      }
+      return slot;
+    }
+
+    private void grow() {
+      if (keys.length >= MAX_SLOTS) {
+        throw new IllegalArgumentException("Board is too large for a tablebase.");
+      }
+      final long[] oldKeys = keys;
+      final short[] oldValues = values;
+      keys = new long[2 * oldKeys.length];
+      values = new short[2 * oldValues.length];
+      for (int i = 0; i < oldKeys.length; ++i) {
+        if (oldKeys[i] != EMPTY) {
+          final int slot = find(oldKeys[i]);
+          keys[slot] = oldKeys[i];
+          values[slot] = oldValues[i];
+        }
+      }
+    }
+  }
+
+  /**
+   * Solves all positions reachable from the placement on its board. Piece moves cannot be taken
+   * back, so the positions form a directed acyclic graph apart from passing, which only changes the
+   * player to move. The solver walks that graph depth first and labels each piece placement after
+   * all placements reachable from it, starting from the positions where the game ends. Passing is
+   * then resolved between the two positions of the same placement.
+   */
+  private static final class Solver {
+    private final ChessBoard board;
+    private final long[] weights;
+    private final PlacementTable solved = new PlacementTable();
+    private final List<MoveBuffer> moveBuffers = new ArrayList<>();
+    private int ply;
+
+    Solver(int numRows, int numCols) {
+      board = new ChessBoard(numRows, numCols);
+      weights = squareWeights(numRows, numCols);
+    }
+
+    /** Labels both positions of the current piece placement in which the player can move. */
+    void solvePlacement() {
+      final boolean whiteCanMove = board.hasPossibleMovesByColor(Color.WHITE);
+      final boolean blackCanMove = board.hasPossibleMovesByColor(Color.BLACK);
+      final int whiteBest = whiteCanMove ? bestPieceMoveScore(Color.WHITE) : Evaluation.DRAW;
+      final int blackBest = blackCanMove ? bestPieceMoveScore(Color.BLACK) : Evaluation.DRAW;
+      final int whiteEntry =
+          whiteCanMove ? toEntry(scoreWithPass(whiteBest, blackCanMove, blackBest)) : NOT_FOUND;
+      final int blackEntry =
+          blackCanMove ? toEntry(scoreWithPass(blackBest, whiteCanMove, whiteBest)) : NOT_FOUND;
+      solved.put(placementIndex(board, weights) + 1, whiteEntry | (blackEntry << ENTRY_BITS));
+    }
+
+    /**
+     * Returns the score of a player who may either make their best piece move or pass. Passing
+     * hands the same placement to the opponent, or back to the player if the opponent cannot move,
+     * and passing forever is a draw. So a player without a winning move draws by passing, unless
+     * the opponent has a winning move, in which case passing loses.
+     */
+    private static int scoreWithPass(int best, boolean opponentCanMove, int opponentBest) {
+      if (best > Evaluation.DRAW) {
+        return best;
+      }
+      if (opponentCanMove && opponentBest > Evaluation.DRAW) {
+        return Math.max(best, previousPly(-opponentBest));
+      }
+      return Evaluation.DRAW;
+    }
+
+    /** Returns the best score over the piece moves of the given player. */
+    private int bestPieceMoveScore(Color side) {
+      if (ply == moveBuffers.size()) {
+        moveBuffers.add(new MoveBuffer());
+      }
+      final MoveBuffer moves = moveBuffers.get(ply);
+      moves.clear();
+      board.generateMovesByColor(side, moves);
+
+      ++ply;
+      int best = Integer.MIN_VALUE;
+      for (int i = 0; i < moves.size(); ++i) {
+        board.makeMove(moves.get(i));
+        best = Math.max(best, scoreAfterMove(side, moves.get(i)));
+        board.unmakeMove();
+      }
+      --ply;
+      return best;
+    }
+
+    /** Returns the score of the given player right after the player made the given move. */
+    private int scoreAfterMove(Color side, int move) {
+      final Color opponent = side.getOpposingColor();
+      final int toRow = PackedMove.getToSquare(move) / board.getNumColumns();
+      if (toRow == board.getFinishRowByColor(side) || board.getPieceCountByColor(opponent) == 0) {
+        return Evaluation.WIN - 1;
+      }
+      final boolean opponentCanMove = board.hasPossibleMovesByColor(opponent);
+      if (!opponentCanMove && !board.hasPossibleMovesByColor(side)) {
+        return Evaluation.DRAW;
+      }
+
+      final long key = placementIndex(board, weights) + 1;
+      if (!solved.contains(key)) {
+        solvePlacement();
+      }
+      // the opponent moves next, or the same player again if the opponent cannot move
+      final Color next = opponentCanMove ? opponent : side;
+      final int nextScore = toScore(entryOf(solved.get(key), next));
+      return previousPly((next == side) ? nextScore : -nextScore);
+    }
+  }
+}
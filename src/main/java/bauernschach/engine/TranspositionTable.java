@@ -0,0 +1,216 @@
+package bauernschach.engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size cache of search results, indexed by the Zobrist key of a position (see {@link
+ * bauernschach.model.GameState#getPositionKey()}). Each entry stores the search depth, the score,
+ * the {@link Bound} of the score and the best move.
+ *
+ * <p>The table is a single {@code long[]} with two words per entry and no per-entry objects. It can
+ * be read and written by many threads without locks: an entry is stored as {@code key ^ data} and
+ * {@code data}, and a probe only accepts it if XORing both words gives back the probed key. An
+ * entry that was torn by concurrent writes therefore reads as a miss instead of returning wrong
+ * data.
+ *
+ * <p>A new result replaces the stored entry if the slot is empty, holds the same position, was
+ * written during an earlier search (see {@link #newSearch()}), or was not searched deeper.
+ */
+public final class TranspositionTable {
+  /** The type of a stored score relative to the search window it was found with. */
+  public enum Bound {
+    /** The score is exact. */
+    EXACT,
+    /** The real score is at least the stored score (the search failed high). */
+    LOWER,
+    /** The real score is at most the stored score (the search failed low). */
+    UPPER
+  }
+
+  /** Value returned by {@link #probe(long)} when the position is not stored. */
+  public static final long MISS = 0L;
+
+  /** The smallest score that can be stored. */
+  public static final int MIN_SCORE = Short.MIN_VALUE;
+  /** The largest score that can be stored. */
+  public static final int MAX_SCORE = Short.MAX_VALUE;
+  /** The largest depth that can be stored. */
+  public static final int MAX_DEPTH = 0xFF;
+
+  private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+  private static final Bound[] BOUNDS = Bound.values();
+
+  // data layout: move in bits 0-31, score in 32-47, depth in 48-55, bound + 1 in 56-57 (0 means
+  // empty), search generation in 58-63
+  private static final int SCORE_SHIFT = 32;
+  private static final int DEPTH_SHIFT = 48;
+  private static final int BOUND_SHIFT = 56;
+  private static final int GENERATION_SHIFT = 58;
+  private static final long BOUND_MASK = 0x3L;
+  private static final int GENERATION_MASK = 0x3F;
+
+  private final long[] table;
+  private final int indexMask;
+  private volatile int generation;
+
+  /**
+   * Constructs a table that uses at most the given amount of memory. The number of entries is the
+   * largest power of two that fits.
+   *
+   * @param sizeInMb the maximum size of the table in megabytes, at least 1
+   */
+  public TranspositionTable(int sizeInMb) {
+    if (sizeInMb < 1) {
+      throw new IllegalArgumentException("Table size must be at least 1 MB.");
+    }
+    final long maxEntries = ((long) sizeInMb << 20) / BYTES_PER_ENTRY;
+    // two words per entry, so 2^29 entries is the largest power of two whose array length fits
+    // into an int
+    final long numEntries = Math.min(Long.highestOneBit(maxEntries), 1L << 29);
+    table = new long[(int) (2 * numEntries)];
+    indexMask = (int) (numEntries - 1);
+  }
+
+  /**
+   * Returns the number of entries of this table.
+   *
+   * @return the number of entries
+   */
+  public int getNumEntries() {
+    return indexMask + 1;
+  }
+
+  /** Removes all entries. Must not run concurrently with a search. */
+  public void clear() {
+    Arrays.fill(table, 0L);
+    generation = 0;
+  }
+
+  /**
+   * Starts a new search generation. Entries from earlier searches are kept for probing but are
+   * replaced in preference to entries of the current search.
+   */
+  public void newSearch() {
+    generation = (generation + 1) & GENERATION_MASK;
+  }
+
+  /**
+   * Looks up the entry of the given position.
+   *
+   * @param key the Zobrist key of the position
+   * @return the stored data, to be decoded by the static getters of this class, or {@link #MISS} if
+   *     the position is not stored
+   */
+  public long probe(long key) {
+    final int index = indexOf(key);
+    final long data = table[index + 1];
+    if ((table[index] ^ data) != key || data == MISS) {
+      return MISS;
+    }
+    return data;
+  }
+
+  /**
+   * Stores a search result, unless the slot holds a deeper result of the current search for
+   * another position.
+   *
+   * @param key the Zobrist key of the position
+   * @param depth the remaining depth the position was searched with, clamped to {@link #MAX_DEPTH}
+   * @param score the score of the position, clamped to {@link #MIN_SCORE} and {@link #MAX_SCORE}
+   * @param bound the type of the score
+   * @param bestMove the best move found, in the engine's move encoding
+   */
+  public void store(long key, int depth, int score, Bound bound, int bestMove) {
+    final int index = indexOf(key);
+    final long storedData = table[index + 1];
+    final int currentGeneration = generation;
+    if (storedData != MISS
+        && (table[index] ^ storedData) != key
+        && getGeneration(storedData) == currentGeneration
+        && getDepth(storedData) > depth) {
+      return;
+    }
+    final long data = encode(depth, score, bound, bestMove, currentGeneration);
+    table[index] = key ^ data;
+    table[index + 1] = data;
+  }
+
+  /**
+   * Returns the number of entries per thousand that were written during the current search,
+   * estimated from the first thousand entries.
+   *
+   * @return the estimated fill rate in permille
+   */
+  public int getUsagePermille() {
+    final int sample = Math.min(1000, getNumEntries());
+    final int currentGeneration = generation;
+    int used = 0;
+    for (int i = 0; i < sample; ++i) {
+      final long data = table[2 * i + 1];
+      if (data != MISS && getGeneration(data) == currentGeneration) {
+        ++used;
+      }
+    }
+    return used * 1000 / sample;
+  }
+
+  private int indexOf(long key) {
+    // the low bits of the key select the slot, mixed with the high bits for small tables
+    return 2 * ((int) (key ^ (key >>> 32)) & indexMask);
+  }
+
+  private static long encode(int depth, int score, Bound bound, int bestMove, int generation) {
+    final int clampedDepth = Math.max(0, Math.min(MAX_DEPTH, depth));
+    final int clampedScore = Math.max(MIN_SCORE, Math.min(MAX_SCORE, score));
+    return (bestMove & 0xFFFFFFFFL)
+        | ((clampedScore & 0xFFFFL) << SCORE_SHIFT)
+        | ((long) clampedDepth << DEPTH_SHIFT)
+        | ((bound.ordinal() + 1L) << BOUND_SHIFT)
+        | ((long) generation << GENERATION_SHIFT);
+  }
+
+  /**
+   * Decodes the best move of an entry.
+   *
+   * @param data the data returned by {@link #probe(long)}
+   * @return the stored best move
+   */
+  public static int getBestMove(long data) {
+    return (int) data;
+  }
+
+  /**
+   * Decodes the score of an entry.
+   *
+   * @param data the data returned by {@link #probe(long)}
+   * @return the stored score
+   */
+  public static int getScore(long data) {
+    return (short) (data >>> SCORE_SHIFT);
+  }
+
+  /**
+   * Decodes the depth of an entry.
+   *
+   * @param data the data returned by {@link #probe(long)}
+   * @return the stored depth
+   */
+  public static int getDepth(long data) {
+    return (int) (data >>> DEPTH_SHIFT) & MAX_DEPTH;
+  }
+
+  /**
+   * Decodes the bound of an entry.
+   *
+   * @param data the data returned by {@link #probe(long)}, which must not be {@link #MISS}
+   * @return the type of the stored score
+   */
+  public static Bound getBound(long data) {
+    assert data != MISS;
+    return BOUNDS[(int) ((data >>> BOUND_SHIFT) & BOUND_MASK) - 1];
+  }
+
+  private static int getGeneration(long data) {
+    return (int) (data >>> GENERATION_SHIFT) & GENERATION_MASK;
+  }
+}
@@ -0,0 +1,28 @@
+package bauernschach.log;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/** Writes game events to the standard output, one per line. */
+final class ConsoleEventSink implements GameEventSink {
+  private final PrintStream out;
+
+  ConsoleEventSink(PrintStream out) {
+    this.out = out;
+  }
+
+  @Override
+  public void write(List<GameEvent> events) {
+    final StringBuilder text = new StringBuilder();
+    for (GameEvent event : events) {
+      text.append(event).append(System.lineSeparator());
+    }
+    out.print(text);
+    out.flush();
+  }
+
+  @Override
+  public void close() {
+    out.flush();
+  }
+}
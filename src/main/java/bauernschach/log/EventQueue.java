@@ -0,0 +1,89 @@
+package bauernschach.log;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded queue of game events for many producers and a single consumer, without locks. Every
+ * slot of the ring buffer has a sequence number that tells whether it is free for the producer of
+ * a given position or filled for the consumer, so producers only compete for the tail position
+ * and never wait for each other or for the consumer.
+ */
+final class EventQueue {
+  private final AtomicReferenceArray<GameEvent> events;
+  private final AtomicLongArray sequences;
+  private final int mask;
+  private final AtomicLong tail = new AtomicLong();
+  // only used by the consumer
+  private long head;
+
+  /**
+   * Constructs an empty queue.
+   *
+   * @param capacity the maximum number of events, rounded up to a power of two
+   */
+  EventQueue(int capacity) {
+    final int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+    events = new AtomicReferenceArray<>(size);
+    sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; ++i) {
+      sequences.set(i, i);
+    }
+    mask = size - 1;
+  }
+
+  /**
+   * Adds an event unless the queue is full. May be called from any thread.
+   *
+   * @param event the event to add
+   * @return false if the queue was full and the event was not added
+   */
+  boolean offer(GameEvent event) {
+    long position = tail.get();
+    while (true) {
+      final int index = (int) position & mask;
+      final long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          events.lazySet(index, event);
+          // publishes the event to the consumer
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        // the consumer has not freed the slot of this position yet
+        return false;
+      } else {
+        // another producer took this position
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Moves events from the queue to the given list. Must only be called by the consumer.
+   *
+   * @param batch the list to append the events to
+   * @param maxEvents the maximum number of events to move
+   * @return the number of events moved
+   */
+  int drainTo(List<GameEvent> batch, int maxEvents) {
+    int drained = 0;
+    while (drained < maxEvents) {
+      final int index = (int) head & mask;
+      if (sequences.get(index) != head + 1) {
+        break;
+      }
+      batch.add(events.get(index));
+      events.lazySet(index, null);
+      // frees the slot for the producer one round later
+      sequences.set(index, head + mask + 1);
+      ++head;
+      ++drained;
+    }
+    return drained;
+  }
+}
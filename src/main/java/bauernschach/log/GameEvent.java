@@ -0,0 +1,253 @@
+package bauernschach.log;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.GameState.GameStatus;
+
+/**
+ * An event of a {@link Bauernschach} game played in a user interface, such as a click on a square
+ * or a move. Every operation on the game is logged as its own event with the arguments it was
+ * called with, so that a trace of events can be replayed (see {@link GameEventTrace}).
+ *
+ * <p>The text form of an event is one line: the time in milliseconds since the epoch, the {@link
+ * Type} and its arguments, separated by spaces, e.g. {@code 1700000000000 MOVE 2}.
+ */
+public final class GameEvent {
+  /** The type of a game event and the arguments it takes. */
+  public enum Type {
+    /** A new game with the given number of rows and columns was started. */
+    NEW_GAME(2),
+    /** The square in the given row and column was clicked. */
+    CLICK(2),
+    /** The piece with the given id was selected. */
+    SELECT(1),
+    /** The selected piece was deselected. */
+    DESELECT(0),
+    /** The selected piece made its possible move with the given index. */
+    MOVE(1),
+    /** The player on turn passed. */
+    PASS(0),
+    /** The last move was taken back. */
+    UNDO(0),
+    /** The last move taken back was played again. */
+    REDO(0),
+    /** The game reached the {@link GameStatus} with the given ordinal. */
+    STATUS(1);
+
+    private final int numArgs;
+
+    Type(int numArgs) {
+      this.numArgs = numArgs;
+    }
+
+    /**
+     * Returns the number of arguments of events of this type.
+     *
+     * @return the number of arguments, between 0 and 2
+     */
+    public int getNumArgs() {
+      return numArgs;
+    }
+  }
+
+  private static final GameStatus[] STATUSES = GameStatus.values();
+
+  private final long timeMillis;
+  private final Type type;
+  private final int first;
+  private final int second;
+
+  private GameEvent(long timeMillis, Type type, int first, int second) {
+    this.timeMillis = timeMillis;
+    this.type = type;
+    this.first = first;
+    this.second = second;
+  }
+
+  private static GameEvent now(Type type, int first, int second) {
+    return new GameEvent(System.currentTimeMillis(), type, first, second);
+  }
+
+  /**
+   * Creates an event for the start of a new game.
+   *
+   * @param numRows the number of rows of the chess board
+   * @param numCols the number of columns of the chess board
+   * @return the event
+   */
+  public static GameEvent newGame(int numRows, int numCols) {
+    return now(Type.NEW_GAME, numRows, numCols);
+  }
+
+  /**
+   * Creates an event for a click on a square.
+   *
+   * @param row the row of the square
+   * @param col the column of the square
+   * @return the event
+   */
+  public static GameEvent click(int row, int col) {
+    return now(Type.CLICK, row, col);
+  }
+
+  /**
+   * Creates an event for the selection of a piece.
+   *
+   * @param pieceId the id of the selected piece
+   * @return the event
+   */
+  public static GameEvent select(int pieceId) {
+    return now(Type.SELECT, pieceId, 0);
+  }
+
+  /**
+   * Creates an event for the deselection of the selected piece.
+   *
+   * @return the event
+   */
+  public static GameEvent deselect() {
+    return now(Type.DESELECT, 0, 0);
+  }
+
+  /**
+   * Creates an event for a move of the selected piece.
+   *
+   * @param moveIndex the index of the move among the possible moves of the piece
+   * @return the event
+   */
+  public static GameEvent move(int moveIndex) {
+    return now(Type.MOVE, moveIndex, 0);
+  }
+
+  /**
+   * Creates an event for a pass.
+   *
+   * @return the event
+   */
+  public static GameEvent pass() {
+    return now(Type.PASS, 0, 0);
+  }
+
+  /**
+   * Creates an event for taking back a move.
+   *
+   * @return the event
+   */
+  public static GameEvent undo() {
+    return now(Type.UNDO, 0, 0);
+  }
+
+  /**
+   * Creates an event for playing a move taken back again.
+   *
+   * @return the event
+   */
+  public static GameEvent redo() {
+    return now(Type.REDO, 0, 0);
+  }
+
+  /**
+   * Creates an event for a change of the game status.
+   *
+   * @param status the new status
+   * @return the event
+   */
+  public static GameEvent status(GameStatus status) {
+    return now(Type.STATUS, status.ordinal(), 0);
+  }
+
+  /**
+   * Parses the text form of an event, as returned by {@link #toString()}.
+   *
+   * @param line the text form
+   * @return the event
+   * @throws IllegalArgumentException if the line is not a valid event
+   */
+  public static GameEvent parse(String line) {
+    final String[] parts = line.trim().split(" ");
+    final Type type;
+    try {
+      type = (parts.length > 1) ? Type.valueOf(parts[1]) : null;
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid game event: " + line, e);
+    }
+    if (type == null || parts.length != 2 + type.getNumArgs()) {
+      throw new IllegalArgumentException("Invalid game event: " + line);
+    }
+    try {
+      final long timeMillis = Long.parseLong(parts[0]);
+      if (type == Type.STATUS) {
+        return new GameEvent(timeMillis, type, GameStatus.valueOf(parts[2]).ordinal(), 0);
+      }
+      final int first = (type.getNumArgs() > 0) ? Integer.parseInt(parts[2]) : 0;
+      final int second = (type.getNumArgs() > 1) ? Integer.parseInt(parts[3]) : 0;
+      return new GameEvent(timeMillis, type, first, second);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid game event: " + line, e);
+    }
+  }
+
+  /**
+   * Returns the time the event happened.
+   *
+   * @return the time in milliseconds since the epoch
+   */
+  public long getTimeMillis() {
+    return timeMillis;
+  }
+
+  /**
+   * Returns the type of this event.
+   *
+   * @return the type
+   */
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * Returns the first argument: the number of rows, the row, the piece id, the move index or the
+   * ordinal of the status, depending on the type.
+   *
+   * @return the first argument, or 0 if the type has none
+   */
+  public int getFirstArg() {
+    return first;
+  }
+
+  /**
+   * Returns the second argument: the number of columns or the column, depending on the type.
+   *
+   * @return the second argument, or 0 if the type has none
+   */
+  public int getSecondArg() {
+    return second;
+  }
+
+  /**
+   * Returns the status of a {@link Type#STATUS} event.
+   *
+   * @return the new status of the game
+   * @throws IllegalStateException if this is not a status event
+   */
+  public GameStatus getStatus() {
+    if (type != Type.STATUS) {
+      throw new IllegalStateException("Not a status event.");
+    }
+    return STATUSES[first];
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder line = new StringBuilder();
+    line.append(timeMillis).append(' ').append(type);
+    if (type == Type.STATUS) {
+      line.append(' ').append(getStatus());
+    } else if (type.getNumArgs() > 0) {
+      line.append(' ').append(first);
+      if (type.getNumArgs() > 1) {
+        line.append(' ').append(second);
+      }
+    }
+    return line.toString();
+  }
+}
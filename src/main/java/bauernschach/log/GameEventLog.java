@@ -0,0 +1,174 @@
+package bauernschach.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A log of game events that never blocks the thread that logs. Events are put into a bounded
+ * lock-free queue; a background thread takes them out in batches and writes them to a {@link
+ * GameEventSink}. If the queue is full, for instance because the sink is slow, new events are
+ * dropped and counted instead of waiting.
+ *
+ * <p>A log is opened from a specification string: {@code off} logs nothing, {@code console}
+ * writes to the standard output and {@code file:<path>} writes to a {@link RollingFileEventSink
+ * rolling file}.
+ */
+public final class GameEventLog implements Closeable {
+  /** Default maximum number of events waiting to be written. */
+  public static final int DEFAULT_CAPACITY = 4096;
+
+  private static final int MAX_BATCH_SIZE = 256;
+  // the writer sleeps this long when the queue is empty, so events are written in batches
+  private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+  private static final String FILE_PREFIX = "file:";
+  private static final GameEventLog OFF = new GameEventLog(null, 0);
+
+  private final GameEventSink sink;
+  private final EventQueue queue;
+  private final Thread writer;
+  private final AtomicLong droppedEvents = new AtomicLong();
+  private volatile boolean closed;
+
+  private GameEventLog(GameEventSink sink, int capacity) {
+    this.sink = sink;
+    if (sink == null) {
+      queue = null;
+      writer = null;
+      closed = true;
+      return;
+    }
+    queue = new EventQueue(capacity);
+    writer = new Thread(this::runWriter, "bauernschach-event-log");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Returns a log that drops all events.
+   *
+   * @return the log
+   */
+  public static GameEventLog off() {
+    return OFF;
+  }
+
+  /**
+   * Opens a log that writes to the given sink.
+   *
+   * @param sink the sink to write to, which is closed with the log
+   * @param capacity the maximum number of events waiting to be written, at least 1
+   * @return the log
+   * @throws IllegalArgumentException if capacity is less than 1
+   */
+  public static GameEventLog of(GameEventSink sink, int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be at least 1.");
+    }
+    return new GameEventLog(sink, capacity);
+  }
+
+  /**
+   * Opens a log from a specification: {@code off}, {@code console} or {@code file:<path>}.
+   *
+   * @param spec the specification
+   * @return the log
+   * @throws IOException if the log file cannot be opened
+   * @throws IllegalArgumentException if the specification is invalid
+   */
+  public static GameEventLog open(String spec) throws IOException {
+    if (spec.equals("off")) {
+      return off();
+    } else if (spec.equals("console")) {
+      return of(new ConsoleEventSink(System.out), DEFAULT_CAPACITY);
+    } else if (spec.startsWith(FILE_PREFIX) && spec.length() > FILE_PREFIX.length()) {
+      final Path file = Path.of(spec.substring(FILE_PREFIX.length()));
+      return of(RollingFileEventSink.of(file), DEFAULT_CAPACITY);
+    }
+    throw new IllegalArgumentException("Invalid event log: " + spec);
+  }
+
+  /**
+   * Returns whether this log writes events. Callers may skip creating events if it does not.
+   *
+   * @return false if this log is off or closed
+   */
+  public boolean isEnabled() {
+    return !closed;
+  }
+
+  /**
+   * Logs an event without blocking. May be called from any thread. The event is dropped if the log
+   * is off or closed, or too many events are waiting to be written.
+   *
+   * @param event the event
+   */
+  public void log(GameEvent event) {
+    if (closed) {
+      return;
+    }
+    if (!queue.offer(event)) {
+      droppedEvents.incrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the number of events that were dropped because too many events were waiting.
+   *
+   * @return the number of dropped events
+   */
+  public long getDroppedEvents() {
+    return droppedEvents.get();
+  }
+
+  /**
+   * Writes the events logged so far, then closes the sink. Events logged later are dropped. Does
+   * nothing if the log is off or already closed.
+   */
+  @Override
+  public void close() {
+    if (writer == null || closed) {
+      return;
+    }
+    closed = true;
+    LockSupport.unpark(writer);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void runWriter() {
+    final List<GameEvent> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    try {
+      while (true) {
+        // read before draining, so that events logged before close are still written
+        final boolean closing = closed;
+        queue.drainTo(batch, MAX_BATCH_SIZE);
+        if (!batch.isEmpty()) {
+          sink.write(batch);
+          batch.clear();
+        } else if (closing) {
+          break;
+        } else {
+          LockSupport.parkNanos(this, FLUSH_INTERVAL_NANOS);
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      closed = true;
+      System.err.println("Game event log failed: " + e);
+    } finally {
+      try {
+        sink.close();
+      } catch (IOException e) {
+        System.err.println("Game event log failed: " + e);
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package bauernschach.log;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.GameListener;
+import bauernschach.model.GameState.GameStatus;
+
+/**
+ * Logs the operations on one game together with the status changes they cause, in the order
+ * {@link GameEventTrace#replay(java.util.List)} expects. The game reports a status change while
+ * the operation is still running, before the caller knows whether the operation succeeded and
+ * logs it. So the recorder keeps the new status and logs it right after the next operation.
+ */
+public final class GameEventRecorder implements GameListener {
+  private final GameEventLog log;
+  // the status reported during the running operation, or null
+  private GameStatus pendingStatus;
+
+  private GameEventRecorder(GameEventLog log) {
+    this.log = log;
+  }
+
+  /**
+   * Creates a recorder that writes to the given log and listens to the given game.
+   *
+   * @param game the game whose status changes are logged
+   * @param log the log to write to
+   * @return the recorder
+   */
+  public static GameEventRecorder of(Bauernschach game, GameEventLog log) {
+    final GameEventRecorder recorder = new GameEventRecorder(log);
+    game.addListener(recorder);
+    return recorder;
+  }
+
+  /**
+   * Logs an event, followed by the status the game reached during the operation of the event.
+   * Operations must be logged after they succeeded.
+   *
+   * @param event the event
+   */
+  public void log(GameEvent event) {
+    log.log(event);
+    if (pendingStatus != null) {
+      log.log(GameEvent.status(pendingStatus));
+      pendingStatus = null;
+    }
+  }
+
+  @Override
+  public void statusChanged(GameStatus status) {
+    pendingStatus = status;
+  }
+}
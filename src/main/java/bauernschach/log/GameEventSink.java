@@ -0,0 +1,19 @@
+package bauernschach.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives batches of game events from the writer thread of a {@link GameEventLog}. A sink is only
+ * used by that thread.
+ */
+public interface GameEventSink extends Closeable {
+  /**
+   * Writes a batch of events, in the order they were logged.
+   *
+   * @param events the events, which must not be kept after this method returns
+   * @throws IOException if the events cannot be written
+   */
+  void write(List<GameEvent> events) throws IOException;
+}
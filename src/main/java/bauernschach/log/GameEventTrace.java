@@ -0,0 +1,107 @@
+package bauernschach.log;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.Bauernschach.OperationStatus;
+import bauernschach.model.GameState.GameStatus;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Reads the game events written by a {@link GameEventLog} and replays them for debugging. */
+public final class GameEventTrace {
+  private GameEventTrace() {}
+
+  /**
+   * Reads the events of a log file, including the old files kept by a {@link
+   * RollingFileEventSink}, oldest first.
+   *
+   * @param file the file the log was written to
+   * @return the events in the order they were logged
+   * @throws IOException if a file cannot be read
+   * @throws IllegalArgumentException if a line is not a valid event
+   */
+  public static List<GameEvent> read(Path file) throws IOException {
+    int numBackups = 0;
+    while (Files.exists(RollingFileEventSink.backupFileOf(file, numBackups + 1))) {
+      ++numBackups;
+    }
+    final List<GameEvent> events = new ArrayList<>();
+    for (int backup = numBackups; backup >= 0; --backup) {
+      final Path source = RollingFileEventSink.backupFileOf(file, backup);
+      if (!Files.exists(source)) {
+        continue;
+      }
+      try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.US_ASCII)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.isBlank()) {
+            events.add(GameEvent.parse(line));
+          }
+        }
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Replays the operations of the last game in the given events on a new game. Events before the
+   * first {@link GameEvent.Type#NEW_GAME} event are skipped, since their game is incomplete.
+   *
+   * @param events the events in the order they were logged
+   * @return the game after the last event, or null if the events contain no new game
+   * @throws IllegalStateException if an operation fails or the game reaches another status than
+   *     logged, i.e. the replay diverged from the logged game
+   */
+  public static Bauernschach replay(List<GameEvent> events) {
+    Bauernschach game = null;
+    for (GameEvent event : events) {
+      if (event.getType() == GameEvent.Type.NEW_GAME) {
+        game = new Bauernschach(event.getFirstArg(), event.getSecondArg());
+      } else if (game != null) {
+        replay(game, event);
+      }
+    }
+    return game;
+  }
+
+  private static void replay(Bauernschach game, GameEvent event) {
+    final OperationStatus status;
+    switch (event.getType()) {
+      case SELECT:
+        status = game.selectPieceById(event.getFirstArg());
+        break;
+      case DESELECT:
+        status = game.deselectPiece();
+        break;
+      case MOVE:
+        status = game.move(event.getFirstArg());
+        break;
+      case PASS:
+        status = game.pass();
+        break;
+      case UNDO:
+        status = game.undo();
+        break;
+      case REDO:
+        status = game.redo();
+        break;
+      case STATUS:
+        final GameStatus gameStatus = game.getGameState().getStatus();
+        if (gameStatus != event.getStatus()) {
+          throw new IllegalStateException(
+              "Replay diverged: status " + gameStatus + " instead of " + event.getStatus() + ".");
+        }
+        return;
+      default:
+        // clicks do not change the game
+        return;
+    }
+    if (status != OperationStatus.SUCCESS) {
+      throw new IllegalStateException("Replay diverged: " + event + " failed.");
+    }
+  }
+}
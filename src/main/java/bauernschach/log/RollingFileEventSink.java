@@ -0,0 +1,117 @@
+package bauernschach.log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes game events to a text file, one per line. When the file grows beyond its maximum size it
+ * is renamed to {@code <file>.1}, older files are shifted to {@code <file>.2} and so on, and the
+ * oldest file is deleted. Events are appended to an existing file.
+ */
+public final class RollingFileEventSink implements GameEventSink {
+  /** Default maximum size of a file. */
+  public static final long DEFAULT_MAX_BYTES = 10L << 20;
+  /** Default number of old files that are kept. */
+  public static final int DEFAULT_MAX_BACKUPS = 4;
+
+  private final Path file;
+  private final long maxBytes;
+  private final int maxBackups;
+  private BufferedWriter writer;
+  private long size;
+
+  private RollingFileEventSink(Path file, long maxBytes, int maxBackups) throws IOException {
+    this.file = file;
+    this.maxBytes = maxBytes;
+    this.maxBackups = maxBackups;
+    open();
+  }
+
+  /**
+   * Opens a sink with the default maximum file size and number of old files.
+   *
+   * @param file the file to write to
+   * @return the sink
+   * @throws IOException if the file cannot be opened
+   */
+  public static RollingFileEventSink of(Path file) throws IOException {
+    return of(file, DEFAULT_MAX_BYTES, DEFAULT_MAX_BACKUPS);
+  }
+
+  /**
+   * Opens a sink.
+   *
+   * @param file the file to write to
+   * @param maxBytes the size in bytes after which a new file is started, at least 1
+   * @param maxBackups the number of old files that are kept, at least 0
+   * @return the sink
+   * @throws IOException if the file cannot be opened
+   * @throws IllegalArgumentException if maxBytes or maxBackups is out of range
+   */
+  public static RollingFileEventSink of(Path file, long maxBytes, int maxBackups)
+      throws IOException {
+    if (maxBytes < 1 || maxBackups < 0) {
+      throw new IllegalArgumentException("Invalid log file limits.");
+    }
+    return new RollingFileEventSink(file, maxBytes, maxBackups);
+  }
+
+  /**
+   * Returns the file that holds the given number of rolled over events.
+   *
+   * @param file the file the sink writes to
+   * @param backup 0 for the current file, 1 for the newest old file and so on
+   * @return the file
+   */
+  public static Path backupFileOf(Path file, int backup) {
+    return (backup == 0) ? file : file.resolveSibling(file.getFileName() + "." + backup);
+  }
+
+  @Override
+  public void write(List<GameEvent> events) throws IOException {
+    for (GameEvent event : events) {
+      final String line = event + System.lineSeparator();
+      if (size > 0 && size + line.length() > maxBytes) {
+        rollOver();
+      }
+      writer.write(line);
+      // events are ASCII, so the length is the number of bytes
+      size += line.length();
+    }
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+
+  private void open() throws IOException {
+    writer =
+        Files.newBufferedWriter(
+            file, StandardCharsets.US_ASCII, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    size = Files.size(file);
+  }
+
+  private void rollOver() throws IOException {
+    writer.close();
+    if (maxBackups == 0) {
+      Files.delete(file);
+    } else {
+      Files.deleteIfExists(backupFileOf(file, maxBackups));
+      for (int backup = maxBackups - 1; backup >= 0; --backup) {
+        final Path source = backupFileOf(file, backup);
+        if (Files.exists(source)) {
+          Files.move(source, backupFileOf(file, backup + 1), StandardCopyOption.REPLACE_EXISTING);
+        }
+      }
+    }
+    open();
+  }
+}
@@ -1,9 +1,27 @@
 package bauernschach.model;
 
+import bauernschach.model.board.ChessBoardSnapshot;
 import bauernschach.model.board.ChessPiece;
+import bauernschach.model.board.Coordinate;
+import bauernschach.model.board.CoordinateTable;
 import bauernschach.model.board.Move;
+import bauernschach.model.board.MoveBuffer;
+import bauernschach.model.board.PackedMove;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-/** Represents a Bauernschach game. This class implements the game logic. */
+/**
+ * Represents a Bauernschach game. This class implements the game logic.
+ *
+ * <p>The game keeps a history of its moves, so moves can be taken back with {@link #undo()} and
+ * played again with {@link #redo()}. Each move is recorded as a {@link PackedMove packed move} and
+ * the color of its player; taking it back restores the chess board in place instead of keeping a
+ * copy of every game state, so the history needs constant memory per move.
+ *
+ * <p>Views observe the game through {@link GameListener listeners}, which are told which squares,
+ * selection, round and status changed after every operation.
+ */
 public class Bauernschach {
   /** Represent the status of the previous game operation. */
   public enum OperationStatus {
@@ -18,8 +36,15 @@ public class Bauernschach {
   static final int DEFAULT_NUM_ROWS = 8;
   static final int DEFAULT_NUM_COLS = 8;
 
-  // TODO: Make it possible that views observe the game state for updates.
   private GameState gameState;
+  private final List<GameListener> listeners = new CopyOnWriteArrayList<>();
+
+  // moves played so far followed by the moves that were taken back and can be redone
+  private final MoveBuffer history = new MoveBuffer();
+  // bit i is set if black played move i of the history
+  private final BitSet playedByBlack = new BitSet();
+  // number of moves of the history that are currently played
+  private int ply;
 
   /** Contructs a Bauernschach game instance with the prespecified board dimensions. */
   public Bauernschach() {
@@ -31,11 +56,75 @@ public class Bauernschach {
    *
    * @param numRows the number of rows of the chess board
    * @param numCols the number of columns of the chess board
+   * @throws IllegalArgumentException if a dimension is 0 or the board has more than {@link
+   *     PackedMove#MAX_SQUARES} squares
    */
   public Bauernschach(int numRows, int numCols) {
     gameState = new GameState(numRows, numCols);
   }
 
+  /**
+   * Registers a listener that is told about every change of this game.
+   *
+   * @param listener the listener to add
+   */
+  public void addListener(GameListener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener added by {@link #addListener(GameListener)}.
+   *
+   * @param listener the listener to remove
+   */
+  public void removeListener(GameListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Tells the listeners what changed compared to the given old values.
+   *
+   * @param packedMove the piece move that changed the board, or {@link PackedMove#PASS} if the
+   *     board did not change
+   */
+  private void notifyListeners(
+      int packedMove,
+      ChessPiece.Color oldRound,
+      GameState.GameStatus oldStatus,
+      ChessPiece oldSelection) {
+    if (listeners.isEmpty()) {
+      return;
+    }
+    if (!PackedMove.isPass(packedMove)) {
+      final CoordinateTable coordinates = gameState.getChessBoardSnapshot().getCoordinateTable();
+      final List<Coordinate> squares =
+          List.of(
+              coordinates.getCoordinate(PackedMove.getFromSquare(packedMove)),
+              coordinates.getCoordinate(PackedMove.getToSquare(packedMove)));
+      for (GameListener listener : listeners) {
+        listener.squaresChanged(squares);
+      }
+    }
+    final ChessPiece selection = gameState.getSelectedPiece();
+    if (selection != oldSelection) {
+      for (GameListener listener : listeners) {
+        listener.selectionChanged(selection);
+      }
+    }
+    final ChessPiece.Color round = gameState.getCurrentRound();
+    if (round != oldRound) {
+      for (GameListener listener : listeners) {
+        listener.currentRoundChanged(round);
+      }
+    }
+    final GameState.GameStatus status = gameState.getStatus();
+    if (status != oldStatus) {
+      for (GameListener listener : listeners) {
+        listener.statusChanged(status);
+      }
+    }
+  }
+
   /**
    * Gets the current GameState.
    *
@@ -65,6 +154,8 @@ public class Bauernschach {
       if (piece.getId() == id) {
         gameState.selectPiece(piece);
         assert gameState.isGameRunning();
+        notifyListeners(
+            PackedMove.PASS, gameState.getCurrentRound(), gameState.getStatus(), ChessPiece.NONE);
         return OperationStatus.SUCCESS;
       }
     }
@@ -81,8 +172,11 @@ public class Bauernschach {
     if (!gameState.isGameRunning() || !gameState.hasSelectedPiece()) {
       return OperationStatus.FAIL;
     }
+    final ChessPiece oldSelection = gameState.getSelectedPiece();
     gameState.deselectPiece();
     assert gameState.isGameRunning();
+    notifyListeners(
+        PackedMove.PASS, gameState.getCurrentRound(), gameState.getStatus(), oldSelection);
     return OperationStatus.SUCCESS;
   }
 
@@ -98,13 +192,15 @@ public class Bauernschach {
     }
   }
 
-  private void checkWinningConditions(Move move) {
-    final int finishRow =
-        gameState.getChessBoard().getFinishRowByColor(gameState.getCurrentRound());
+  private void checkWinningConditions(int packedMove) {
+    final ChessBoardSnapshot chessBoard = gameState.getChessBoardSnapshot();
+    final int finishRow = chessBoard.getFinishRowByColor(gameState.getCurrentRound());
+    final int targetRow =
+        chessBoard.getCoordinateTable().getCoordinate(PackedMove.getToSquare(packedMove)).getRow();
 
     // reach finish row or no opposing piece left
-    if ((move.getNewCoordinate().getRow() == finishRow)
-        || gameState.getOpposingPieceListAtCurrentRound().isEmpty()) {
+    if ((targetRow == finishRow)
+        || gameState.getOpposingPieceCountAtCurrentRound() == 0) {
       GameState.GameStatus status =
           (gameState.getCurrentRound() == ChessPiece.Color.WHITE)
               ? GameState.GameStatus.WHITE_WON
@@ -129,15 +225,30 @@ public class Bauernschach {
       return OperationStatus.FAIL;
     }
     Move move = gameState.getSelectedPiece().getPossibleMoves().get(id);
-    gameState.applyMove(move);
+    final ChessPiece.Color color = gameState.getCurrentRound();
+    final ChessPiece oldSelection = gameState.getSelectedPiece();
+    final int packedMove = gameState.applyMove(move);
+    recordMove(packedMove, color);
+    finishMove(packedMove);
+    notifyListeners(packedMove, color, GameState.GameStatus.ONGOING, oldSelection);
+    return OperationStatus.SUCCESS;
+  }
 
-    checkWinningConditions(move);
+  /** Checks the winning conditions after a piece move and starts a new round if needed. */
+  private void finishMove(int packedMove) {
+    checkWinningConditions(packedMove);
 
     if (gameState.isGameRunning()) {
       startNewRound();
     }
+  }
 
-    return OperationStatus.SUCCESS;
+  /** Appends a new move to the history, which discards the moves that could be redone. */
+  private void recordMove(int packedMove, ChessPiece.Color color) {
+    history.truncate(ply);
+    history.add(packedMove);
+    playedByBlack.set(ply, color == ChessPiece.Color.BLACK);
+    ++ply;
   }
 
   /**
@@ -149,9 +260,127 @@ public class Bauernschach {
     if (!gameState.isGameRunning()) {
       return OperationStatus.FAIL;
     }
+    final ChessPiece.Color color = gameState.getCurrentRound();
+    final ChessPiece oldSelection = gameState.getSelectedPiece();
+    recordMove(PackedMove.PASS, color);
     startNewRound();
     assert !gameState.hasSelectedPiece();
     assert gameState.isGameRunning();
+    notifyListeners(PackedMove.PASS, color, GameState.GameStatus.ONGOING, oldSelection);
+    return OperationStatus.SUCCESS;
+  }
+
+  /**
+   * Takes back the most recent move or pass, which can then be played again with {@link #redo()}.
+   * This also continues a game that has ended, and deselects the selected piece.
+   *
+   * @return OperationStatus.SUCCESS if a move was taken back; OperationStatus.FAIL if no move has
+   *     been played
+   */
+  public OperationStatus undo() {
+    if (ply == 0) {
+      return OperationStatus.FAIL;
+    }
+    final ChessPiece.Color oldRound = gameState.getCurrentRound();
+    final GameState.GameStatus oldStatus = gameState.getStatus();
+    final ChessPiece oldSelection = gameState.getSelectedPiece();
+    --ply;
+    final int packedMove = history.get(ply);
+    if (!gameState.isGameRunning()) {
+      gameState = gameState.with(GameState.GameStatus.ONGOING);
+    }
+    if (!PackedMove.isPass(packedMove)) {
+      gameState.takeBackMove();
+    }
+    gameState.restoreRound(
+        playedByBlack.get(ply) ? ChessPiece.Color.BLACK : ChessPiece.Color.WHITE);
+    assert gameState.isGameRunning();
+    notifyListeners(packedMove, oldRound, oldStatus, oldSelection);
     return OperationStatus.SUCCESS;
   }
+
+  /**
+   * Plays the move that was taken back last by {@link #undo()} again. A piece that is selected is
+   * deselected first.
+   *
+   * @return OperationStatus.SUCCESS if a move was played again; OperationStatus.FAIL if there is no
+   *     move to redo, because none was taken back or another move was played since
+   */
+  public OperationStatus redo() {
+    if (ply == history.size()) {
+      return OperationStatus.FAIL;
+    }
+    final int packedMove = history.get(ply);
+    final ChessPiece.Color oldRound = gameState.getCurrentRound();
+    final GameState.GameStatus oldStatus = gameState.getStatus();
+    final ChessPiece oldSelection = gameState.getSelectedPiece();
+    ++ply;
+    gameState.deselectPiece();
+    if (PackedMove.isPass(packedMove)) {
+      startNewRound();
+    } else {
+      gameState.applyMove(packedMove);
+      finishMove(packedMove);
+    }
+    notifyListeners(packedMove, oldRound, oldStatus, oldSelection);
+    return OperationStatus.SUCCESS;
+  }
+
+  /**
+   * Takes back or plays again moves of the history until the given number of moves is played.
+   *
+   * @param targetPly the number of moves from the start of the game, between 0 and {@link
+   *     #getHistoryLength()}
+   * @return OperationStatus.SUCCESS if the game is at the given move; OperationStatus.FAIL if the
+   *     number is out of range
+   */
+  public OperationStatus jumpTo(int targetPly) {
+    if (targetPly < 0 || targetPly > history.size()) {
+      return OperationStatus.FAIL;
+    }
+    while (ply > targetPly) {
+      undo();
+    }
+    while (ply < targetPly) {
+      redo();
+    }
+    return OperationStatus.SUCCESS;
+  }
+
+  /**
+   * Returns the number of moves, including passes, that have been played in the current game state.
+   *
+   * @return the number of played moves
+   */
+  public int getPly() {
+    return ply;
+  }
+
+  /**
+   * Returns the number of moves in the history, including the moves that were taken back and can
+   * be redone.
+   *
+   * @return the length of the move history
+   */
+  public int getHistoryLength() {
+    return history.size();
+  }
+
+  /**
+   * Returns whether a move can be taken back with {@link #undo()}.
+   *
+   * @return true if at least one move has been played. false otherwise
+   */
+  public boolean canUndo() {
+    return ply > 0;
+  }
+
+  /**
+   * Returns whether a move can be played again with {@link #redo()}.
+   *
+   * @return true if a move was taken back and no other move was played since. false otherwise
+   */
+  public boolean canRedo() {
+    return ply < history.size();
+  }
 }
@@ -0,0 +1,45 @@
+package bauernschach.model;
+
+import bauernschach.model.GameState.GameStatus;
+import bauernschach.model.board.ChessPiece;
+import bauernschach.model.board.ChessPiece.Color;
+import bauernschach.model.board.Coordinate;
+import java.util.List;
+
+/**
+ * Receives the changes of a {@link Bauernschach} game, so that a view can update only what
+ * changed. All methods do nothing by default. Events are sent in the thread that changed the game,
+ * after the change is complete, and only if something actually changed.
+ *
+ * @see Bauernschach#addListener(GameListener)
+ */
+public interface GameListener {
+  /**
+   * Called when pieces were placed on or removed from squares of the board, e.g. the square a
+   * piece moved from and the square it moved to.
+   *
+   * @param coordinates the squares whose piece changed
+   */
+  default void squaresChanged(List<Coordinate> coordinates) {}
+
+  /**
+   * Called when a piece was selected or deselected.
+   *
+   * @param selectedPiece the selected piece, or {@link ChessPiece#NONE} if no piece is selected
+   */
+  default void selectionChanged(ChessPiece selectedPiece) {}
+
+  /**
+   * Called when the player on turn changed.
+   *
+   * @param currentRound the color of the player on turn
+   */
+  default void currentRoundChanged(Color currentRound) {}
+
+  /**
+   * Called when the game ended, or continued after its last move was taken back.
+   *
+   * @param status the new status of the game
+   */
+  default void statusChanged(GameStatus status) {}
+}
@@ -1,9 +1,13 @@
 package bauernschach.model;
 
 import bauernschach.model.board.ChessBoard;
+import bauernschach.model.board.ChessBoardSnapshot;
 import bauernschach.model.board.ChessPiece;
 import bauernschach.model.board.ChessPiece.Color;
+import bauernschach.model.board.CoordinateTable;
 import bauernschach.model.board.Move;
+import bauernschach.model.board.PackedMove;
+import bauernschach.model.board.ZobristKeys;
 import java.util.List;
 
 /**
@@ -29,6 +33,8 @@ public final class GameState {
 
   private Color currentRound;
   private ChessPiece selectedPiece;
+  // ZobristKeys.BLACK_TO_MOVE while black is on turn, 0 otherwise
+  private long sideToMoveKey;
 
   /**
    * Contructs a GameState instance with a chess board of the given diemensions. Initially, the game
@@ -36,26 +42,37 @@ public final class GameState {
    *
    * @param numRows the number of rows of the chess board
    * @param numCols the number of rows of the chess board
+   * @throws IllegalArgumentException if a dimension is 0 or the board has more than {@link
+   *     PackedMove#MAX_SQUARES} squares
    */
   GameState(int numRows, int numCols) {
     if (numRows == 0 || numCols == 0) {
       throw new IllegalArgumentException("Chess board dimensions cannot be 0.");
     }
+    // moves are applied and taken back as packed moves, which address this many squares
+    if ((long) numRows * numCols > PackedMove.MAX_SQUARES) {
+      throw new IllegalArgumentException(
+          "Chess board cannot have more than " + PackedMove.MAX_SQUARES + " squares.");
+    }
 
     chessBoard = new ChessBoard(numRows, numCols);
     currentRound = Color.WHITE;
     gameStatus = GameStatus.ONGOING;
     selectedPiece = ChessPiece.NONE;
-    updateCurrentRoundPossibleMoves();
     assert currentRoundHasPossibleMoves();
   }
 
   private GameState(
-      ChessBoard chessBoard, Color currentRound, GameStatus gameStatus, ChessPiece selectedPiece) {
+      ChessBoard chessBoard,
+      Color currentRound,
+      GameStatus gameStatus,
+      ChessPiece selectedPiece,
+      long sideToMoveKey) {
     this.chessBoard = chessBoard;
     this.currentRound = currentRound;
     this.gameStatus = gameStatus;
     this.selectedPiece = selectedPiece;
+    this.sideToMoveKey = sideToMoveKey;
   }
 
   /**
@@ -63,7 +80,7 @@ public final class GameState {
    * instance.
    */
   GameState with(GameStatus status) {
-    return new GameState(chessBoard, currentRound, status, selectedPiece);
+    return new GameState(chessBoard, currentRound, status, selectedPiece, sideToMoveKey);
   }
 
   /**
@@ -77,12 +94,23 @@ public final class GameState {
 
   /**
    * Starts a new round of the game, swaps the color of the current round and resets the selected
-   * piece.
+   * piece. The possible moves need no update, as the chess board keeps them up to date.
    */
   void newRound() {
     currentRound = currentRound.getOpposingColor();
+    sideToMoveKey ^= ZobristKeys.BLACK_TO_MOVE;
     selectedPiece = ChessPiece.NONE;
-    updateCurrentRoundPossibleMoves();
+  }
+
+  /**
+   * Returns the Zobrist key of the current position, covering the piece placement and the color of
+   * the current round. Equal positions have equal keys, so the key can be used to cache results
+   * and to detect repeated positions. This takes constant time.
+   *
+   * @return the 64-bit Zobrist key of the current position
+   */
+  public long getPositionKey() {
+    return chessBoard.getZobristKey() ^ sideToMoveKey;
   }
 
   /**
@@ -112,6 +140,16 @@ public final class GameState {
     return chessBoard.copyOf();
   }
 
+  /**
+   * Returns a read-only snapshot of the current chess board. The snapshot is shared until the board
+   * changes, so unlike {@link #getChessBoard()} this is cheap to call repeatedly.
+   *
+   * @return an immutable snapshot of the current chess board
+   */
+  public ChessBoardSnapshot getChessBoardSnapshot() {
+    return chessBoard.snapshot();
+  }
+
   /**
    * Returns the color of the current round.
    *
@@ -131,16 +169,32 @@ public final class GameState {
   }
 
   /**
-   * Returns the list of remaining chess pieces owned by the opposing player of the current round.
+   * Returns the number of remaining chess pieces owned by the opposing player of the current round.
    *
-   * @return the list of remaining chess pieces owned by the opposing player of the current round
+   * @return the number of remaining chess pieces owned by the opposing player of the current round
    */
-  List<ChessPiece> getOpposingPieceListAtCurrentRound() {
-    return chessBoard.getImmutablePieceListByColor(currentRound.getOpposingColor());
+  int getOpposingPieceCountAtCurrentRound() {
+    return chessBoard.getPieceCountByColor(currentRound.getOpposingColor());
   }
 
-  private void updateCurrentRoundPossibleMoves() {
-	  chessBoard.updatePossibleMovesByColor(currentRound);
+  /**
+   * Returns the number of remaining chess pieces of the given player, in constant time.
+   *
+   * @param color player to count the pieces of
+   * @return the number of remaining chess pieces of the player
+   */
+  public int getPieceCount(Color color) {
+    return chessBoard.getPieceCountByColor(color);
+  }
+
+  /**
+   * Returns the number of possible moves of all chess pieces of the given player, in constant time.
+   *
+   * @param color player to count the possible moves of
+   * @return the total number of possible moves of the player's chess pieces
+   */
+  public int getPossibleMoveCount(Color color) {
+    return chessBoard.getPossibleMoveCountByColor(color);
   }
 
   /**
@@ -173,10 +227,48 @@ public final class GameState {
    * the move is valid.
    *
    * @param move the move to apply on the currently selected piece.
+   * @return the move as a {@link PackedMove packed move}, which {@link #applyMove(int)} can apply
+   *     again after it was taken back
    * @see #selectPiece(ChessPiece)
    */
-  void applyMove(Move move) {
-	  chessBoard.applyMove(selectedPiece, move);
+  int applyMove(Move move) {
+    final CoordinateTable coordinates = chessBoard.getCoordinateTable();
+    final int fromSquare = coordinates.getSquare(selectedPiece.getCoordinate());
+    final int toSquare = coordinates.getSquare(move.getNewCoordinate());
+    final int packedMove =
+        (move.getMoveType() == Move.MoveType.CAPTURE)
+            ? PackedMove.capture(fromSquare, toSquare)
+            : PackedMove.forward(fromSquare, toSquare);
+    applyMove(packedMove);
+    return packedMove;
+  }
+
+  /**
+   * Applies the given move of the current round player. The chess board records how to take the
+   * move back with {@link #takeBackMove()}.
+   *
+   * @param packedMove a possible move of the current round player
+   */
+  void applyMove(int packedMove) {
+    chessBoard.makeMove(packedMove);
+  }
+
+  /** Takes back the most recent move applied by {@link #applyMove(int)}. */
+  void takeBackMove() {
+    chessBoard.unmakeMove();
+  }
+
+  /**
+   * Makes the given player the current round player and resets the selected piece, as before a
+   * move of that player.
+   *
+   * @param color the color of the current round
+   */
+  void restoreRound(Color color) {
+    if (currentRound != color) {
+      newRound();
+    }
+    selectedPiece = ChessPiece.NONE;
   }
 
   /**
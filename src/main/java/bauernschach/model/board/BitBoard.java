@@ -0,0 +1,161 @@
+package bauernschach.model.board;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size set of squares of a {@link ChessBoard}, stored as one bit per square. Square {@code
+ * row * numCols + column} is bit {@code index % 64} of word {@code index / 64}, so boards up to 64
+ * squares fit into a single {@code long}. Larger boards use as many words as needed.
+ */
+final class BitBoard {
+  private static final int WORD_BITS = Long.SIZE;
+  private static final int WORD_SHIFT = 6;
+
+  private final int numSquares;
+  private final long[] words;
+  private final long lastWordMask;
+
+  /**
+   * Constructs an empty bitboard for the given number of squares.
+   *
+   * @param numSquares the number of squares of the chess board
+   */
+  BitBoard(int numSquares) {
+    this.numSquares = numSquares;
+    words = new long[(numSquares + WORD_BITS - 1) >> WORD_SHIFT];
+    final int usedBits = numSquares % WORD_BITS;
+    lastWordMask = (usedBits == 0) ? -1L : (1L << usedBits) - 1;
+  }
+
+  private BitBoard(BitBoard source) {
+    numSquares = source.numSquares;
+    words = Arrays.copyOf(source.words, source.words.length);
+    lastWordMask = source.lastWordMask;
+  }
+
+  /** Returns a copy of this bitboard. */
+  BitBoard copyOf() {
+    return new BitBoard(this);
+  }
+
+  /** Returns whether the given square is set. Squares outside the board are never set. */
+  boolean contains(int square) {
+    if (square < 0 || square >= numSquares) {
+      return false;
+    }
+    return (words[square >> WORD_SHIFT] & (1L << square)) != 0;
+  }
+
+  /** Adds the given square to this set. */
+  void set(int square) {
+    words[square >> WORD_SHIFT] |= 1L << square;
+  }
+
+  /** Removes the given square from this set. */
+  void clear(int square) {
+    words[square >> WORD_SHIFT] &= ~(1L << square);
+  }
+
+  /** Returns the number of squares in this set. */
+  int cardinality() {
+    int count = 0;
+    for (long word : words) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /** Returns the lowest set square that is {@code >= from}, or -1 if there is none. */
+  int nextSetSquare(int from) {
+    if (from >= numSquares) {
+      return -1;
+    }
+    int wordIndex = from >> WORD_SHIFT;
+    long word = words[wordIndex] & (-1L << from);
+    while (true) {
+      if (word != 0) {
+        return (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+      }
+      if (++wordIndex == words.length) {
+        return -1;
+      }
+      word = words[wordIndex];
+    }
+  }
+
+  /** Replaces the content of this set with the content of the given set. */
+  void copyFrom(BitBoard other) {
+    System.arraycopy(other.words, 0, words, 0, words.length);
+  }
+
+  /** Intersects this set with the given set. */
+  void and(BitBoard other) {
+    for (int i = 0; i < words.length; ++i) {
+      words[i] &= other.words[i];
+    }
+  }
+
+  /** Removes all squares of the given set from this set. */
+  void andNot(BitBoard other) {
+    for (int i = 0; i < words.length; ++i) {
+      words[i] &= ~other.words[i];
+    }
+  }
+
+  /**
+   * Writes this set, shifted by the given number of squares, into the destination. A positive shift
+   * moves squares towards higher indices. Squares shifted off the board are dropped.
+   *
+   * @param shift number of squares to shift by
+   * @param destination bitboard of the same size to write to. Must not be this bitboard
+   */
+  void shiftInto(int shift, BitBoard destination) {
+    assert destination != this && destination.words.length == words.length;
+    final long[] target = destination.words;
+    final int wordShift = Math.abs(shift) >> WORD_SHIFT;
+    final int bitShift = Math.abs(shift) & (WORD_BITS - 1);
+
+    if (shift >= 0) {
+      for (int i = words.length - 1; i >= 0; --i) {
+        final int sourceIndex = i - wordShift;
+        long word = (sourceIndex >= 0) ? words[sourceIndex] << bitShift : 0L;
+        if (bitShift != 0 && sourceIndex > 0) {
+          word |= words[sourceIndex - 1] >>> (WORD_BITS - bitShift);
+        }
+        target[i] = word;
+      }
+      target[target.length - 1] &= lastWordMask;
+    } else {
+      for (int i = 0; i < words.length; ++i) {
+        final int sourceIndex = i + wordShift;
+        long word = (sourceIndex < words.length) ? words[sourceIndex] >>> bitShift : 0L;
+        if (bitShift != 0 && sourceIndex + 1 < words.length) {
+          word |= words[sourceIndex + 1] << (WORD_BITS - bitShift);
+        }
+        target[i] = word;
+      }
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BitBoard that = (BitBoard) o;
+    return numSquares == that.numSquares && Arrays.equals(words, that.words);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(words);
+  }
+
+  @Override
+  public String toString() {
+    return "BitBoard{" + "numSquares=" + numSquares + ", words=" + Arrays.toString(words) + '}';
+  }
+}
@@ -3,6 +3,7 @@ package bauernschach.model.board;
 import bauernschach.model.Bauernschach;
 import bauernschach.model.board.ChessPiece.Color;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /** This class represents the playing field of the {@link Bauernschach} game. */
@@ -12,6 +13,42 @@ public final class ChessBoard {
   private final ChessPiece[][] board;
   private final List<ChessPiece> whiteChessPieces;
   private final List<ChessPiece> blackChessPieces;
+  private final CoordinateTable coordinates;
+
+  // occupancy per color, one bit per square (see BitBoard)
+  private final BitBoard whiteOccupancy;
+  private final BitBoard blackOccupancy;
+
+  // immutable masks, shared between copies of this board
+  private final BitBoard allSquaresMask;
+  private final BitBoard notFirstColumnMask;
+  private final BitBoard notLastColumnMask;
+  private final BitBoard whiteSecondRowMask;
+  private final BitBoard blackSecondRowMask;
+
+  // scratch sets for move generation, so generation allocates no bitboards
+  private final BitBoard emptySquares;
+  private final BitBoard shiftSource;
+  private final BitBoard forwardTargets;
+  private final BitBoard doubleForwardTargets;
+  private final BitBoard leftCaptureTargets;
+  private final BitBoard rightCaptureTargets;
+
+  // Zobrist key of the piece placement, see ZobristKeys
+  private long zobristKey;
+
+  // number of possible moves of all pieces per color, kept in sync with the pieces' move lists
+  private int whitePossibleMoveCount;
+  private int blackPossibleMoveCount;
+
+  // moves made by makeMove that can be taken back by unmakeMove
+  private final UndoStack undoStack = new UndoStack();
+
+  // copy-on-write snapshot state, see snapshot()
+  private long version;
+  private final boolean[] changedRows;
+  private boolean hasChangedRows;
+  private ChessBoardSnapshot lastSnapshot;
 
   /** Array for ChessPiece
    * @return 2D Array of ChessPiece
@@ -34,12 +71,49 @@ public final class ChessBoard {
     this.numRows = numRows;
     this.numCols = numCols;
     board = new ChessPiece[numRows][numCols];
+    changedRows = new boolean[numRows];
     whiteChessPieces = new ArrayList<>();
     blackChessPieces = new ArrayList<>();
+    coordinates = CoordinateTable.of(numRows, numCols);
 
+    final int numSquares = coordinates.getNumSquares();
+    whiteOccupancy = new BitBoard(numSquares);
+    blackOccupancy = new BitBoard(numSquares);
+    allSquaresMask = new BitBoard(numSquares);
+    notFirstColumnMask = new BitBoard(numSquares);
+    notLastColumnMask = new BitBoard(numSquares);
+    whiteSecondRowMask = new BitBoard(numSquares);
+    blackSecondRowMask = new BitBoard(numSquares);
+    final int whiteSecondRow = getStartRowByColor(Color.WHITE) + getRowDirection(Color.WHITE);
+    final int blackSecondRow = getStartRowByColor(Color.BLACK) + getRowDirection(Color.BLACK);
     for (int i = 0; i < numRows; ++i) {
       for (int j = 0; j < numCols; ++j) {
-        Coordinate coordinate = Coordinate.of(i, j);
+        final int square = i * numCols + j;
+        allSquaresMask.set(square);
+        if (j != 0) {
+          notFirstColumnMask.set(square);
+        }
+        if (j != numCols - 1) {
+          notLastColumnMask.set(square);
+        }
+        if (i == whiteSecondRow) {
+          whiteSecondRowMask.set(square);
+        }
+        if (i == blackSecondRow) {
+          blackSecondRowMask.set(square);
+        }
+      }
+    }
+    emptySquares = new BitBoard(numSquares);
+    shiftSource = new BitBoard(numSquares);
+    forwardTargets = new BitBoard(numSquares);
+    doubleForwardTargets = new BitBoard(numSquares);
+    leftCaptureTargets = new BitBoard(numSquares);
+    rightCaptureTargets = new BitBoard(numSquares);
+
+    for (int i = 0; i < numRows; ++i) {
+      for (int j = 0; j < numCols; ++j) {
+        Coordinate coordinate = coordinates.getCoordinate(i * numCols + j);
         if (i == getStartRowByColor(Color.WHITE)) {
           ChessPiece piece = ChessPiece.create(Color.WHITE, whiteChessPieces.size(), coordinate);
           whiteChessPieces.add(piece);
@@ -53,30 +127,123 @@ public final class ChessBoard {
         }
       }
     }
+
+    // from here on, applyMove keeps the possible moves of both colors up to date
+    updatePossibleMovesByColor(Color.WHITE);
+    updatePossibleMovesByColor(Color.BLACK);
   }
 
   private ChessBoard(ChessBoard sourceBoard) {
     numRows = sourceBoard.getNumRows();
     numCols = sourceBoard.getNumColumns();
+    coordinates = sourceBoard.coordinates;
     board = new ChessPiece[numRows][numCols];
-    List<ChessPiece> clonedWhitePieceList = new ArrayList<>();
-    List<ChessPiece> clonedBlackPieceList = new ArrayList<>();
+    version = sourceBoard.version;
+    zobristKey = sourceBoard.zobristKey;
+    changedRows = new boolean[numRows];
+    Arrays.fill(changedRows, true);
+    hasChangedRows = true;
+    for (ChessPiece[] row : board) {
+      Arrays.fill(row, ChessPiece.NONE);
+    }
+    whiteOccupancy = sourceBoard.whiteOccupancy.copyOf();
+    blackOccupancy = sourceBoard.blackOccupancy.copyOf();
+    allSquaresMask = sourceBoard.allSquaresMask;
+    notFirstColumnMask = sourceBoard.notFirstColumnMask;
+    notLastColumnMask = sourceBoard.notLastColumnMask;
+    whiteSecondRowMask = sourceBoard.whiteSecondRowMask;
+    blackSecondRowMask = sourceBoard.blackSecondRowMask;
+
+    final int numSquares = coordinates.getNumSquares();
+    emptySquares = new BitBoard(numSquares);
+    shiftSource = new BitBoard(numSquares);
+    forwardTargets = new BitBoard(numSquares);
+    doubleForwardTargets = new BitBoard(numSquares);
+    leftCaptureTargets = new BitBoard(numSquares);
+    rightCaptureTargets = new BitBoard(numSquares);
+
+    // only occupied squares need a cloned piece, all other cells stay NONE. The possible moves are
+    // recomputed, so that captures refer to the pieces of this board and the copy can make moves.
+    whiteChessPieces = copyPieces(sourceBoard, whiteOccupancy);
+    blackChessPieces = copyPieces(sourceBoard, blackOccupancy);
+    updatePossibleMovesByColor(Color.WHITE);
+    updatePossibleMovesByColor(Color.BLACK);
+  }
+
+  /** Clones the pieces of the given occupancy in board order and places them on this board. */
+  private List<ChessPiece> copyPieces(ChessBoard sourceBoard, BitBoard occupancy) {
+    List<ChessPiece> clonedPieces = new ArrayList<>(occupancy.cardinality());
+    for (int square = occupancy.nextSetSquare(0);
+        square >= 0;
+        square = occupancy.nextSetSquare(square + 1)) {
+      final int row = square / numCols;
+      final int column = square % numCols;
+      ChessPiece sourcePiece = sourceBoard.board[row][column];
+      ChessPiece clonedPiece = sourcePiece.withNewPosition(sourcePiece.getCoordinate());
+      board[row][column] = clonedPiece;
+      clonedPieces.add(clonedPiece);
+    }
+    return clonedPieces;
+  }
+
+  /** Records that a square or a piece's possible moves in the given row have changed. */
+  private void markRowChanged(int row) {
+    ++version;
+    changedRows[row] = true;
+    hasChangedRows = true;
+  }
 
+  /**
+   * Returns a read-only snapshot of the current state of this chess board. Until the board changes,
+   * every call returns the same snapshot. After a change, only the rows that changed since the
+   * previous snapshot and their neighbours are copied, all other rows are shared with it. Capture
+   * moves of the copied pieces refer to the pieces of the snapshot, never to those of this board.
+   *
+   * @return an immutable snapshot of this chess board
+   */
+  public ChessBoardSnapshot snapshot() {
+    if (lastSnapshot != null && !hasChangedRows) {
+      return lastSnapshot;
+    }
+    ChessPiece[][] rows = new ChessPiece[numRows][];
+    // captures reach the neighbouring rows, so rows next to a changed one are copied as well, and
+    // their captures refer to the new copies
+    final boolean[] copiedRows = new boolean[numRows];
     for (int i = 0; i < numRows; ++i) {
+      copiedRows[i] =
+          lastSnapshot == null
+              || changedRows[i]
+              || (i > 0 && changedRows[i - 1])
+              || (i + 1 < numRows && changedRows[i + 1]);
+      if (!copiedRows[i]) {
+        rows[i] = lastSnapshot.getRow(i);
+        continue;
+      }
+      rows[i] = new ChessPiece[numCols];
       for (int j = 0; j < numCols; ++j) {
-        Coordinate coordinate = Coordinate.of(i, j);
-        ChessPiece clonedPiece = sourceBoard.getPieceAt(coordinate).copyOf();
-        setPieceAt(clonedPiece, coordinate);
-        if (clonedPiece.getColor() == Color.WHITE) {
-          clonedWhitePieceList.add(clonedPiece);
-        } else if (clonedPiece.getColor() == Color.BLACK) {
-          clonedBlackPieceList.add(clonedPiece);
+        rows[i][j] = board[i][j].copyWithoutMoves();
+      }
+    }
+    // the moves are added once all copies exist, since two pieces may be able to capture each other
+    for (int i = 0; i < numRows; ++i) {
+      if (!copiedRows[i]) {
+        continue;
+      }
+      for (int j = 0; j < numCols; ++j) {
+        final ChessPiece copy = rows[i][j];
+        for (Move move : board[i][j].possibleMoves) {
+          final Coordinate target = move.getNewCoordinate();
+          copy.addPossibleMove(
+              (move.getMoveType() == Move.MoveType.CAPTURE)
+                  ? Move.newCaptureMove(target, rows[target.getRow()][target.getColumn()])
+                  : move);
         }
       }
     }
-
-    whiteChessPieces = List.copyOf(clonedWhitePieceList);
-    blackChessPieces = List.copyOf(clonedBlackPieceList);
+    Arrays.fill(changedRows, false);
+    hasChangedRows = false;
+    lastSnapshot = new ChessBoardSnapshot(numRows, numCols, version, zobristKey, rows);
+    return lastSnapshot;
   }
 
   /**
@@ -97,7 +264,85 @@ public final class ChessBoard {
    */
   private void setPieceAt(ChessPiece piece, Coordinate coordinate) {
     assert piece.isNone() || (piece.getCoordinate().equals(coordinate));
+    final int square = toSquare(coordinate);
+    final ChessPiece replacedPiece = board[coordinate.getRow()][coordinate.getColumn()];
+    if (replacedPiece != null && !replacedPiece.isNone()) {
+      zobristKey ^= ZobristKeys.pieceKey(replacedPiece.getColor(), square);
+    }
+    if (!piece.isNone()) {
+      zobristKey ^= ZobristKeys.pieceKey(piece.getColor(), square);
+    }
     board[coordinate.getRow()][coordinate.getColumn()] = piece;
+    markRowChanged(coordinate.getRow());
+    if (piece.isNone()) {
+      whiteOccupancy.clear(square);
+      blackOccupancy.clear(square);
+    } else {
+      getOccupancyByColor(piece.getColor()).set(square);
+    }
+  }
+
+  /**
+   * Returns the square of the first piece of the given color at or after the given square, in
+   * board order. Iterating with this does not allocate, unlike {@link
+   * #getImmutablePieceListByColor(Color)}.
+   *
+   * @param color color of the pieces
+   * @param fromSquare the square to start searching at, see {@link CoordinateTable}
+   * @return the square of the next piece, or -1 if there is none
+   */
+  public int nextPieceSquare(Color color, int fromSquare) {
+    return getOccupancyByColor(color).nextSetSquare(fromSquare);
+  }
+
+  /**
+   * Returns the Zobrist key of the piece placement on this board. It is updated whenever a piece is
+   * placed or removed, so this takes constant time. The key does not include the side to move.
+   *
+   * @return the Zobrist key of the piece placement
+   */
+  public long getZobristKey() {
+    return zobristKey;
+  }
+
+  /** Computes the Zobrist key of the piece placement from scratch. */
+  private long computeZobristKey() {
+    long key = 0;
+    for (int square = whiteOccupancy.nextSetSquare(0);
+        square >= 0;
+        square = whiteOccupancy.nextSetSquare(square + 1)) {
+      key ^= ZobristKeys.pieceKey(Color.WHITE, square);
+    }
+    for (int square = blackOccupancy.nextSetSquare(0);
+        square >= 0;
+        square = blackOccupancy.nextSetSquare(square + 1)) {
+      key ^= ZobristKeys.pieceKey(Color.BLACK, square);
+    }
+    return key;
+  }
+
+  /** Returns the square index of the given coordinate, see {@link CoordinateTable}. */
+  private int toSquare(Coordinate coordinate) {
+    return coordinates.getSquare(coordinate);
+  }
+
+  /**
+   * Gets the table that converts between coordinates and square indices of this board.
+   *
+   * @return the coordinate table for this board's dimensions
+   */
+  public CoordinateTable getCoordinateTable() {
+    return coordinates;
+  }
+
+  /** Returns the occupancy bitboard of the given color. */
+  private BitBoard getOccupancyByColor(Color color) {
+    return (color == Color.WHITE) ? whiteOccupancy : blackOccupancy;
+  }
+
+  /** Returns the row direction the pieces of the given color move in. */
+  int getRowDirection(Color color) {
+    return (color == Color.WHITE) ? 1 : -1;
   }
 
   /**
@@ -135,19 +380,18 @@ public final class ChessBoard {
    * @return true if the given coordinate is within the board's bounds. false otherwise
    */
   boolean isPositionWithinBounds(Coordinate coordinate) {
-    final int row = coordinate.getRow();
-    final int column = coordinate.getColumn();
-    return (row >= 0) && (row < getNumRows()) && (column >= 0) && (column < getNumColumns());
+    return coordinates.isWithinBounds(coordinate.getRow(), coordinate.getColumn());
   }
 
   /** Returns whether there is a piece placed at the given position. */
   boolean hasPieceAt(Coordinate coordinate) {
-    return getPieceAt(coordinate) != ChessPiece.NONE;
+    final int square = toSquare(coordinate);
+    return whiteOccupancy.contains(square) || blackOccupancy.contains(square);
   }
 
   /** Returns whether there is an opposing piece placed at the given position. */
   boolean hasOpposingPieceAt(Coordinate coordinate, Color color) {
-    return hasPieceAt(coordinate) && getPieceAt(coordinate).getColor() != color;
+    return getOccupancyByColor(color.getOpposingColor()).contains(toSquare(coordinate));
   }
 
   /** Returns the starting row of the given color. */
@@ -185,45 +429,395 @@ public final class ChessBoard {
   }
 
   /**
-   * Applies the given move to the given chess piece.
+   * Applies the given move to the given chess piece. Afterwards, the possible moves of all pieces
+   * whose forward or diagonal squares have changed are recomputed, so the possible moves of both
+   * colors stay up to date. Moves applied this way cannot be taken back, so this also discards the
+   * undo records of {@link #makeMove(int)}.
    *
    * @param piece the piece to move
    * @param move the move to make with the piece
    */
   public void applyMove(ChessPiece piece, Move move) {
+    undoStack.clear();
+    applyMoveAndUpdate(piece, move);
+  }
+
+  private void applyMoveAndUpdate(ChessPiece piece, Move move) {
+    final Coordinate oldCoordinate = piece.getCoordinate();
+    final Coordinate newCoordinate = move.getNewCoordinate();
     if (move.getMoveType() == Move.MoveType.CAPTURE) {
       ChessPiece capturedPiece = move.getCapturedPiece();
       removePiece(capturedPiece);
     }
-    movePiece(piece, move.getNewCoordinate());
+    movePiece(piece, newCoordinate);
+    updatePossibleMovesAfterMove(oldCoordinate, newCoordinate);
+  }
+
+  private void updatePossibleMovesAfterMove(Coordinate oldCoordinate, Coordinate newCoordinate) {
+    // a capture empties and fills the same square that the piece moves to
+    updatePossibleMovesReaching(oldCoordinate);
+    updatePossibleMovesReaching(newCoordinate);
+    updatePossibleMovesOf(getPieceAt(newCoordinate));
+    assert hasUpToDatePossibleMoves();
+    assert zobristKey == computeZobristKey();
+  }
+
+  /**
+   * Makes the given move in place and records how to take it back with {@link #unmakeMove()}.
+   * Together, both methods let a search explore variations on a single board instead of copying
+   * the board for every position.
+   *
+   * @param packedMove a possible move of the piece on its from square, as generated by {@link
+   *     #generateMovesByColor(Color, MoveBuffer)}
+   * @throws IllegalArgumentException if the packed move is not a possible move on this board
+   */
+  public void makeMove(int packedMove) {
+    final Coordinate from = coordinates.getCoordinate(PackedMove.getFromSquare(packedMove));
+    final Coordinate to = coordinates.getCoordinate(PackedMove.getToSquare(packedMove));
+    final ChessPiece piece = getPieceAt(from);
+    Move move = null;
+    for (Move possibleMove : piece.possibleMoves) {
+      if (possibleMove.getNewCoordinate() == to) {
+        move = possibleMove;
+        break;
+      }
+    }
+    final boolean isCapture = PackedMove.isCapture(packedMove);
+    if (move == null || isCapture != (move.getMoveType() == Move.MoveType.CAPTURE)) {
+      throw new IllegalArgumentException("Not a possible move: " + PackedMove.toString(packedMove));
+    }
+
+    // removing the pieces from their lists finds their indices, which unmakeMove needs
+    final ChessPiece capturedPiece = isCapture ? getPieceAt(to) : ChessPiece.NONE;
+    final int capturedPieceIndex = isCapture ? removePiece(capturedPiece) : -1;
+    final int movedPieceIndex = movePiece(piece, to);
+    undoStack.push(packedMove, piece, movedPieceIndex, capturedPiece, capturedPieceIndex);
+    updatePossibleMovesAfterMove(from, to);
+  }
+
+  /**
+   * Takes back the most recent move made by {@link #makeMove(int)}. The pieces, their order in the
+   * piece lists and their possible moves are restored exactly as they were before the move.
+   *
+   * @throws IllegalStateException if there is no move to take back
+   */
+  public void unmakeMove() {
+    if (undoStack.isEmpty()) {
+      throw new IllegalStateException("No move to take back.");
+    }
+    final int packedMove = undoStack.getPackedMove();
+    final Coordinate from = coordinates.getCoordinate(PackedMove.getFromSquare(packedMove));
+    final Coordinate to = coordinates.getCoordinate(PackedMove.getToSquare(packedMove));
+    final ChessPiece movedPiece = undoStack.getMovedPiece();
+    final ChessPiece capturedPiece = undoStack.getCapturedPiece();
+    final int movedPieceIndex = undoStack.getMovedPieceIndex();
+    final int capturedPieceIndex = undoStack.getCapturedPieceIndex();
+    undoStack.pop();
+
+    // the piece that moved was appended to its list, and later moves have all been taken back
+    final List<ChessPiece> movedPieceList = getPieceListByColor(movedPiece.getColor());
+    final ChessPiece pieceAtTarget = movedPieceList.remove(movedPieceList.size() - 1);
+    assert pieceAtTarget == getPieceAt(to);
+    addPossibleMoveCount(pieceAtTarget.getColor(), -pieceAtTarget.possibleMoves.size());
+    setPieceAt(ChessPiece.NONE, to);
+
+    if (!capturedPiece.isNone()) {
+      getPieceListByColor(capturedPiece.getColor()).add(capturedPieceIndex, capturedPiece);
+      setPieceAt(capturedPiece, to);
+      addPossibleMoveCount(capturedPiece.getColor(), capturedPiece.possibleMoves.size());
+    }
+    movedPieceList.add(movedPieceIndex, movedPiece);
+    setPieceAt(movedPiece, from);
+    addPossibleMoveCount(movedPiece.getColor(), movedPiece.possibleMoves.size());
+
+    if (!capturedPiece.isNone()) {
+      updatePossibleMovesOf(capturedPiece);
+    }
+    // this also recomputes the moves of the piece that is back on its old square
+    updatePossibleMovesAfterMove(to, from);
+  }
+
+  /**
+   * Returns the number of moves made by {@link #makeMove(int)} that can be taken back.
+   *
+   * @return the number of moves on the undo stack
+   */
+  public int getUndoDepth() {
+    return undoStack.size();
   }
 
-  /** Moves the piece to the new position. */
-  private void movePiece(ChessPiece piece, Coordinate newCoordinate) {
+  /**
+   * Moves the piece to the new position, at the end of its piece list, and returns the index it had
+   * in the list before.
+   */
+  private int movePiece(ChessPiece piece, Coordinate newCoordinate) {
     assert !piece.getCoordinate().equals(newCoordinate);
-    removePiece(piece);
+    final int oldIndex = removePiece(piece);
     ChessPiece movedPiece = piece.withNewPosition(newCoordinate);
     setPieceAt(movedPiece, newCoordinate);
     getPieceListByColor(movedPiece.getColor()).add(movedPiece);
+    return oldIndex;
   }
 
-  /** Removes the piece from the chess board. */
-  private void removePiece(ChessPiece piece) {
+  /** Removes the piece from the chess board and returns the index it had in its piece list. */
+  private int removePiece(ChessPiece piece) {
     assert !piece.isNone();
+    // the given piece may be a copy, so count the moves of the piece actually on the board
+    addPossibleMoveCount(piece.getColor(), -getPieceAt(piece.getCoordinate()).possibleMoves.size());
     setPieceAt(ChessPiece.NONE, piece.getCoordinate());
-    boolean wasRemoved = getPieceListByColor(piece.getColor()).remove(piece);
-    assert wasRemoved;
+    final List<ChessPiece> pieces = getPieceListByColor(piece.getColor());
+    final int index = pieces.indexOf(piece);
+    assert index >= 0;
+    pieces.remove(index);
+    return index;
+  }
+
+  /**
+   * Fills the scratch bitboards with the target squares of all pieces of the given color. Every
+   * move kind is computed for all pieces at once by shifting the occupancy one row forward (plus or
+   * minus one column for captures) and masking it with the empty or opposing squares.
+   */
+  private void computeTargetsByColor(Color color) {
+    final BitBoard own = getOccupancyByColor(color);
+    final BitBoard opposing = getOccupancyByColor(color.getOpposingColor());
+    final int forwardShift = getRowDirection(color) * numCols;
+
+    emptySquares.copyFrom(allSquaresMask);
+    emptySquares.andNot(own);
+    emptySquares.andNot(opposing);
+
+    own.shiftInto(forwardShift, forwardTargets);
+    forwardTargets.and(emptySquares);
+
+    shiftSource.copyFrom(forwardTargets);
+    shiftSource.and((color == Color.WHITE) ? whiteSecondRowMask : blackSecondRowMask);
+    shiftSource.shiftInto(forwardShift, doubleForwardTargets);
+    doubleForwardTargets.and(emptySquares);
+
+    shiftSource.copyFrom(own);
+    shiftSource.and(notFirstColumnMask);
+    shiftSource.shiftInto(forwardShift - 1, leftCaptureTargets);
+    leftCaptureTargets.and(opposing);
+
+    shiftSource.copyFrom(own);
+    shiftSource.and(notLastColumnMask);
+    shiftSource.shiftInto(forwardShift + 1, rightCaptureTargets);
+    rightCaptureTargets.and(opposing);
+  }
+
+  /**
+   * Recomputes the possible moves of all pieces of both colors that could move to or capture on
+   * the given square.
+   */
+  private void updatePossibleMovesReaching(Coordinate coordinate) {
+    updatePossibleMovesReaching(coordinate, Color.WHITE);
+    updatePossibleMovesReaching(coordinate, Color.BLACK);
+  }
+
+  private void updatePossibleMovesReaching(Coordinate coordinate, Color color) {
+    final int rowDirection = getRowDirection(color);
+    final int behindRow = coordinate.getRow() - rowDirection;
+    final int column = coordinate.getColumn();
+    for (int columnOffset = -1; columnOffset <= 1; ++columnOffset) {
+      updatePossibleMovesAt(behindRow, column + columnOffset, color);
+    }
+    if (behindRow - rowDirection == getStartRowByColor(color)) {
+      updatePossibleMovesAt(behindRow - rowDirection, column, color);
+    }
+  }
+
+  /** Recomputes the possible moves of the piece at the given position if it has the given color. */
+  private void updatePossibleMovesAt(int row, int column, Color color) {
+    if (!coordinates.isWithinBounds(row, column)) {
+      return;
+    }
+    ChessPiece piece = board[row][column];
+    if (!piece.isNone() && piece.getColor() == color) {
+      updatePossibleMovesOf(piece);
+    }
+  }
+
+  /** Recomputes the possible moves of a single piece by looking up its target squares. */
+  private void updatePossibleMovesOf(ChessPiece piece) {
+    final int oldMoveCount = piece.possibleMoves.size();
+    updatePossibleMovesOfPiece(piece);
+    addPossibleMoveCount(piece.getColor(), piece.possibleMoves.size() - oldMoveCount);
+  }
+
+  private void addPossibleMoveCount(Color color, int delta) {
+    if (color == Color.WHITE) {
+      whitePossibleMoveCount += delta;
+    } else {
+      blackPossibleMoveCount += delta;
+    }
+  }
+
+  private void updatePossibleMovesOfPiece(ChessPiece piece) {
+    piece.clearPossibleMoves();
+    markRowChanged(piece.getCoordinate().getRow());
+    final Color color = piece.getColor();
+    final BitBoard opposing = getOccupancyByColor(color.getOpposingColor());
+    final int rowDirection = getRowDirection(color);
+    final int row = piece.getCoordinate().getRow();
+    final int column = piece.getCoordinate().getColumn();
+    final int forwardRow = row + rowDirection;
+    if (forwardRow < 0 || forwardRow >= numRows) {
+      return;
+    }
+    final int forwardSquare = coordinates.getSquare(forwardRow, column);
+
+    if (!isOccupied(forwardSquare)) {
+      piece.addPossibleMove(Move.newForwardMove(coordinates.getCoordinate(forwardSquare)));
+      final int doubleForwardRow = forwardRow + rowDirection;
+      if (row == getStartRowByColor(color)
+          && doubleForwardRow >= 0
+          && doubleForwardRow < numRows
+          && !isOccupied(forwardSquare + rowDirection * numCols)) {
+        Coordinate target = coordinates.getCoordinate(forwardSquare + rowDirection * numCols);
+        piece.addPossibleMove(Move.newForwardMove(target));
+      }
+    }
+    if (column > 0 && opposing.contains(forwardSquare - 1)) {
+      Coordinate target = coordinates.getCoordinate(forwardSquare - 1);
+      piece.addPossibleMove(Move.newCaptureMove(target, getPieceAt(target)));
+    }
+    if (column < numCols - 1 && opposing.contains(forwardSquare + 1)) {
+      Coordinate target = coordinates.getCoordinate(forwardSquare + 1);
+      piece.addPossibleMove(Move.newCaptureMove(target, getPieceAt(target)));
+    }
+  }
+
+  private boolean isOccupied(int square) {
+    return whiteOccupancy.contains(square) || blackOccupancy.contains(square);
+  }
+
+  /**
+   * Returns whether the possible moves maintained by {@link #applyMove(ChessPiece, Move)} are equal
+   * to a full recomputation for both colors. This is a debugging aid and is checked after every
+   * move when assertions are enabled.
+   *
+   * @return true if the possible moves of every piece are up to date. false otherwise
+   */
+  public boolean hasUpToDatePossibleMoves() {
+    return hasUpToDatePossibleMoves(Color.WHITE) && hasUpToDatePossibleMoves(Color.BLACK);
+  }
+
+  private boolean hasUpToDatePossibleMoves(Color color) {
+    for (ChessPiece piece : getPieceListByColor(color)) {
+      if (getPieceAt(piece.getCoordinate()) != piece) {
+        return false;
+      }
+    }
+    if (getPieceCountByColor(color) != getOccupancyByColor(color).cardinality()) {
+      return false;
+    }
+
+    MoveBuffer expectedMoves = new MoveBuffer();
+    generateMovesByColor(color, expectedMoves);
+    int index = 0;
+    final BitBoard own = getOccupancyByColor(color);
+    for (int square = own.nextSetSquare(0); square >= 0; square = own.nextSetSquare(square + 1)) {
+      for (Move move : getPieceAt(coordinates.getCoordinate(square)).possibleMoves) {
+        if (index == expectedMoves.size() || !isSameMove(move, expectedMoves.get(index++))) {
+          return false;
+        }
+      }
+    }
+    return index == expectedMoves.size() && index == getPossibleMoveCountByColor(color);
+  }
+
+  /** Returns whether the given move has the target, type and captured piece of the packed move. */
+  private boolean isSameMove(Move move, int packedMove) {
+    final Coordinate target = move.getNewCoordinate();
+    if (toSquare(target) != PackedMove.getToSquare(packedMove)) {
+      return false;
+    }
+    if (PackedMove.isCapture(packedMove)) {
+      return move.getMoveType() == Move.MoveType.CAPTURE
+          && move.getCapturedPiece() == getPieceAt(target);
+    }
+    return move.getMoveType() == Move.MoveType.FORWARD;
   }
 
   /**
-   * Update the possible moves of the chess pieces with the given color.
+   * Update the possible moves of the chess pieces with the given color. This recomputes the moves
+   * of every piece from scratch; {@link #applyMove(ChessPiece, Move)} already keeps them up to
+   * date, so this is only needed after the pieces were changed by other means.
    *
    * @param color player color to sync possible moves for
    */
   public void updatePossibleMovesByColor(Color color) {
+    computeTargetsByColor(color);
+    final int rowDirection = getRowDirection(color);
+    final int startRow = getStartRowByColor(color);
+    addPossibleMoveCount(color, -getPossibleMoveCountByColor(color));
+
     for (ChessPiece piece : getPieceListByColor(color)) {
-      piece.updatePossibleMoves(this);
+      piece.clearPossibleMoves();
+      markRowChanged(piece.getCoordinate().getRow());
+      final int row = piece.getCoordinate().getRow();
+      final int column = piece.getCoordinate().getColumn();
+      final int forwardSquare = toSquare(piece.getCoordinate()) + rowDirection * numCols;
+
+      if (forwardTargets.contains(forwardSquare)) {
+        piece.addPossibleMove(Move.newForwardMove(coordinates.getCoordinate(forwardSquare)));
+        final int doubleForwardSquare = forwardSquare + rowDirection * numCols;
+        if (row == startRow && doubleForwardTargets.contains(doubleForwardSquare)) {
+          Coordinate target = coordinates.getCoordinate(doubleForwardSquare);
+          piece.addPossibleMove(Move.newForwardMove(target));
+        }
+      }
+      if (column > 0 && leftCaptureTargets.contains(forwardSquare - 1)) {
+        Coordinate target = coordinates.getCoordinate(forwardSquare - 1);
+        piece.addPossibleMove(Move.newCaptureMove(target, getPieceAt(target)));
+      }
+      if (column < numCols - 1 && rightCaptureTargets.contains(forwardSquare + 1)) {
+        Coordinate target = coordinates.getCoordinate(forwardSquare + 1);
+        piece.addPossibleMove(Move.newCaptureMove(target, getPieceAt(target)));
+      }
+      addPossibleMoveCount(color, piece.possibleMoves.size());
+    }
+  }
+
+  /**
+   * Writes the possible moves of all chess pieces with the given color into the given buffer, as
+   * {@link PackedMove packed moves}. Pieces are visited in board order and the moves of each piece
+   * are written in the same order as in {@link ChessPiece#getPossibleMoves()}. Unlike {@link
+   * #updatePossibleMovesByColor(Color)}, this neither allocates nor changes the pieces.
+   *
+   * @param color player color to generate moves for
+   * @param buffer buffer the moves are appended to
+   * @return the number of moves appended to the buffer
+   */
+  public int generateMovesByColor(Color color, MoveBuffer buffer) {
+    if (coordinates.getNumSquares() > PackedMove.MAX_SQUARES) {
+      throw new IllegalStateException("Chess board is too large for packed moves.");
+    }
+    computeTargetsByColor(color);
+    final BitBoard own = getOccupancyByColor(color);
+    final int forwardShift = getRowDirection(color) * numCols;
+    final int startRow = getStartRowByColor(color);
+    final int sizeBefore = buffer.size();
+
+    for (int square = own.nextSetSquare(0); square >= 0; square = own.nextSetSquare(square + 1)) {
+      final int column = square % numCols;
+      final int forwardSquare = square + forwardShift;
+
+      if (forwardTargets.contains(forwardSquare)) {
+        buffer.add(PackedMove.forward(square, forwardSquare));
+        final int doubleForwardSquare = forwardSquare + forwardShift;
+        if (square / numCols == startRow && doubleForwardTargets.contains(doubleForwardSquare)) {
+          buffer.add(PackedMove.forward(square, doubleForwardSquare));
+        }
+      }
+      if (column > 0 && leftCaptureTargets.contains(forwardSquare - 1)) {
+        buffer.add(PackedMove.capture(square, forwardSquare - 1));
+      }
+      if (column < numCols - 1 && rightCaptureTargets.contains(forwardSquare + 1)) {
+        buffer.add(PackedMove.capture(square, forwardSquare + 1));
+      }
     }
+    return buffer.size() - sizeBefore;
   }
 
   /**
@@ -233,11 +827,27 @@ public final class ChessBoard {
    * @return true if there is a possible move for the player of the given color. false otherwise
    */
   public boolean hasPossibleMovesByColor(Color color) {
-    for (ChessPiece piece : getImmutablePieceListByColor(color)) {
-      if (piece.hasPossibleMoves()) {
-        return true;
-      }
-    }
-    return false;
+    return getPossibleMoveCountByColor(color) > 0;
+  }
+
+  /**
+   * Returns the number of possible moves of all pieces of the given color. The count is maintained
+   * as moves are applied, so this takes constant time.
+   *
+   * @param color player to count the moves of
+   * @return the total number of possible moves of the player's pieces
+   */
+  public int getPossibleMoveCountByColor(Color color) {
+    return (color == Color.WHITE) ? whitePossibleMoveCount : blackPossibleMoveCount;
+  }
+
+  /**
+   * Returns the number of remaining pieces of the given color in constant time.
+   *
+   * @param color player to count the pieces of
+   * @return the number of remaining pieces of the player
+   */
+  public int getPieceCountByColor(Color color) {
+    return getPieceListByColor(color).size();
   }
 }
@@ -0,0 +1,138 @@
+package bauernschach.model.board;
+
+import bauernschach.model.board.ChessPiece.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable, read-only view of a {@link ChessBoard} at one point in time. Snapshots are created
+ * by {@link ChessBoard#snapshot()}, which returns the same instance until the board changes. A new
+ * snapshot shares every row that did not change with the previous one, so taking a snapshot after a
+ * move only copies the few rows the move touched.
+ */
+public final class ChessBoardSnapshot {
+  private final int numRows;
+  private final int numCols;
+  private final long version;
+  private final long zobristKey;
+  private final CoordinateTable coordinates;
+  // rows are never modified after construction and may be shared with other snapshots
+  private final ChessPiece[][] rows;
+
+  ChessBoardSnapshot(int numRows, int numCols, long version, long zobristKey, ChessPiece[][] rows) {
+    this.numRows = numRows;
+    this.numCols = numCols;
+    this.version = version;
+    this.zobristKey = zobristKey;
+    this.coordinates = CoordinateTable.of(numRows, numCols);
+    this.rows = rows;
+  }
+
+  /**
+   * Returns a row of this snapshot, for sharing it with the next snapshot of the same board.
+   *
+   * @param row index of the row
+   * @return the row, which must not be modified
+   */
+  ChessPiece[] getRow(int row) {
+    return rows[row];
+  }
+
+  /**
+   * Gets the version of the board this snapshot was taken from. The version of a board increases
+   * with every change, so two snapshots of the same board with the same version are equal.
+   *
+   * @return the version of the board at the time of the snapshot
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Gets the Zobrist key of the piece placement, see {@link ChessBoard#getZobristKey()}.
+   *
+   * @return the Zobrist key of the piece placement at the time of the snapshot
+   */
+  public long getZobristKey() {
+    return zobristKey;
+  }
+
+  /**
+   * Gets the piece at the given position. The piece and its possible moves are copies that do not
+   * change when the board changes.
+   *
+   * @param coordinate coordinate to get the piece from
+   * @return piece at the given position
+   */
+  public ChessPiece getPieceAt(Coordinate coordinate) {
+    return rows[coordinate.getRow()][coordinate.getColumn()];
+  }
+
+  /**
+   * Gets the number of rows of the board.
+   *
+   * @return number of rows
+   */
+  public int getNumRows() {
+    return numRows;
+  }
+
+  /**
+   * Gets the number of columns of the board.
+   *
+   * @return number of columns
+   */
+  public int getNumColumns() {
+    return numCols;
+  }
+
+  /**
+   * Gets the table that converts between coordinates and square indices of the board.
+   *
+   * @return the coordinate table for the board's dimensions
+   */
+  public CoordinateTable getCoordinateTable() {
+    return coordinates;
+  }
+
+  /**
+   * Returns the finishing row of the given player color.
+   *
+   * @param color color to get finishing row for
+   * @return finishing row of the given player color on this chess board.
+   */
+  public int getFinishRowByColor(Color color) {
+    return (color == Color.WHITE) ? (numRows - 1) : 0;
+  }
+
+  /**
+   * Returns the pieces with the given color in board order. This walks all squares, so callers
+   * that need it repeatedly should keep the result.
+   *
+   * @param color color to get pieces of
+   * @return the pieces with the given color
+   */
+  public List<ChessPiece> getPieceListByColor(Color color) {
+    List<ChessPiece> pieces = new ArrayList<>();
+    for (ChessPiece[] row : rows) {
+      for (ChessPiece piece : row) {
+        if (!piece.isNone() && piece.getColor() == color) {
+          pieces.add(piece);
+        }
+      }
+    }
+    return List.copyOf(pieces);
+  }
+
+  @Override
+  public String toString() {
+    return "ChessBoardSnapshot{"
+        + "numRows="
+        + numRows
+        + ", numCols="
+        + numCols
+        + ", version="
+        + version
+        + '}';
+  }
+}
@@ -3,7 +3,6 @@ package bauernschach.model.board;
 import bauernschach.model.Bauernschach;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /** This class represents the chess piece of a {@link Bauernschach} game. */
 public final class ChessPiece {
@@ -36,8 +35,8 @@ public final class ChessPiece {
   private final Color color;
   private final int id;
   private final Coordinate coordinate;
-  /** possibleMoves */
-  public final List<Move> possibleMoves;
+  // only changed by the board that holds this piece; copies in snapshots are never changed
+  final List<Move> possibleMoves;
 
   /** Placeholder chess piece that represents no real piece. */
   public static final ChessPiece NONE = new ChessPiece(null, -1, Coordinate.of(-1, -1), List.of());
@@ -86,16 +85,24 @@ public final class ChessPiece {
   }
 
   /**
-   * Update the possible moves of this piece.
-   *
-   * @param ChessBoard1 chess board state to use as the reference for possible moves
+   * Returns a copy of this chess piece without possible moves, which the caller adds through
+   * {@link #addPossibleMove(Move)}.
    */
-  public void updatePossibleMoves(ChessBoard ChessBoard1) {
-    assert isValid();
+  ChessPiece copyWithoutMoves() {
+    if (isNone()) {
+      return this;
+    }
+    return new ChessPiece(color, id, coordinate, new ArrayList<>(possibleMoves.size()));
+  }
+
+  /** Removes all possible moves of this piece. */
+  void clearPossibleMoves() {
     possibleMoves.clear();
+  }
 
-    checkForwardMove(ChessBoard1);
-    checkCaptureMove(ChessBoard1);
+  /** Appends the given move to the possible moves of this piece. */
+  void addPossibleMove(Move move) {
+    possibleMoves.add(move);
   }
 
   /**
@@ -103,58 +110,7 @@ public final class ChessPiece {
    * @return List of Move
    */
   public List<Move> GetPossibleMoves(){
-	  return possibleMoves;
-  }
-
-  /**
-   * Check ForwardMove
-   *
-   * @param ChessBoard1 chess board state to use as the reference for possible moves
-   */
-  private void checkForwardMove(ChessBoard ChessBoard1) {
-    final int rowDirection = (color == Color.WHITE) ? 1 : -1;
-    final int column = coordinate.getColumn();
-    final int numberOfSteps;
-    final int startRow = ChessBoard1.getStartRowByColor(color);
-    if (coordinate.getRow() == startRow) {
-      numberOfSteps = 2;
-    } else {
-      numberOfSteps = 1;
-    }
-
-    for (int forwardStep = 1; forwardStep <= numberOfSteps; ++forwardStep) {
-      final int newRow = coordinate.getRow() + rowDirection * forwardStep;
-      Coordinate newCoordinate = Coordinate.of(newRow, column);
-      // check if the new position is within bounds and not occupied
-      if (ChessBoard1.isPositionWithinBounds(newCoordinate)
-          && !ChessBoard1.hasPieceAt(newCoordinate)) {
-        possibleMoves.add(Move.newForwardMove(newCoordinate));
-      } else {
-        // if 1 step forward is not possible, then more steps is not possible either
-        break;
-      }
-    }
-  }
-
-  /**
-   * check CaptureMove
-   *
-   * @param ChessBoard1 chess board state to use as the reference for possible moves
-   */
-  private void checkCaptureMove(ChessBoard ChessBoard1) {
-    final int rowDirection = (color == Color.WHITE) ? 1 : -1;
-    final int opponentRow = coordinate.getRow() + rowDirection;
-
-    // check the possiblity of capture move in right/left directions
-    for (int columnDirection : List.of(-1, 1)) {
-      final int opponentColumn = coordinate.getColumn() + columnDirection;
-      final Coordinate opponentCoordinate = Coordinate.of(opponentRow, opponentColumn);
-      if (ChessBoard1.isPositionWithinBounds(opponentCoordinate)
-          && ChessBoard1.hasOpposingPieceAt(opponentCoordinate, color)) {
-        ChessPiece capturedPiece = ChessBoard1.getPieceAt(opponentCoordinate);
-        possibleMoves.add(Move.newCaptureMove(opponentCoordinate, capturedPiece));
-      }
-    }
+	  return getPossibleMoves();
   }
 
   /**
@@ -249,7 +205,9 @@ public final class ChessPiece {
 
   @Override
   public int hashCode() {
-    return Objects.hash(color, id, coordinate);
+    int result = (color == null) ? 0 : color.hashCode();
+    result = 31 * result + id;
+    return 31 * result + coordinate.hashCode();
   }
 
   @Override
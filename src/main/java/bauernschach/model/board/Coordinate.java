@@ -1,9 +1,24 @@
 package bauernschach.model.board;
 
-import java.util.Objects;
+import java.util.Arrays;
 
-/** Coordinate on a {@link Coordinate}. */
+/**
+ * Coordinate on a {@link ChessBoard}. Coordinates are interned: for rows and columns from -1 (one
+ * square off the board) up to {@value #MAX_INTERNED}, {@link #of(int, int)} always returns the same
+ * instance, so comparing such coordinates is an identity check.
+ */
 public final class Coordinate implements Comparable<Coordinate> {
+  /** Rows and columns up to this value (exclusive) are interned. */
+  static final int MAX_INTERNED = 1024;
+
+  private static final int MIN_INTERNED = -1;
+  private static final int INITIAL_INTERNED_SIZE = 16;
+
+  // interned[row - MIN_INTERNED][column - MIN_INTERNED], or null where no instance was needed
+  // yet. Rows are created and grown independently; a grown table or row is published as a copy,
+  // while instances are filled in place, which is safe since their fields are final
+  private static volatile Coordinate[][] interned = new Coordinate[0][];
+
   private final int row;
   private final int column;
 
@@ -20,7 +35,53 @@ public final class Coordinate implements Comparable<Coordinate> {
    * @return coordinate of the given row and column
    */
   public static Coordinate of(int row, int column) {
-    return new Coordinate(row, column);
+    final int rowIndex = row - MIN_INTERNED;
+    final int columnIndex = column - MIN_INTERNED;
+    final Coordinate[][] table = interned;
+    if (rowIndex >= 0 && rowIndex < table.length && columnIndex >= 0) {
+      final Coordinate[] tableRow = table[rowIndex];
+      if (tableRow != null && columnIndex < tableRow.length) {
+        final Coordinate coordinate = tableRow[columnIndex];
+        if (coordinate != null) {
+          return coordinate;
+        }
+      }
+    }
+    if (rowIndex < 0 || columnIndex < 0 || row >= MAX_INTERNED || column >= MAX_INTERNED) {
+      return new Coordinate(row, column);
+    }
+    return intern(rowIndex, columnIndex);
+  }
+
+  /** Grows the interned table so that it covers the given indices, and returns the entry. */
+  private static synchronized Coordinate intern(int rowIndex, int columnIndex) {
+    Coordinate[][] table = interned;
+    if (rowIndex >= table.length) {
+      table = Arrays.copyOf(table, grownSize(table.length, rowIndex));
+      interned = table;
+    }
+    Coordinate[] tableRow = table[rowIndex];
+    if (tableRow == null || columnIndex >= tableRow.length) {
+      tableRow =
+          (tableRow == null)
+              ? new Coordinate[grownSize(0, columnIndex)]
+              : Arrays.copyOf(tableRow, grownSize(tableRow.length, columnIndex));
+      table = table.clone();
+      table[rowIndex] = tableRow;
+      interned = table;
+    }
+    Coordinate coordinate = tableRow[columnIndex];
+    if (coordinate == null) {
+      coordinate = new Coordinate(rowIndex + MIN_INTERNED, columnIndex + MIN_INTERNED);
+      tableRow[columnIndex] = coordinate;
+    }
+    return coordinate;
+  }
+
+  /** Returns the size a table or row of the given size grows to, so that it covers the index. */
+  private static int grownSize(int size, int index) {
+    final int maxSize = MAX_INTERNED - MIN_INTERNED;
+    return Math.min(maxSize, Math.max(index + 1, Math.max(INITIAL_INTERNED_SIZE, 2 * size)));
   }
 
   /**
@@ -55,16 +116,24 @@ public final class Coordinate implements Comparable<Coordinate> {
     if (this == o) {
       return true;
     }
-    if (o == null || getClass() != o.getClass()) {
+    // only coordinates outside the interned range can be equal without being identical
+    if (o == null || getClass() != o.getClass() || isInterned()) {
       return false;
     }
     Coordinate that = (Coordinate) o;
     return row == that.row && column == that.column;
   }
 
+  private boolean isInterned() {
+    return row >= MIN_INTERNED
+        && row < MAX_INTERNED
+        && column >= MIN_INTERNED
+        && column < MAX_INTERNED;
+  }
+
   @Override
   public int hashCode() {
-    return Objects.hash(row, column);
+    return 31 * row + column;
   }
 
   @Override
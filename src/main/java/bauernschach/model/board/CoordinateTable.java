@@ -0,0 +1,93 @@
+package bauernschach.model.board;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps the coordinates of a board of a given size to dense square indices and back. The square of
+ * a coordinate is {@code row * numCols + column}, so squares are numbered row by row from 0 to
+ * {@code numRows * numCols - 1}. There is one shared table per board size.
+ */
+public final class CoordinateTable {
+  private static final ConcurrentMap<Long, CoordinateTable> TABLES = new ConcurrentHashMap<>();
+
+  private final int numRows;
+  private final int numCols;
+  private final Coordinate[] coordinates;
+
+  /**
+   * Returns the table for boards of the given dimensions.
+   *
+   * @param numRows the number of rows of the chess board
+   * @param numCols the number of columns of the chess board
+   * @return the shared table for the given dimensions
+   */
+  public static CoordinateTable of(int numRows, int numCols) {
+    if (numRows <= 0 || numCols <= 0) {
+      throw new IllegalArgumentException("Chess board dimensions must be positive.");
+    }
+    final long key = ((long) numRows << Integer.SIZE) | numCols;
+    return TABLES.computeIfAbsent(key, k -> new CoordinateTable(numRows, numCols));
+  }
+
+  private CoordinateTable(int numRows, int numCols) {
+    this.numRows = numRows;
+    this.numCols = numCols;
+    coordinates = new Coordinate[numRows * numCols];
+    for (int square = 0; square < coordinates.length; ++square) {
+      coordinates[square] = Coordinate.of(square / numCols, square % numCols);
+    }
+  }
+
+  /**
+   * Returns the number of squares of the board.
+   *
+   * @return number of squares
+   */
+  public int getNumSquares() {
+    return coordinates.length;
+  }
+
+  /**
+   * Returns the square index of the given position.
+   *
+   * @param row row of the position
+   * @param column column of the position
+   * @return the square index of the position
+   */
+  public int getSquare(int row, int column) {
+    assert isWithinBounds(row, column);
+    return row * numCols + column;
+  }
+
+  /**
+   * Returns the square index of the given coordinate.
+   *
+   * @param coordinate coordinate on the board
+   * @return the square index of the coordinate
+   */
+  public int getSquare(Coordinate coordinate) {
+    return getSquare(coordinate.getRow(), coordinate.getColumn());
+  }
+
+  /**
+   * Returns the canonical coordinate of the given square index.
+   *
+   * @param square square index on the board
+   * @return the coordinate of the square
+   */
+  public Coordinate getCoordinate(int square) {
+    return coordinates[square];
+  }
+
+  /**
+   * Returns whether the given position is within the board's bounds.
+   *
+   * @param row row of the position
+   * @param column column of the position
+   * @return true if the position is on the board. false otherwise
+   */
+  public boolean isWithinBounds(int row, int column) {
+    return (row >= 0) && (row < numRows) && (column >= 0) && (column < numCols);
+  }
+}
@@ -0,0 +1,105 @@
+package bauernschach.model.board;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, growable list of {@link PackedMove packed moves}. The buffer is owned by the caller
+ * of move generation and can be cleared and refilled without allocating, once it has grown to the
+ * largest number of moves it has to hold.
+ */
+public final class MoveBuffer {
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private int[] moves;
+  private int size;
+
+  /** Constructs an empty buffer with a default capacity. */
+  public MoveBuffer() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty buffer with the given initial capacity.
+   *
+   * @param capacity the number of moves the buffer can hold before it has to grow
+   */
+  public MoveBuffer(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity cannot be negative.");
+    }
+    moves = new int[capacity];
+  }
+
+  /**
+   * Appends a packed move.
+   *
+   * @param packedMove the packed move to append
+   */
+  public void add(int packedMove) {
+    if (size == moves.length) {
+      moves = Arrays.copyOf(moves, Math.max(DEFAULT_CAPACITY, moves.length * 2));
+    }
+    moves[size++] = packedMove;
+  }
+
+  /**
+   * Returns the packed move at the given index.
+   *
+   * @param index index of the move
+   * @return the packed move at the given index
+   */
+  public int get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return moves[index];
+  }
+
+  /**
+   * Replaces the packed move at the given index, e.g. to reorder the moves.
+   *
+   * @param index index of the move
+   * @param packedMove the packed move to store at the index
+   */
+  public void set(int index, int packedMove) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    moves[index] = packedMove;
+  }
+
+  /**
+   * Returns the number of moves in this buffer.
+   *
+   * @return the number of moves
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns whether this buffer holds no moves.
+   *
+   * @return true if there are no moves in this buffer. false otherwise
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Removes all moves, keeping the capacity. */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Removes all moves from the given index onwards, keeping the capacity.
+   *
+   * @param newSize the number of moves to keep
+   */
+  public void truncate(int newSize) {
+    if (newSize < 0 || newSize > size) {
+      throw new IndexOutOfBoundsException(newSize);
+    }
+    size = newSize;
+  }
+}
@@ -0,0 +1,108 @@
+package bauernschach.model.board;
+
+/**
+ * Encodes a {@link Move} of a piece as a single {@code int}, so that move generation can write
+ * moves into a {@link MoveBuffer} without allocating objects. Squares are numbered row by row, i.e.
+ * the square of a coordinate is {@code row * numColumns + column}.
+ *
+ * <p>Bits 0-14 hold the square the piece moves from, bits 15-29 the square it moves to, and bit 30
+ * is set if the move captures an opposing piece. Passing the round is represented by {@link #PASS},
+ * which is negative and thus never equal to a packed piece move.
+ */
+public final class PackedMove {
+  /** Represents passing the round instead of moving a piece. */
+  public static final int PASS = -1;
+
+  /** The largest number of squares a board may have for its moves to be packed. */
+  public static final int MAX_SQUARES = 1 << 15;
+
+  private static final int SQUARE_BITS = 15;
+  private static final int SQUARE_MASK = MAX_SQUARES - 1;
+  private static final int CAPTURE_FLAG = 1 << (2 * SQUARE_BITS);
+
+  private PackedMove() {}
+
+  /**
+   * Packs a forward move.
+   *
+   * @param fromSquare the square the piece moves from
+   * @param toSquare the square the piece moves to
+   * @return the packed move
+   */
+  public static int forward(int fromSquare, int toSquare) {
+    assert fromSquare >= 0 && fromSquare < MAX_SQUARES;
+    assert toSquare >= 0 && toSquare < MAX_SQUARES;
+    return fromSquare | (toSquare << SQUARE_BITS);
+  }
+
+  /**
+   * Packs a capture move.
+   *
+   * @param fromSquare the square the piece moves from
+   * @param toSquare the square of the captured piece, which the piece moves to
+   * @return the packed move
+   */
+  public static int capture(int fromSquare, int toSquare) {
+    return forward(fromSquare, toSquare) | CAPTURE_FLAG;
+  }
+
+  /**
+   * Returns whether the packed move represents passing the round.
+   *
+   * @param packedMove the packed move
+   * @return true if the move is {@link #PASS}. false otherwise
+   */
+  public static boolean isPass(int packedMove) {
+    return packedMove == PASS;
+  }
+
+  /**
+   * Returns the square the piece moves from.
+   *
+   * @param packedMove the packed move
+   * @return the square the piece moves from
+   */
+  public static int getFromSquare(int packedMove) {
+    return packedMove & SQUARE_MASK;
+  }
+
+  /**
+   * Returns the square the piece moves to.
+   *
+   * @param packedMove the packed move
+   * @return the square the piece moves to
+   */
+  public static int getToSquare(int packedMove) {
+    return (packedMove >>> SQUARE_BITS) & SQUARE_MASK;
+  }
+
+  /**
+   * Returns whether the move captures an opposing piece.
+   *
+   * @param packedMove the packed move
+   * @return true if the move is a capture move. false if it is a forward move
+   */
+  public static boolean isCapture(int packedMove) {
+    return (packedMove & CAPTURE_FLAG) != 0;
+  }
+
+  /**
+   * Returns a readable representation of the packed move, for debugging.
+   *
+   * @param packedMove the packed move
+   * @return readable representation of the packed move
+   */
+  public static String toString(int packedMove) {
+    if (isPass(packedMove)) {
+      return "PackedMove{pass}";
+    }
+    return "PackedMove{"
+        + "from="
+        + getFromSquare(packedMove)
+        + ", to="
+        + getToSquare(packedMove)
+        + ", capture="
+        + isCapture(packedMove)
+        + '}';
+  }
+}
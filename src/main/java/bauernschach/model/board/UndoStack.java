@@ -0,0 +1,88 @@
+package bauernschach.model.board;
+
+import java.util.Arrays;
+
+/**
+ * The undo records of the moves made by {@link ChessBoard#makeMove(int)}, most recent on top. A
+ * record consists of the packed move, the piece that moved and the piece it captured (or {@link
+ * ChessPiece#NONE}), together with the positions both pieces had in their color's piece list. The
+ * records are stored in parallel arrays, so pushing a record does not allocate once the stack has
+ * grown to the search depth.
+ */
+final class UndoStack {
+  private static final int INITIAL_CAPACITY = 32;
+
+  private int[] packedMoves = new int[INITIAL_CAPACITY];
+  private ChessPiece[] movedPieces = new ChessPiece[INITIAL_CAPACITY];
+  private int[] movedPieceIndices = new int[INITIAL_CAPACITY];
+  private ChessPiece[] capturedPieces = new ChessPiece[INITIAL_CAPACITY];
+  private int[] capturedPieceIndices = new int[INITIAL_CAPACITY];
+  private int size;
+
+  /** Pushes a new undo record. */
+  void push(
+      int packedMove,
+      ChessPiece movedPiece,
+      int movedPieceIndex,
+      ChessPiece capturedPiece,
+      int capturedPieceIndex) {
+    if (size == packedMoves.length) {
+      final int capacity = 2 * size;
+      packedMoves = Arrays.copyOf(packedMoves, capacity);
+      movedPieces = Arrays.copyOf(movedPieces, capacity);
+      movedPieceIndices = Arrays.copyOf(movedPieceIndices, capacity);
+      capturedPieces = Arrays.copyOf(capturedPieces, capacity);
+      capturedPieceIndices = Arrays.copyOf(capturedPieceIndices, capacity);
+    }
+    packedMoves[size] = packedMove;
+    movedPieces[size] = movedPiece;
+    movedPieceIndices[size] = movedPieceIndex;
+    capturedPieces[size] = capturedPiece;
+    capturedPieceIndices[size] = capturedPieceIndex;
+    ++size;
+  }
+
+  /** Removes the top record. Its fields must be read before. */
+  void pop() {
+    assert size > 0;
+    --size;
+    // do not keep removed pieces reachable
+    movedPieces[size] = null;
+    capturedPieces[size] = null;
+  }
+
+  /** Removes all records. */
+  void clear() {
+    Arrays.fill(movedPieces, 0, size, null);
+    Arrays.fill(capturedPieces, 0, size, null);
+    size = 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int getPackedMove() {
+    return packedMoves[size - 1];
+  }
+
+  ChessPiece getMovedPiece() {
+    return movedPieces[size - 1];
+  }
+
+  int getMovedPieceIndex() {
+    return movedPieceIndices[size - 1];
+  }
+
+  ChessPiece getCapturedPiece() {
+    return capturedPieces[size - 1];
+  }
+
+  int getCapturedPieceIndex() {
+    return capturedPieceIndices[size - 1];
+  }
+}
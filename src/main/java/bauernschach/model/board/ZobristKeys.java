@@ -0,0 +1,38 @@
+package bauernschach.model.board;
+
+import bauernschach.model.board.ChessPiece.Color;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of positions. The key of a position is the XOR of the keys
+ * of all its pieces and, if black is to move, of {@link #BLACK_TO_MOVE}. Since XOR is its own
+ * inverse, the key can be updated in constant time whenever a piece is placed or removed.
+ *
+ * <p>The keys are derived from the square index by a fixed mixing function instead of a random
+ * generator, so they are the same in every run and position keys can be compared across processes.
+ */
+public final class ZobristKeys {
+  // the input lies outside the inputs of the piece keys and, unlike -1, does not mix to 0
+  /** Key that is XORed into the position key while black is to move. */
+  public static final long BLACK_TO_MOVE = mix(-2L);
+
+  private ZobristKeys() {}
+
+  /**
+   * Returns the key of a piece of the given color on the given square.
+   *
+   * @param color color of the piece
+   * @param square square index of the piece, see {@link CoordinateTable}
+   * @return the key of the piece
+   */
+  public static long pieceKey(Color color, int square) {
+    return mix(2L * square + ((color == Color.WHITE) ? 0 : 1));
+  }
+
+  /** The SplitMix64 finalizer, which maps consecutive inputs to well distributed outputs. */
+  private static long mix(long value) {
+    long z = value * 0x9E3779B97F4A7C15L + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,78 @@
+package bauernschach.record;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Constants and variable-length integer coding shared by {@link GameArchiveWriter} and {@link
+ * GameArchiveReader}.
+ *
+ * <p>An archive file starts with a header of 8 bytes (magic number, format version) followed by
+ * the games. A game is its length in bytes without the length itself, then the number of rows, the
+ * number of columns, one byte with the {@link bauernschach.model.GameState.GameStatus} ordinal of
+ * the result, the number of moves and the {@link RecordedMove recorded moves}. All numbers except
+ * the result are unsigned varints with 7 bits per byte, least significant group first.
+ *
+ * <p>The index file next to the archive has a header of 8 bytes (magic number, format version)
+ * followed by the offset of every game in the archive as a big-endian {@code long}.
+ */
+final class GameArchiveFormat {
+  static final int ARCHIVE_MAGIC = 0x42534741; // "BSGA"
+  static final int INDEX_MAGIC = 0x42534749; // "BSGI"
+  static final int FORMAT_VERSION = 1;
+  static final int HEADER_BYTES = 8;
+  static final String INDEX_SUFFIX = ".idx";
+
+  // a varint of an int needs at most five bytes
+  static final int MAX_VARINT_BYTES = 5;
+
+  private static final int VARINT_BITS = 7;
+  private static final int VARINT_MASK = (1 << VARINT_BITS) - 1;
+  private static final int CONTINUATION_BIT = 1 << VARINT_BITS;
+
+  private GameArchiveFormat() {}
+
+  static void putVarint(ByteBuffer buffer, int value) {
+    assert value >= 0;
+    int rest = value;
+    while (rest > VARINT_MASK) {
+      buffer.put((byte) ((rest & VARINT_MASK) | CONTINUATION_BIT));
+      rest >>>= VARINT_BITS;
+    }
+    buffer.put((byte) rest);
+  }
+
+  static int varintLength(int value) {
+    assert value >= 0;
+    int length = 1;
+    for (int rest = value >>> VARINT_BITS; rest != 0; rest >>>= VARINT_BITS) {
+      ++length;
+    }
+    return length;
+  }
+
+  /**
+   * Reads the varint at the given offset.
+   *
+   * @return the value in the low 32 bits and the offset after the varint in the high 32 bits
+   */
+  static long getVarint(ByteBuffer buffer, int offset) {
+    int value = 0;
+    int position = offset;
+    for (int shift = 0; shift < Integer.SIZE; shift += VARINT_BITS) {
+      final int b = buffer.get(position++);
+      value |= (b & VARINT_MASK) << shift;
+      if ((b & CONTINUATION_BIT) == 0) {
+        return ((long) position << Integer.SIZE) | (value & 0xFFFFFFFFL);
+      }
+    }
+    throw new IllegalStateException("Invalid varint at offset " + offset);
+  }
+
+  static int valueOf(long varint) {
+    return (int) varint;
+  }
+
+  static int offsetAfter(long varint) {
+    return (int) (varint >>> Integer.SIZE);
+  }
+}
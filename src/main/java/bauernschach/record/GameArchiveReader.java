@@ -0,0 +1,260 @@
+package bauernschach.record;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.Bauernschach.OperationStatus;
+import bauernschach.model.GameState.GameStatus;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Reads a game archive written by {@link GameArchiveWriter} by mapping it into memory. Games are
+ * accessed by their number through the offset index, and are decoded directly from the mapped
+ * file into the caller's arrays, so reading millions of games creates no objects per game.
+ *
+ * <p>The index file is mapped as well. If it is missing or does not match the archive, for
+ * instance because the writer was not closed, the offsets are recomputed by skipping through the
+ * archive once. A reader may be used by many threads at once.
+ */
+public final class GameArchiveReader {
+  private static final GameStatus[] RESULTS = GameStatus.values();
+
+  private final ByteBuffer data;
+  private final LongBuffer offsets;
+
+  private GameArchiveReader(ByteBuffer data, LongBuffer offsets) {
+    this.data = data;
+    this.offsets = offsets;
+  }
+
+  /**
+   * Opens the given archive and its index file.
+   *
+   * @param file the archive file; the index file has the same name with {@code .idx} appended
+   * @return the reader
+   * @throws IOException if the archive cannot be read, is larger than 2 GB, or is not a valid
+   *     archive
+   */
+  public static GameArchiveReader open(Path file) throws IOException {
+    final ByteBuffer data;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < GameArchiveFormat.HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Not a game archive: " + file);
+      }
+      data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (data.getInt(0) != GameArchiveFormat.ARCHIVE_MAGIC
+        || data.getInt(4) != GameArchiveFormat.FORMAT_VERSION) {
+      throw new IOException("Not a game archive: " + file);
+    }
+
+    LongBuffer offsets = mapIndex(indexFileOf(file));
+    if (offsets == null || !matches(data, offsets)) {
+      offsets = scanOffsets(data);
+      if (offsets == null) {
+        throw new IOException("Corrupt game archive: " + file);
+      }
+    }
+    return new GameArchiveReader(data, offsets);
+  }
+
+  static Path indexFileOf(Path file) {
+    return file.resolveSibling(file.getFileName() + GameArchiveFormat.INDEX_SUFFIX);
+  }
+
+  /** Maps the index file, or returns null if it is missing or invalid. */
+  private static LongBuffer mapIndex(Path indexFile) throws IOException {
+    if (!Files.exists(indexFile)) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < GameArchiveFormat.HEADER_BYTES
+          || size > Integer.MAX_VALUE
+          || (size - GameArchiveFormat.HEADER_BYTES) % Long.BYTES != 0) {
+        return null;
+      }
+      final ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (index.getInt(0) != GameArchiveFormat.INDEX_MAGIC
+          || index.getInt(4) != GameArchiveFormat.FORMAT_VERSION) {
+        return null;
+      }
+      return index.position(GameArchiveFormat.HEADER_BYTES).slice().asLongBuffer();
+    }
+  }
+
+  /** Checks that the index ends with the last game of the archive. */
+  private static boolean matches(ByteBuffer data, LongBuffer offsets) {
+    final int numGames = offsets.limit();
+    if (numGames == 0) {
+      return data.limit() == GameArchiveFormat.HEADER_BYTES;
+    }
+    final long lastOffset = offsets.get(numGames - 1);
+    if (lastOffset < GameArchiveFormat.HEADER_BYTES || lastOffset >= data.limit()) {
+      return false;
+    }
+    return endOfGame(data, (int) lastOffset) == data.limit();
+  }
+
+  /** Finds the offsets of all games, or returns null if the archive is truncated. */
+  private static LongBuffer scanOffsets(ByteBuffer data) {
+    long[] offsets = new long[1024];
+    int numGames = 0;
+    int offset = GameArchiveFormat.HEADER_BYTES;
+    while (offset < data.limit()) {
+      if (numGames == offsets.length) {
+        offsets = Arrays.copyOf(offsets, 2 * numGames);
+      }
+      offsets[numGames++] = offset;
+      final long next = endOfGame(data, offset);
+      if (next > data.limit()) {
+        return null;
+      }
+      offset = (int) next;
+    }
+    return LongBuffer.wrap(offsets, 0, numGames).slice();
+  }
+
+  /** Returns the offset after the game at the given offset, past the end if it is cut off. */
+  private static long endOfGame(ByteBuffer data, int offset) {
+    final long length;
+    try {
+      length = GameArchiveFormat.getVarint(data, offset);
+    } catch (IndexOutOfBoundsException | IllegalStateException e) {
+      return Long.MAX_VALUE; // the length is cut off or longer than an int
+    }
+    return GameArchiveFormat.offsetAfter(length)
+        + (GameArchiveFormat.valueOf(length) & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Returns the number of games in the archive.
+   *
+   * @return the number of games
+   */
+  public int getNumGames() {
+    return offsets.limit();
+  }
+
+  long getOffset(int game) {
+    return offsets.get(Objects.checkIndex(game, getNumGames()));
+  }
+
+  long getSize() {
+    return data.limit();
+  }
+
+  /** Returns the offset of the first field after the length of the given game. */
+  private int bodyOffset(int game) {
+    return GameArchiveFormat.offsetAfter(GameArchiveFormat.getVarint(data, (int) getOffset(game)));
+  }
+
+  /**
+   * Returns the number of rows of the board of the given game.
+   *
+   * @param game the number of the game, starting at 0
+   * @return the number of rows
+   * @throws IndexOutOfBoundsException if there is no such game
+   */
+  public int getNumRows(int game) {
+    return GameArchiveFormat.valueOf(GameArchiveFormat.getVarint(data, bodyOffset(game)));
+  }
+
+  /**
+   * Returns the number of columns of the board of the given game.
+   *
+   * @param game the number of the game, starting at 0
+   * @return the number of columns
+   * @throws IndexOutOfBoundsException if there is no such game
+   */
+  public int getNumColumns(int game) {
+    final long numRows = GameArchiveFormat.getVarint(data, bodyOffset(game));
+    final int offset = GameArchiveFormat.offsetAfter(numRows);
+    return GameArchiveFormat.valueOf(GameArchiveFormat.getVarint(data, offset));
+  }
+
+  /**
+   * Returns the result of the given game.
+   *
+   * @param game the number of the game, starting at 0
+   * @return the status of the game when it ended, {@link GameStatus#ONGOING} if it was stopped
+   *     before it ended
+   * @throws IndexOutOfBoundsException if there is no such game
+   */
+  public GameStatus getResult(int game) {
+    final int resultOffset = skipToResult(game);
+    final int result = data.get(resultOffset);
+    if (result < 0 || result >= RESULTS.length) {
+      throw new IllegalStateException("Invalid result of game " + game);
+    }
+    return RESULTS[result];
+  }
+
+  /**
+   * Returns the number of moves, including passes, of the given game.
+   *
+   * @param game the number of the game, starting at 0
+   * @return the number of moves
+   * @throws IndexOutOfBoundsException if there is no such game
+   */
+  public int getNumMoves(int game) {
+    return GameArchiveFormat.valueOf(GameArchiveFormat.getVarint(data, skipToResult(game) + 1));
+  }
+
+  /**
+   * Decodes the moves of the given game into the given array.
+   *
+   * @param game the number of the game, starting at 0
+   * @param moves the array to write the {@link RecordedMove recorded moves} to, starting at index
+   *     0, which must hold at least {@link #getNumMoves(int)} moves
+   * @return the number of moves
+   * @throws IndexOutOfBoundsException if there is no such game
+   * @throws IllegalArgumentException if the array is too small
+   */
+  public int readMoves(int game, int[] moves) {
+    final long numMoves = GameArchiveFormat.getVarint(data, skipToResult(game) + 1);
+    final int count = GameArchiveFormat.valueOf(numMoves);
+    if (count > moves.length) {
+      throw new IllegalArgumentException("Array too small for " + count + " moves.");
+    }
+    int offset = GameArchiveFormat.offsetAfter(numMoves);
+    for (int i = 0; i < count; ++i) {
+      final long move = GameArchiveFormat.getVarint(data, offset);
+      moves[i] = GameArchiveFormat.valueOf(move);
+      offset = GameArchiveFormat.offsetAfter(move);
+    }
+    return count;
+  }
+
+  /**
+   * Replays the given game through the game API.
+   *
+   * @param game the number of the game, starting at 0
+   * @return the game after its last move
+   * @throws IndexOutOfBoundsException if there is no such game
+   * @throws IllegalStateException if a move of the game is not possible
+   */
+  public Bauernschach replay(int game) {
+    final int[] moves = new int[getNumMoves(game)];
+    readMoves(game, moves);
+    final Bauernschach bauernschach = new Bauernschach(getNumRows(game), getNumColumns(game));
+    for (int move : moves) {
+      if (RecordedMove.play(bauernschach, move) != OperationStatus.SUCCESS) {
+        throw new IllegalStateException("Impossible move in game " + game);
+      }
+    }
+    return bauernschach;
+  }
+
+  private int skipToResult(int game) {
+    final long numRows = GameArchiveFormat.getVarint(data, bodyOffset(game));
+    final long numCols = GameArchiveFormat.getVarint(data, GameArchiveFormat.offsetAfter(numRows));
+    return GameArchiveFormat.offsetAfter(numCols);
+  }
+}
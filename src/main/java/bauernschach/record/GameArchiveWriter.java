@@ -0,0 +1,198 @@
+package bauernschach.record;
+
+import bauernschach.model.GameState.GameStatus;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends finished games to a game archive and its index file, in the format read by {@link
+ * GameArchiveReader}. Games are buffered and written in large blocks through a {@link
+ * FileChannel}; they are only guaranteed to be in the files after {@link #flush()} or {@link
+ * #close()}. A writer may be shared by many threads.
+ */
+public final class GameArchiveWriter implements Closeable {
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  private final FileChannel archive;
+  private final FileChannel index;
+  private final ByteBuffer archiveBuffer = ByteBuffer.allocate(BUFFER_BYTES);
+  private final ByteBuffer indexBuffer = ByteBuffer.allocate(BUFFER_BYTES);
+  // size of the archive including the buffered games
+  private long archiveSize;
+  private int numGames;
+
+  private GameArchiveWriter(
+      FileChannel archive, FileChannel index, long archiveSize, int numGames) {
+    this.archive = archive;
+    this.index = index;
+    this.archiveSize = archiveSize;
+    this.numGames = numGames;
+  }
+
+  /**
+   * Opens the given archive for appending games. A missing archive is created. The index file next
+   * to an existing archive is rewritten, so that it matches the archive even if an earlier writer
+   * was not closed.
+   *
+   * @param file the archive file; the index file has the same name with {@code .idx} appended
+   * @return the writer
+   * @throws IOException if a file cannot be written, or the existing file is not a valid archive
+   */
+  public static GameArchiveWriter open(Path file) throws IOException {
+    final Path indexFile = GameArchiveReader.indexFileOf(file);
+    long[] offsets = new long[0];
+    long archiveSize = GameArchiveFormat.HEADER_BYTES;
+    if (Files.exists(file) && Files.size(file) > 0) {
+      final GameArchiveReader existing = GameArchiveReader.open(file);
+      offsets = new long[existing.getNumGames()];
+      for (int i = 0; i < offsets.length; ++i) {
+        offsets[i] = existing.getOffset(i);
+      }
+      archiveSize = existing.getSize();
+    }
+
+    final FileChannel archive =
+        FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    FileChannel index = null;
+    try {
+      index =
+          FileChannel.open(
+              indexFile,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING,
+              StandardOpenOption.WRITE);
+      final GameArchiveWriter writer =
+          new GameArchiveWriter(archive, index, archiveSize, offsets.length);
+      if (archive.size() == 0) {
+        writer
+            .archiveBuffer
+            .putInt(GameArchiveFormat.ARCHIVE_MAGIC)
+            .putInt(GameArchiveFormat.FORMAT_VERSION);
+      } else {
+        archive.position(archiveSize);
+      }
+      writer
+          .indexBuffer
+          .putInt(GameArchiveFormat.INDEX_MAGIC)
+          .putInt(GameArchiveFormat.FORMAT_VERSION);
+      for (long offset : offsets) {
+        writer.putOffset(offset);
+      }
+      return writer;
+    } catch (IOException | RuntimeException e) {
+      archive.close();
+      if (index != null) {
+        index.close();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of games in the archive, including the buffered games.
+   *
+   * @return the number of games
+   */
+  public synchronized int getNumGames() {
+    return numGames;
+  }
+
+  /**
+   * Appends a game.
+   *
+   * @param numRows the number of rows of the board
+   * @param numCols the number of columns of the board
+   * @param result the status of the game when it ended, {@link GameStatus#ONGOING} for a game that
+   *     was stopped before it ended
+   * @param moves the {@link RecordedMove recorded moves} of the game, starting with white's first
+   *     move
+   * @param numMoves the number of moves to take from the array
+   * @throws IllegalArgumentException if a number is negative or a move is not a recorded move
+   * @throws IOException if the archive cannot be written
+   */
+  public synchronized void writeGame(
+      int numRows, int numCols, GameStatus result, int[] moves, int numMoves) throws IOException {
+    if (numRows < 1 || numCols < 1 || numMoves < 0 || numMoves > moves.length) {
+      throw new IllegalArgumentException("Invalid game.");
+    }
+    int bodyLength =
+        GameArchiveFormat.varintLength(numRows)
+            + GameArchiveFormat.varintLength(numCols)
+            + 1
+            + GameArchiveFormat.varintLength(numMoves);
+    for (int i = 0; i < numMoves; ++i) {
+      if (moves[i] < 0) {
+        throw new IllegalArgumentException("Invalid move: " + moves[i]);
+      }
+      bodyLength += GameArchiveFormat.varintLength(moves[i]);
+    }
+    final int recordLength = GameArchiveFormat.varintLength(bodyLength) + bodyLength;
+
+    if (archiveBuffer.remaining() < recordLength) {
+      writeFully(archive, archiveBuffer);
+    }
+    // a game that does not fit into the buffer gets a buffer of its own
+    final ByteBuffer buffer =
+        (recordLength <= archiveBuffer.capacity())
+            ? archiveBuffer
+            : ByteBuffer.allocate(recordLength);
+    GameArchiveFormat.putVarint(buffer, bodyLength);
+    GameArchiveFormat.putVarint(buffer, numRows);
+    GameArchiveFormat.putVarint(buffer, numCols);
+    buffer.put((byte) result.ordinal());
+    GameArchiveFormat.putVarint(buffer, numMoves);
+    for (int i = 0; i < numMoves; ++i) {
+      GameArchiveFormat.putVarint(buffer, moves[i]);
+    }
+    if (buffer != archiveBuffer) {
+      writeFully(archive, buffer);
+    }
+
+    putOffset(archiveSize);
+    archiveSize += recordLength;
+    ++numGames;
+  }
+
+  private void putOffset(long offset) throws IOException {
+    if (indexBuffer.remaining() < Long.BYTES) {
+      writeFully(index, indexBuffer);
+    }
+    indexBuffer.putLong(offset);
+  }
+
+  /**
+   * Writes all buffered games to the files.
+   *
+   * @throws IOException if the files cannot be written
+   */
+  public synchronized void flush() throws IOException {
+    writeFully(archive, archiveBuffer);
+    writeFully(index, indexBuffer);
+  }
+
+  /**
+   * Writes all buffered games and closes the files.
+   *
+   * @throws IOException if the files cannot be written
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    try (archive;
+        index) {
+      flush();
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
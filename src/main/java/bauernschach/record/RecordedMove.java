@@ -0,0 +1,146 @@
+package bauernschach.record;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.Bauernschach.OperationStatus;
+import bauernschach.model.GameState;
+import bauernschach.model.board.ChessBoardSnapshot;
+import bauernschach.model.board.ChessPiece;
+import bauernschach.model.board.CoordinateTable;
+import bauernschach.model.board.PackedMove;
+
+/**
+ * Encodes a move of a {@link Bauernschach} game as it is entered through the game API, i.e. as the
+ * ID of the selected piece and the index of the chosen move, in a single non-negative {@code int}.
+ * Passing the round is {@link #PASS}. Small values are used for the pieces with small IDs, so
+ * that on boards with up to 32 columns every move fits into one byte of a game record.
+ */
+public final class RecordedMove {
+  /** Represents passing the round instead of moving a piece. */
+  public static final int PASS = 0;
+
+  // a piece has at most four possible moves: one or two squares forward, or a capture to a side
+  private static final int MOVE_INDEX_BITS = 2;
+  private static final int MOVE_INDEX_MASK = (1 << MOVE_INDEX_BITS) - 1;
+
+  private RecordedMove() {}
+
+  /**
+   * Encodes the move with the given index of the piece with the given ID.
+   *
+   * @param pieceId the ID of the piece, as passed to {@link Bauernschach#selectPieceById(int)}
+   * @param moveIndex the index of the move, as passed to {@link Bauernschach#move(int)}
+   * @return the recorded move
+   * @throws IllegalArgumentException if the ID is negative or too large, or the move index is not
+   *     between 0 and 3
+   */
+  public static int of(int pieceId, int moveIndex) {
+    if (pieceId < 0
+        || pieceId > (Integer.MAX_VALUE >> MOVE_INDEX_BITS) - 1
+        || moveIndex < 0
+        || moveIndex > MOVE_INDEX_MASK) {
+      throw new IllegalArgumentException("Invalid move.");
+    }
+    return ((pieceId << MOVE_INDEX_BITS) | moveIndex) + 1;
+  }
+
+  /**
+   * Converts a {@link PackedMove packed move} of an engine to the recorded move that plays it in
+   * the given game state.
+   *
+   * @param gameState the game state in which the move is played, which is not changed
+   * @param packedMove a possible move of the player on turn, or {@link PackedMove#PASS}
+   * @return the recorded move
+   * @throws IllegalArgumentException if the move is not possible in the game state
+   */
+  public static int fromPackedMove(GameState gameState, int packedMove) {
+    if (PackedMove.isPass(packedMove)) {
+      return PASS;
+    }
+    final ChessBoardSnapshot chessBoard = gameState.getChessBoardSnapshot();
+    final CoordinateTable coordinates = chessBoard.getCoordinateTable();
+    final ChessPiece piece =
+        chessBoard.getPieceAt(coordinates.getCoordinate(PackedMove.getFromSquare(packedMove)));
+    final int moveIndex =
+        piece
+            .getPossibleMoveCoordinates()
+            .indexOf(coordinates.getCoordinate(PackedMove.getToSquare(packedMove)));
+    if (piece.isNone() || moveIndex < 0) {
+      throw new IllegalArgumentException("Move is not possible: " + packedMove);
+    }
+    return of(piece.getId(), moveIndex);
+  }
+
+  /**
+   * Returns whether the recorded move represents passing the round.
+   *
+   * @param recordedMove the recorded move
+   * @return true if the move is {@link #PASS}. false otherwise
+   */
+  public static boolean isPass(int recordedMove) {
+    return recordedMove == PASS;
+  }
+
+  /**
+   * Returns the ID of the moved piece.
+   *
+   * @param recordedMove a recorded move that is not {@link #PASS}
+   * @return the ID of the piece
+   */
+  public static int getPieceId(int recordedMove) {
+    assert !isPass(recordedMove);
+    return (recordedMove - 1) >>> MOVE_INDEX_BITS;
+  }
+
+  /**
+   * Returns the index of the move among the possible moves of the piece.
+   *
+   * @param recordedMove a recorded move that is not {@link #PASS}
+   * @return the index of the move
+   */
+  public static int getMoveIndex(int recordedMove) {
+    assert !isPass(recordedMove);
+    return (recordedMove - 1) & MOVE_INDEX_MASK;
+  }
+
+  /**
+   * Plays the recorded move on the given game. A piece that is already selected is deselected
+   * first.
+   *
+   * @param game the game to play the move on
+   * @param recordedMove the move to play
+   * @return OperationStatus.SUCCESS if the move was played; OperationStatus.FAIL if the game is not
+   *     running or the move is not possible in the current game state
+   */
+  public static OperationStatus play(Bauernschach game, int recordedMove) {
+    if (isPass(recordedMove)) {
+      return game.pass();
+    }
+    if (recordedMove < 0 || !game.getGameState().isGameRunning()) {
+      return OperationStatus.FAIL;
+    }
+    if (!game.getGameState().getSelectedPiece().isNone()) {
+      game.deselectPiece();
+    }
+    if (game.selectPieceById(getPieceId(recordedMove)) != OperationStatus.SUCCESS) {
+      return OperationStatus.FAIL;
+    }
+    final OperationStatus status = game.move(getMoveIndex(recordedMove));
+    if (status != OperationStatus.SUCCESS) {
+      game.deselectPiece();
+    }
+    return status;
+  }
+
+  /**
+   * Returns a readable form of the recorded move, in the shell's command syntax.
+   *
+   * @param recordedMove the recorded move
+   * @return {@code PASS} or {@code SELECT <id> MOVE <index>}
+   */
+  public static String toString(int recordedMove) {
+    if (isPass(recordedMove)) {
+      return "PASS";
+    }
+    return "SELECT " + getPieceId(recordedMove) + " MOVE " + getMoveIndex(recordedMove);
+  }
+}
@@ -0,0 +1,22 @@
+package bauernschach.tournament;
+
+import bauernschach.model.GameState;
+import bauernschach.model.board.PackedMove;
+
+/**
+ * A player in a {@link Tournament}. A player is used by one thread at a time, for one game after
+ * another.
+ */
+public interface Player {
+  /**
+   * Chooses the move to play in the given game state.
+   *
+   * @param gameState a running game state in which this player is on turn, which must not be
+   *     changed
+   * @return the move as a {@link PackedMove packed move}, possibly {@link PackedMove#PASS}
+   */
+  int chooseMove(GameState gameState);
+
+  /** Prepares this player for a new game. The default does nothing. */
+  default void newGame() {}
+}
@@ -0,0 +1,193 @@
+package bauernschach.tournament;
+
+import bauernschach.engine.AlphaBetaSearcher;
+import bauernschach.engine.MonteCarloSearcher;
+import bauernschach.engine.SearchLimits;
+import bauernschach.model.GameState;
+import bauernschach.model.board.ChessBoardSnapshot;
+import bauernschach.model.board.ChessPiece;
+import bauernschach.model.board.CoordinateTable;
+import bauernschach.model.board.Move;
+import bauernschach.model.board.PackedMove;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Describes a kind of {@link Player} and creates players of that kind. A description is written
+ * as {@code random}, {@code depth:<plies>} or {@code nodes:<count>} for the alpha-beta engine with
+ * a depth or node limit, or {@code mcts:<playouts>} for the Monte Carlo engine.
+ */
+public final class PlayerSpec {
+  private enum Kind {
+    RANDOM,
+    DEPTH,
+    NODES,
+    MCTS
+  }
+
+  private final Kind kind;
+  private final long limit;
+
+  private PlayerSpec(Kind kind, long limit) {
+    this.kind = kind;
+    this.limit = limit;
+  }
+
+  /**
+   * Returns a player that plays a random piece move.
+   *
+   * @return the description of a random player
+   */
+  public static PlayerSpec random() {
+    return new PlayerSpec(Kind.RANDOM, 0);
+  }
+
+  /**
+   * Returns an alpha-beta engine that searches to the given depth.
+   *
+   * @param depth the search depth in plies
+   * @return the description of the engine
+   */
+  public static PlayerSpec alphaBetaDepth(int depth) {
+    return new PlayerSpec(Kind.DEPTH, SearchLimits.ofDepth(depth).getMaxDepth());
+  }
+
+  /**
+   * Returns an alpha-beta engine that searches the given number of nodes per move.
+   *
+   * @param nodes the number of nodes per move
+   * @return the description of the engine
+   */
+  public static PlayerSpec alphaBetaNodes(long nodes) {
+    return new PlayerSpec(Kind.NODES, SearchLimits.ofNodes(nodes).getMaxNodes());
+  }
+
+  /**
+   * Returns a Monte Carlo engine that runs the given number of playouts per move.
+   *
+   * @param playouts the number of playouts per move
+   * @return the description of the engine
+   */
+  public static PlayerSpec monteCarlo(long playouts) {
+    return new PlayerSpec(Kind.MCTS, SearchLimits.ofNodes(playouts).getMaxNodes());
+  }
+
+  /**
+   * Parses a description as written by {@link #toString()}.
+   *
+   * @param description the description, e.g. {@code depth:4}
+   * @return the parsed description
+   * @throws IllegalArgumentException if the description is not valid
+   */
+  public static PlayerSpec parse(String description) {
+    final String[] parts = description.trim().toLowerCase(Locale.ROOT).split(":", -1);
+    try {
+      if (parts.length == 1 && parts[0].equals("random")) {
+        return random();
+      }
+      if (parts.length == 2) {
+        switch (parts[0]) {
+          case "depth":
+            return alphaBetaDepth(Integer.parseInt(parts[1]));
+          case "nodes":
+            return alphaBetaNodes(Long.parseLong(parts[1]));
+          case "mcts":
+            return monteCarlo(Long.parseLong(parts[1]));
+          default:
+            break;
+        }
+      }
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid player: " + description, e);
+    }
+    throw new IllegalArgumentException("Invalid player: " + description);
+  }
+
+  /**
+   * Creates a new player of this kind.
+   *
+   * @param seed seed for the random choices of the player
+   * @return a new player
+   */
+  public Player newPlayer(long seed) {
+    switch (kind) {
+      case RANDOM:
+        return newRandomPlayer(seed);
+      case DEPTH:
+        return newAlphaBetaPlayer(SearchLimits.ofDepth((int) limit));
+      case NODES:
+        return newAlphaBetaPlayer(SearchLimits.ofNodes(limit));
+      case MCTS:
+        return newMonteCarloPlayer(SearchLimits.ofNodes(limit));
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  private static Player newRandomPlayer(long seed) {
+    final SplittableRandom random = new SplittableRandom(seed);
+    return gameState -> randomMove(gameState, random);
+  }
+
+  /** Chooses a random piece move from the shared snapshot, without copying the board. */
+  private static int randomMove(GameState gameState, SplittableRandom random) {
+    final ChessBoardSnapshot chessBoard = gameState.getChessBoardSnapshot();
+    final List<ChessPiece> pieces = chessBoard.getPieceListByColor(gameState.getCurrentRound());
+    int numMoves = 0;
+    for (ChessPiece piece : pieces) {
+      numMoves += piece.getPossibleMoves().size();
+    }
+    // the player on turn always has a piece move
+    int index = random.nextInt(numMoves);
+    for (ChessPiece piece : pieces) {
+      final List<Move> moves = piece.getPossibleMoves();
+      if (index < moves.size()) {
+        final CoordinateTable coordinates = chessBoard.getCoordinateTable();
+        final int fromSquare = coordinates.getSquare(piece.getCoordinate());
+        final int toSquare = coordinates.getSquare(moves.get(index).getNewCoordinate());
+        return (moves.get(index).getMoveType() == Move.MoveType.CAPTURE)
+            ? PackedMove.capture(fromSquare, toSquare)
+            : PackedMove.forward(fromSquare, toSquare);
+      }
+      index -= moves.size();
+    }
+    throw new AssertionError();
+  }
+
+  private static Player newAlphaBetaPlayer(SearchLimits limits) {
+    final AlphaBetaSearcher searcher = new AlphaBetaSearcher();
+    return gameState -> searcher.bestMove(gameState, limits).getBestMove();
+  }
+
+  private static Player newMonteCarloPlayer(SearchLimits limits) {
+    // the tournament already runs one game per core
+    final MonteCarloSearcher searcher =
+        new MonteCarloSearcher(1, MonteCarloSearcher.DEFAULT_EXPLORATION);
+    return new Player() {
+      @Override
+      public int chooseMove(GameState gameState) {
+        return searcher.bestMove(gameState, limits).getBestMove();
+      }
+
+      @Override
+      public void newGame() {
+        searcher.clearTree();
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    switch (kind) {
+      case RANDOM:
+        return "random";
+      case DEPTH:
+        return "depth:" + limit;
+      case NODES:
+        return "nodes:" + limit;
+      default:
+        return "mcts:" + limit;
+    }
+  }
+}
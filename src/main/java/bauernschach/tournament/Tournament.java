@@ -0,0 +1,330 @@
+package bauernschach.tournament;
+
+import bauernschach.engine.GameMoves;
+import bauernschach.model.Bauernschach;
+import bauernschach.model.Bauernschach.OperationStatus;
+import bauernschach.model.GameState;
+import bauernschach.model.GameState.GameStatus;
+import bauernschach.model.board.ChessPiece.Color;
+import bauernschach.model.board.PackedMove;
+import bauernschach.record.GameArchiveWriter;
+import bauernschach.record.RecordedMove;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays games between two players without any user interface, on all cores. The players swap
+ * colors after every game. A game that reaches the ply limit, or in which both players pass one
+ * after the other, is counted as a draw.
+ *
+ * <p>Each game starts with a few random moves, so that deterministic engines do not replay the
+ * same game over and over, which would make the error margin of the results meaningless. Two
+ * consecutive games share their opening, with the colors swapped, so neither player gets the better
+ * side of an opening more often. The openings follow from the game number and are the same in
+ * every run.
+ *
+ * <p>Games can be recorded in a game archive, see {@link GameArchiveWriter}.
+ *
+ * <p>Usage: {@code Tournament <first player> <second player> [games] [rows] [columns] [threads]
+ * [archive]}, with players as described in {@link PlayerSpec}.
+ */
+public final class Tournament {
+  /** Default number of rows and columns of the board. */
+  public static final int DEFAULT_BOARD_SIZE = 8;
+  /** Default number of moves after which a game is stopped. */
+  public static final int DEFAULT_MAX_PLIES = 1000;
+  /** Default number of random moves at the start of each game. */
+  public static final int DEFAULT_OPENING_PLIES = 4;
+
+  private static final PlayerSpec OPENING_PLAYER = PlayerSpec.random();
+
+  private final PlayerSpec first;
+  private final PlayerSpec second;
+  private final int numRows;
+  private final int numCols;
+  private final int numThreads;
+  private final int maxPlies;
+  private final int openingPlies;
+  // null if the games are not recorded
+  private final Path archiveFile;
+
+  private Tournament(
+      PlayerSpec first,
+      PlayerSpec second,
+      int numRows,
+      int numCols,
+      int numThreads,
+      int maxPlies,
+      int openingPlies,
+      Path archiveFile) {
+    if (numRows < 2
+        || numCols < 1
+        || (long) numRows * numCols > PackedMove.MAX_SQUARES
+        || numThreads < 1
+        || maxPlies < 1
+        || openingPlies < 0) {
+      throw new IllegalArgumentException("Invalid tournament settings.");
+    }
+    this.first = first;
+    this.second = second;
+    this.numRows = numRows;
+    this.numCols = numCols;
+    this.numThreads = numThreads;
+    this.maxPlies = maxPlies;
+    this.openingPlies = openingPlies;
+    this.archiveFile = archiveFile;
+  }
+
+  /**
+   * Creates a tournament between the given players on an 8x8 board, with one thread per available
+   * processor.
+   *
+   * @param first the first player, who plays white in the first game
+   * @param second the second player
+   * @return the tournament
+   */
+  public static Tournament of(PlayerSpec first, PlayerSpec second) {
+    return new Tournament(
+        first,
+        second,
+        DEFAULT_BOARD_SIZE,
+        DEFAULT_BOARD_SIZE,
+        Runtime.getRuntime().availableProcessors(),
+        DEFAULT_MAX_PLIES,
+        DEFAULT_OPENING_PLIES,
+        null);
+  }
+
+  /**
+   * Creates a copy of this tournament that plays on a board of the given size.
+   *
+   * @param newNumRows the number of rows of the board
+   * @param newNumCols the number of columns of the board
+   * @return changed copy of this tournament
+   */
+  public Tournament withBoardSize(int newNumRows, int newNumCols) {
+    return new Tournament(
+        first, second, newNumRows, newNumCols, numThreads, maxPlies, openingPlies, archiveFile);
+  }
+
+  /**
+   * Creates a copy of this tournament that plays on the given number of threads.
+   *
+   * @param newNumThreads the number of games played at once
+   * @return changed copy of this tournament
+   */
+  public Tournament withThreads(int newNumThreads) {
+    return new Tournament(
+        first, second, numRows, numCols, newNumThreads, maxPlies, openingPlies, archiveFile);
+  }
+
+  /**
+   * Creates a copy of this tournament that stops games after the given number of moves.
+   *
+   * @param newMaxPlies the number of moves, passes included, after which a game is a draw
+   * @return changed copy of this tournament
+   */
+  public Tournament withMaxPlies(int newMaxPlies) {
+    return new Tournament(
+        first, second, numRows, numCols, numThreads, newMaxPlies, openingPlies, archiveFile);
+  }
+
+  /**
+   * Creates a copy of this tournament that starts every game with the given number of random
+   * moves. They count towards the ply limit and are recorded like all other moves.
+   *
+   * @param newOpeningPlies the number of random moves, or 0 to start from the initial position
+   * @return changed copy of this tournament
+   */
+  public Tournament withOpeningPlies(int newOpeningPlies) {
+    return new Tournament(
+        first, second, numRows, numCols, numThreads, maxPlies, newOpeningPlies, archiveFile);
+  }
+
+  /**
+   * Creates a copy of this tournament that appends its games to the given game archive.
+   *
+   * @param newArchiveFile the archive file, created if it does not exist
+   * @return changed copy of this tournament
+   */
+  public Tournament withArchive(Path newArchiveFile) {
+    return new Tournament(
+        first, second, numRows, numCols, numThreads, maxPlies, openingPlies, newArchiveFile);
+  }
+
+  /**
+   * Plays the given number of games. Each thread creates its own pair of players and plays games
+   * until all have been started, so the players need not be thread-safe.
+   *
+   * @param numGames the number of games to play
+   * @return the results from the view of the first player
+   * @throws UncheckedIOException if the game archive cannot be written
+   */
+  public TournamentResult run(int numGames) {
+    final long startNanos = System.nanoTime();
+    final AtomicInteger nextGame = new AtomicInteger();
+    final List<Future<long[]>> workers = new ArrayList<>();
+    final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try (GameArchiveWriter archive =
+        (archiveFile == null) ? null : GameArchiveWriter.open(archiveFile)) {
+      for (int i = 0; i < numThreads; ++i) {
+        final long seed = i;
+        workers.add(executor.submit(() -> playGames(numGames, nextGame, seed, archive)));
+      }
+      // counts per result: first player won, drew, lost, and the sum of game lengths
+      final long[] totals = new long[4];
+      for (Future<long[]> worker : workers) {
+        final long[] counts = worker.get();
+        for (int j = 0; j < totals.length; ++j) {
+          totals[j] += counts[j];
+        }
+      }
+      // there are at most numGames wins, draws or losses
+      return new TournamentResult(
+          (int) totals[0],
+          (int) totals[1],
+          (int) totals[2],
+          totals[3],
+          System.nanoTime() - startNanos);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Tournament interrupted.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw new UncheckedIOException((IOException) e.getCause());
+      }
+      throw new IllegalStateException("Tournament game failed.", e.getCause());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** Plays games until all are started and returns the wins, draws, losses and plies. */
+  private long[] playGames(
+      int numGames, AtomicInteger nextGame, long seed, GameArchiveWriter archive)
+      throws IOException {
+    final Player firstPlayer = first.newPlayer(2 * seed);
+    final Player secondPlayer = second.newPlayer(2 * seed + 1);
+    // the sum of game lengths can exceed the int range on long runs
+    final long[] counts = new long[4];
+    final int[] moves = new int[maxPlies];
+    for (int game = nextGame.getAndIncrement();
+        game < numGames;
+        game = nextGame.getAndIncrement()) {
+      final boolean firstIsWhite = game % 2 == 0;
+      firstPlayer.newGame();
+      secondPlayer.newGame();
+      final Bauernschach bauernschach = new Bauernschach(numRows, numCols);
+      // both games of a pair start with the same opening
+      final Player openingPlayer = OPENING_PLAYER.newPlayer(game / 2);
+      final int openingEnd = Math.min(openingPlies, maxPlies);
+      final int openingLength =
+          play(bauernschach, openingPlayer, openingPlayer, moves, 0, openingEnd);
+      final int plies =
+          play(
+              bauernschach,
+              firstIsWhite ? firstPlayer : secondPlayer,
+              firstIsWhite ? secondPlayer : firstPlayer,
+              moves,
+              openingLength,
+              maxPlies);
+      final GameStatus status = bauernschach.getGameState().getStatus();
+      if (archive != null) {
+        archive.writeGame(numRows, numCols, status, moves, plies);
+      }
+      if (status == GameStatus.WHITE_WON) {
+        ++counts[firstIsWhite ? 0 : 2];
+      } else if (status == GameStatus.BLACK_WON) {
+        ++counts[firstIsWhite ? 2 : 0];
+      } else {
+        ++counts[1];
+      }
+      counts[3] += plies;
+    }
+    return counts;
+  }
+
+  /**
+   * Continues a game after the given number of moves until it ends or reaches the given number of
+   * moves, and returns its number of moves. The recorded moves are written to the array if the
+   * games are archived.
+   */
+  private int play(
+      Bauernschach game, Player white, Player black, int[] moves, int startPly, int endPly) {
+    int plies = startPly;
+    boolean lastMoveWasPass = false;
+    while (game.getGameState().isGameRunning() && plies < endPly) {
+      final GameState gameState = game.getGameState();
+      final Player player = (gameState.getCurrentRound() == Color.WHITE) ? white : black;
+      final int move = player.chooseMove(gameState);
+      if (archiveFile != null) {
+        moves[plies] = RecordedMove.fromPackedMove(gameState, move);
+      }
+      if (GameMoves.play(game, move) != OperationStatus.SUCCESS) {
+        throw new IllegalStateException("Player chose an impossible move.");
+      }
+      ++plies;
+      if (PackedMove.isPass(move) && lastMoveWasPass) {
+        break; // both players passed, so the position repeats
+      }
+      lastMoveWasPass = PackedMove.isPass(move);
+    }
+    return plies;
+  }
+
+  @Override
+  public String toString() {
+    return "Tournament{"
+        + first
+        + " vs "
+        + second
+        + ", board="
+        + numRows
+        + "x"
+        + numCols
+        + ", threads="
+        + numThreads
+        + ", opening plies="
+        + openingPlies
+        + '}';
+  }
+
+  /**
+   * Runs a tournament from the command line and prints its results.
+   *
+   * @param args the players and optionally the number of games, the board size, the number of
+   *     threads and the game archive
+   */
+  public static void main(String[] args) {
+    if (args.length < 2 || args.length > 7) {
+      System.err.println(
+          "Usage: Tournament <first player> <second player> [games] [rows] [columns] [threads]"
+              + " [archive]");
+      System.err.println("Players: random, depth:<plies>, nodes:<count>, mcts:<playouts>");
+      return;
+    }
+    Tournament tournament = of(PlayerSpec.parse(args[0]), PlayerSpec.parse(args[1]));
+    final int numGames = (args.length > 2) ? Integer.parseInt(args[2]) : 100;
+    if (args.length > 4) {
+      tournament = tournament.withBoardSize(Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+    }
+    if (args.length > 5) {
+      tournament = tournament.withThreads(Integer.parseInt(args[5]));
+    }
+    if (args.length > 6) {
+      tournament = tournament.withArchive(Path.of(args[6]));
+    }
+    System.out.println(tournament);
+    System.out.println(tournament.run(numGames));
+  }
+}
@@ -0,0 +1,150 @@
+package bauernschach.tournament;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The results of a {@link Tournament}, counted from the view of its first player, with an Elo
+ * estimate of the first player relative to the second.
+ */
+public final class TournamentResult {
+  // two-sided 95% quantile of the normal distribution
+  private static final double CONFIDENCE_95 = 1.959964;
+
+  private final int wins;
+  private final int draws;
+  private final int losses;
+  private final long totalPlies;
+  private final long elapsedNanos;
+
+  TournamentResult(int wins, int draws, int losses, long totalPlies, long elapsedNanos) {
+    this.wins = wins;
+    this.draws = draws;
+    this.losses = losses;
+    this.totalPlies = totalPlies;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns the number of games won by the first player.
+   *
+   * @return the number of wins
+   */
+  public int getWins() {
+    return wins;
+  }
+
+  /**
+   * Returns the number of drawn games, including games stopped at the ply limit.
+   *
+   * @return the number of draws
+   */
+  public int getDraws() {
+    return draws;
+  }
+
+  /**
+   * Returns the number of games lost by the first player.
+   *
+   * @return the number of losses
+   */
+  public int getLosses() {
+    return losses;
+  }
+
+  /**
+   * Returns the number of played games.
+   *
+   * @return the number of games
+   */
+  public int getNumGames() {
+    return wins + draws + losses;
+  }
+
+  /**
+   * Returns the average number of moves per game, passes included.
+   *
+   * @return the average game length in plies
+   */
+  public double getAverageGameLength() {
+    return (double) totalPlies / Math.max(1, getNumGames());
+  }
+
+  /**
+   * Returns the tournament throughput.
+   *
+   * @return the number of games per second
+   */
+  public double getGamesPerSecond() {
+    return getNumGames() * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos);
+  }
+
+  /**
+   * Returns the share of points scored by the first player. A win counts as one point, a draw as
+   * half a point.
+   *
+   * @return the score between 0 and 1
+   */
+  public double getScore() {
+    return (wins + 0.5 * draws) / Math.max(1, getNumGames());
+  }
+
+  /**
+   * Returns the Elo difference of the first player to the second that matches the score.
+   *
+   * @return the Elo difference, infinite if one player scored all points
+   */
+  public double getEloDifference() {
+    return toElo(getScore());
+  }
+
+  /**
+   * Returns the half width of the 95% confidence interval of the Elo difference, based on the
+   * standard error of the score per game.
+   *
+   * @return the error margin in Elo, infinite if the interval reaches a score of 0 or 1
+   */
+  public double getEloErrorMargin() {
+    final int numGames = getNumGames();
+    final double score = getScore();
+    if (numGames == 0 || score <= 0 || score >= 1) {
+      return Double.POSITIVE_INFINITY;
+    }
+    final double variance =
+        (wins * square(1 - score) + draws * square(0.5 - score) + losses * square(score))
+            / numGames;
+    final double margin = CONFIDENCE_95 * Math.sqrt(variance / numGames);
+    return (toElo(score + margin) - toElo(score - margin)) / 2;
+  }
+
+  private static double square(double value) {
+    return value * value;
+  }
+
+  private static double toElo(double score) {
+    if (score <= 0) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    if (score >= 1) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return 400 * Math.log10(score / (1 - score));
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        Locale.ROOT,
+        "games: %d, +%d =%d -%d, score: %.1f%%, Elo: %+.1f +/- %.1f, "
+            + "average length: %.1f plies, %.1f games/s",
+        getNumGames(),
+        wins,
+        draws,
+        losses,
+        100 * getScore(),
+        getEloDifference(),
+        getEloErrorMargin(),
+        getAverageGameLength(),
+        getGamesPerSecond());
+  }
+}
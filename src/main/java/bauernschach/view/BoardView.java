@@ -0,0 +1,33 @@
+package bauernschach.view;
+
+import bauernschach.model.Bauernschach;
+
+/**
+ * A view of the playing field of the {@link Bauernschach} game that the buttons of the {@link
+ * ChessPane} act on.
+ */
+public interface BoardView {
+  /** Handler when click Pass Button */
+  void handlePassCommand();
+
+  /** Handler when click Undo Button */
+  void handleUndoCommand();
+
+  /** Handler when click Redo Button */
+  void handleRedoCommand();
+
+  /**
+   * Plays a move of the computer player, through the same game operations as a human move.
+   *
+   * @param packedMove the move as a {@link bauernschach.model.board.PackedMove packed move}
+   */
+  void handleComputerMove(int packedMove);
+
+  /**
+   * Turns the overlay on or off that shows the score of each possible move of the selected piece
+   * on its target square.
+   *
+   * @param showHints whether to show the scores
+   */
+  void setShowHints(boolean showHints);
+}
@@ -0,0 +1,479 @@
+package bauernschach.view;
+
+import bauernschach.log.GameEvent;
+import bauernschach.log.GameEventRecorder;
+import bauernschach.model.Bauernschach;
+import bauernschach.model.Bauernschach.OperationStatus;
+import bauernschach.model.GameListener;
+import bauernschach.model.GameState;
+import bauernschach.model.board.ChessBoardSnapshot;
+import bauernschach.model.board.ChessPiece;
+import bauernschach.model.board.Coordinate;
+import bauernschach.record.RecordedMove;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.geometry.VPos;
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * A playing field of the {@link Bauernschach} game that is drawn on a single {@link Canvas}
+ * instead of one control per square, for boards too large for the {@link ChessBoardView}.
+ *
+ * <p>The mouse wheel zooms around the pointer and dragging pans the board. Clicks are mapped to
+ * squares by arithmetic and select and move pieces like in the {@link ChessBoardView}. Changes of
+ * the game only mark their squares as dirty; dirty squares are redrawn at most once per frame, and
+ * only the visible ones.
+ */
+public final class CanvasBoardView extends Pane implements BoardView {
+  private static final double DEFAULT_CELL_SIZE = 90;
+  // width and height the board view asks for, the size of the default board
+  private static final double VIEWPORT_SIZE = 8 * DEFAULT_CELL_SIZE;
+  private static final double MIN_CELL_SIZE = 4;
+  private static final double MAX_CELL_SIZE = 180;
+  private static final double ZOOM_FACTOR = 1.1;
+  // squares smaller than this are drawn without grid lines and pieces as discs
+  private static final double MIN_DETAIL_CELL_SIZE = 12;
+  private static final Color LIGHT_COLOR = Color.WHITE;
+  private static final Color DARK_COLOR = Color.STEELBLUE;
+  private static final Color SELECTED_COLOR = Color.LIGHTGREEN;
+  private static final Color OUTSIDE_COLOR = Color.LIGHTGRAY;
+  private static final Color GRID_COLOR = Color.DIMGRAY;
+  private static final Color HINT_COLOR = Color.DARKRED;
+
+  private final int numRows;
+  private final int numCols;
+  private final Bauernschach game;
+  private final ChessPane mainpane;
+  // logs the operations of the player and the status changes they cause
+  private final GameEventRecorder events;
+  private final Canvas canvas = new Canvas();
+  // PLAIN after the game ended, when the board ignores clicks until a move is taken back
+  private ChessBoardView.PrintMode printMode = ChessBoardView.PrintMode.PIECE_SELECT;
+
+  // width and height of a square and position of the board's top left corner on the canvas
+  private double cellSize;
+  private double offsetX;
+  private double offsetY;
+  private double dragX;
+  private double dragY;
+
+  // the highlighted square of the selected piece, or null
+  private Coordinate selectedSquare;
+  // evaluates the moves of the selected piece, or null if no hints are shown
+  private MoveHints hints;
+  // the score texts shown on the target squares of the selected piece
+  private final Map<Coordinate, String> hintTexts = new HashMap<>();
+  // squares to redraw in the next frame, by row * numCols + column
+  private final BitSet dirtySquares = new BitSet();
+  private boolean fullRedraw = true;
+  private final AnimationTimer redrawTimer =
+      new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+          redraw();
+          stop();
+        }
+      };
+
+  /**
+   * Contructs a chess board view of the given game, zoomed out so that the whole board fits.
+   *
+   * @param game Bauernschach Game Instance
+   * @param mainpane MainPain as ChessPane
+   */
+  public CanvasBoardView(Bauernschach game, ChessPane mainpane) {
+    this.game = game;
+    this.mainpane = mainpane;
+    events = GameEventRecorder.of(game, mainpane.eventLog);
+    final ChessBoardSnapshot chessBoard = game.getGameState().getChessBoardSnapshot();
+    this.numRows = chessBoard.getNumRows();
+    this.numCols = chessBoard.getNumColumns();
+    // start with the whole board in view
+    cellSize =
+        Math.max(
+            MIN_CELL_SIZE, Math.min(DEFAULT_CELL_SIZE, VIEWPORT_SIZE / Math.max(numRows, numCols)));
+    setPrefSize(VIEWPORT_SIZE, VIEWPORT_SIZE);
+
+    getChildren().add(canvas);
+    canvas.widthProperty().bind(widthProperty());
+    canvas.heightProperty().bind(heightProperty());
+    canvas.widthProperty().addListener((observable, oldWidth, newWidth) -> invalidateAll());
+    canvas.heightProperty().addListener((observable, oldHeight, newHeight) -> invalidateAll());
+
+    canvas.setOnScroll(this::handleScroll);
+    canvas.setOnMousePressed(this::handleMousePressed);
+    canvas.setOnMouseDragged(this::handleMouseDragged);
+    canvas.setOnMouseClicked(this::handleMouseClicked);
+
+    game.addListener(
+        new GameListener() {
+          @Override
+          public void squaresChanged(List<Coordinate> coordinates) {
+            for (Coordinate coordinate : coordinates) {
+              invalidate(coordinate);
+            }
+          }
+
+          @Override
+          public void selectionChanged(ChessPiece selectedPiece) {
+            if (selectedSquare != null) {
+              invalidate(selectedSquare);
+            }
+            selectedSquare = selectedPiece.isNone() ? null : selectedPiece.getCoordinate();
+            if (selectedSquare != null) {
+              invalidate(selectedSquare);
+            }
+            updateHints(selectedPiece);
+          }
+
+          @Override
+          public void currentRoundChanged(ChessPiece.Color currentRound) {
+            mainpane.lblPlayer.setText("Current Player : " + currentRound);
+          }
+        });
+  }
+
+  /**
+   * Returns the width and height of a square.
+   *
+   * @return the current cell size in pixels
+   */
+  public double getCellSize() {
+    return cellSize;
+  }
+
+  /**
+   * Zooms the board, keeping the given point of the canvas in place.
+   *
+   * @param newCellSize the new width and height of a square, clamped to the supported range
+   * @param pivotX the x coordinate of the point on the canvas
+   * @param pivotY the y coordinate of the point on the canvas
+   */
+  public void zoomTo(double newCellSize, double pivotX, double pivotY) {
+    final double clamped = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, newCellSize));
+    final double scale = clamped / cellSize;
+    offsetX = pivotX - (pivotX - offsetX) * scale;
+    offsetY = pivotY - (pivotY - offsetY) * scale;
+    cellSize = clamped;
+    invalidateAll();
+  }
+
+  /**
+   * Moves the board by the given distance.
+   *
+   * @param deltaX the horizontal distance in pixels
+   * @param deltaY the vertical distance in pixels
+   */
+  public void panBy(double deltaX, double deltaY) {
+    offsetX += deltaX;
+    offsetY += deltaY;
+    invalidateAll();
+  }
+
+  /**
+   * Returns the square at the given point of the canvas.
+   *
+   * @param x the x coordinate of the point
+   * @param y the y coordinate of the point
+   * @return the square, or null if the point is outside the board
+   */
+  public Coordinate squareAt(double x, double y) {
+    final int row = (int) Math.floor((y - offsetY) / cellSize);
+    final int col = (int) Math.floor((x - offsetX) / cellSize);
+    if (row < 0 || row >= numRows || col < 0 || col >= numCols) {
+      return null;
+    }
+    return Coordinate.of(row, col);
+  }
+
+  private void handleScroll(ScrollEvent event) {
+    if (event.getDeltaY() == 0) {
+      return;
+    }
+    final double factor = (event.getDeltaY() > 0) ? ZOOM_FACTOR : 1 / ZOOM_FACTOR;
+    zoomTo(cellSize * factor, event.getX(), event.getY());
+    event.consume();
+  }
+
+  private void handleMousePressed(MouseEvent event) {
+    dragX = event.getX();
+    dragY = event.getY();
+  }
+
+  private void handleMouseDragged(MouseEvent event) {
+    panBy(event.getX() - dragX, event.getY() - dragY);
+    dragX = event.getX();
+    dragY = event.getY();
+  }
+
+  private void handleMouseClicked(MouseEvent event) {
+    // the end of a drag is not a click
+    if (event.getButton() != MouseButton.PRIMARY || !event.isStillSincePress()) {
+      return;
+    }
+    final Coordinate coordinate = squareAt(event.getX(), event.getY());
+    if (coordinate == null) {
+      return;
+    }
+    events.log(GameEvent.click(coordinate.getRow(), coordinate.getColumn()));
+    if (printMode == ChessBoardView.PrintMode.PIECE_SELECT) {
+      handleSelectCommand(coordinate);
+    } else if (printMode == ChessBoardView.PrintMode.MOVE_SELECT) {
+      handleMoveCommand(coordinate);
+    }
+  }
+
+  /** Handler when select the piece */
+  private void handleSelectCommand(Coordinate coordinate) {
+    if (!isGameRunning()) {
+      return;
+    }
+    final GameState gameState = game.getGameState();
+    final ChessPiece piece = gameState.getChessBoardSnapshot().getPieceAt(coordinate);
+    if (piece.isNone() || piece.getColor() != gameState.getCurrentRound()) {
+      return;
+    }
+
+    final OperationStatus status = game.selectPieceById(piece.getId());
+    if (status == OperationStatus.SUCCESS) {
+      events.log(GameEvent.select(piece.getId()));
+      printMode = ChessBoardView.PrintMode.MOVE_SELECT;
+    } else if (status == OperationStatus.SAME_FAIL) {
+      if (game.deselectPiece() == OperationStatus.SUCCESS) {
+        events.log(GameEvent.deselect());
+        printMode = ChessBoardView.PrintMode.PIECE_SELECT;
+      }
+    }
+  }
+
+  /** Handler when move the piece */
+  private void handleMoveCommand(Coordinate coordinate) {
+    if (!isGameRunning()) {
+      return;
+    }
+    final ChessPiece selectedChessPiece = game.getGameState().GetSelectedChessPiece();
+    if (selectedChessPiece.getCoordinate().equals(coordinate)) {
+      if (game.deselectPiece() == OperationStatus.SUCCESS) {
+        events.log(GameEvent.deselect());
+        printMode = ChessBoardView.PrintMode.PIECE_SELECT;
+      }
+      return;
+    }
+
+    final int id = selectedChessPiece.getPossibleMoveCoordinates().indexOf(coordinate);
+    if (id == -1) {
+      return;
+    }
+    if (game.move(id) == OperationStatus.FAIL) {
+      return;
+    }
+    events.log(GameEvent.move(id));
+    finishTurn();
+  }
+
+  @Override
+  public void handlePassCommand() {
+    if (!isGameRunning()) {
+      return;
+    }
+    game.pass();
+    events.log(GameEvent.pass());
+    finishTurn();
+  }
+
+  @Override
+  public void handleUndoCommand() {
+    // also allowed after the game ended, which makes it running again
+    if (game.undo() == OperationStatus.FAIL) {
+      return;
+    }
+    events.log(GameEvent.undo());
+    printMode = ChessBoardView.PrintMode.PIECE_SELECT;
+  }
+
+  @Override
+  public void handleRedoCommand() {
+    if (game.redo() == OperationStatus.FAIL) {
+      return;
+    }
+    events.log(GameEvent.redo());
+    finishTurn();
+  }
+
+  @Override
+  public void handleComputerMove(int packedMove) {
+    if (!isGameRunning()) {
+      return;
+    }
+    final int recordedMove = RecordedMove.fromPackedMove(game.getGameState(), packedMove);
+    if (RecordedMove.isPass(recordedMove)) {
+      handlePassCommand();
+      return;
+    }
+    final int id = RecordedMove.getPieceId(recordedMove);
+    if (game.selectPieceById(id) != OperationStatus.SUCCESS) {
+      return;
+    }
+    events.log(GameEvent.select(id));
+    final int moveIndex = RecordedMove.getMoveIndex(recordedMove);
+    if (game.move(moveIndex) == OperationStatus.FAIL) {
+      return;
+    }
+    events.log(GameEvent.move(moveIndex));
+    finishTurn();
+  }
+
+  @Override
+  public void setShowHints(boolean showHints) {
+    if (showHints == (hints != null)) {
+      return;
+    }
+    if (showHints) {
+      hints = new MoveHints();
+      if (isGameRunning()) {
+        updateHints(game.getGameState().getSelectedPiece());
+      }
+    } else {
+      hints.shutdown();
+      hints = null;
+      updateHints(ChessPiece.NONE);
+    }
+  }
+
+  /** Removes the hints and evaluates the moves of the selected piece, if hints are shown. */
+  private void updateHints(ChessPiece selectedPiece) {
+    for (Coordinate coordinate : hintTexts.keySet()) {
+      invalidate(coordinate);
+    }
+    hintTexts.clear();
+    if (hints == null) {
+      return;
+    }
+    if (selectedPiece.isNone()) {
+      hints.cancel();
+      return;
+    }
+    hints.evaluate(
+        game.getGameState(),
+        selectedPiece,
+        (coordinate, hint) -> {
+          hintTexts.put(coordinate, hint);
+          invalidate(coordinate);
+        });
+  }
+
+  /** Waits for the next piece selection, or shows the winner if the game ended. */
+  private void finishTurn() {
+    final GameState.GameStatus gameStatus = game.getGameState().getStatus();
+    if (gameStatus == GameState.GameStatus.ONGOING) {
+      printMode = ChessBoardView.PrintMode.PIECE_SELECT;
+      return;
+    }
+    printMode = ChessBoardView.PrintMode.PLAIN;
+    if (gameStatus == GameState.GameStatus.WHITE_WON) {
+      new GameOver("WHITE", mainpane.winStage).Show();
+    } else if (gameStatus == GameState.GameStatus.BLACK_WON) {
+      new GameOver("BLACK", mainpane.winStage).Show();
+    }
+  }
+
+  private boolean isGameRunning() {
+    return game.getGameState().isGameRunning();
+  }
+
+  private void invalidate(Coordinate coordinate) {
+    dirtySquares.set(coordinate.getRow() * numCols + coordinate.getColumn());
+    redrawTimer.start();
+  }
+
+  private void invalidateAll() {
+    fullRedraw = true;
+    redrawTimer.start();
+  }
+
+  /** Draws the dirty squares, or the whole visible board after a zoom, pan or resize. */
+  private void redraw() {
+    final GraphicsContext gc = canvas.getGraphicsContext2D();
+    final ChessBoardSnapshot chessBoard = game.getGameState().getChessBoardSnapshot();
+    if (fullRedraw) {
+      fullRedraw = false;
+      dirtySquares.clear();
+      gc.setFill(OUTSIDE_COLOR);
+      gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+      final int firstRow = Math.max(0, (int) Math.floor(-offsetY / cellSize));
+      final int lastRow =
+          Math.min(numRows - 1, (int) Math.floor((canvas.getHeight() - offsetY) / cellSize));
+      final int firstCol = Math.max(0, (int) Math.floor(-offsetX / cellSize));
+      final int lastCol =
+          Math.min(numCols - 1, (int) Math.floor((canvas.getWidth() - offsetX) / cellSize));
+      for (int row = firstRow; row <= lastRow; ++row) {
+        for (int col = firstCol; col <= lastCol; ++col) {
+          drawSquare(gc, chessBoard, Coordinate.of(row, col));
+        }
+      }
+      return;
+    }
+    for (int i = dirtySquares.nextSetBit(0); i >= 0; i = dirtySquares.nextSetBit(i + 1)) {
+      drawSquare(gc, chessBoard, Coordinate.of(i / numCols, i % numCols));
+    }
+    dirtySquares.clear();
+  }
+
+  private void drawSquare(GraphicsContext gc, ChessBoardSnapshot chessBoard, Coordinate square) {
+    final double x = offsetX + square.getColumn() * cellSize;
+    final double y = offsetY + square.getRow() * cellSize;
+    if (x + cellSize <= 0
+        || y + cellSize <= 0
+        || x >= canvas.getWidth()
+        || y >= canvas.getHeight()) {
+      return;
+    }
+    if (square.equals(selectedSquare)) {
+      gc.setFill(SELECTED_COLOR);
+    } else {
+      gc.setFill(((square.getRow() + square.getColumn()) % 2 == 0) ? LIGHT_COLOR : DARK_COLOR);
+    }
+    gc.fillRect(x, y, cellSize, cellSize);
+
+    final boolean detailed = cellSize >= MIN_DETAIL_CELL_SIZE;
+    if (detailed) {
+      gc.setStroke(GRID_COLOR);
+      gc.setLineWidth(1);
+      gc.strokeRect(x + 0.5, y + 0.5, cellSize - 1, cellSize - 1);
+    }
+
+    final ChessPiece piece = chessBoard.getPieceAt(square);
+    if (!piece.isNone()) {
+      if (detailed) {
+        final String color = (piece.getColor() == ChessPiece.Color.WHITE) ? "white" : "black";
+        gc.drawImage(CellResources.getPieceImage(color, imageSize()), x, y, cellSize, cellSize);
+      } else {
+        gc.setFill((piece.getColor() == ChessPiece.Color.WHITE) ? Color.IVORY : Color.BLACK);
+        gc.fillOval(x + cellSize / 4, y + cellSize / 4, cellSize / 2, cellSize / 2);
+      }
+    }
+
+    final String hint = hintTexts.get(square);
+    if (hint != null && detailed) {
+      gc.setFill(HINT_COLOR);
+      gc.setTextAlign(TextAlignment.CENTER);
+      gc.setTextBaseline(VPos.CENTER);
+      gc.fillText(hint, x + cellSize / 2, y + cellSize / 2, cellSize);
+    }
+  }
+
+  /** Returns the size to decode piece images in, a power of two so that zooming reuses them. */
+  private double imageSize() {
+    return Integer.highestOneBit((int) Math.ceil(cellSize) - 1) << 1;
+  }
+}
@@ -0,0 +1,69 @@
+package bauernschach.view;
+
+import java.util.HashMap;
+import java.util.Map;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.paint.Color;
+
+import bauernschach.model.board.Coordinate;
+
+/**
+ * Shared resources for drawing the cells of the chess board. Each piece image is decoded once per
+ * size and the backgrounds are immutable, so all {@link CellView cells} share the same instances
+ * instead of creating new ones on every refresh. Must be used on the JavaFX application thread.
+ */
+final class CellResources {
+  /** Background of the light squares. */
+  static final Background LIGHT_BACKGROUND =
+      new Background(new BackgroundFill(Color.WHITE, null, null));
+  /** Background of the dark squares. */
+  static final Background DARK_BACKGROUND =
+      new Background(new BackgroundFill(Color.STEELBLUE, null, null));
+  /** Background of the square of the selected piece. */
+  static final Background SELECTED_BACKGROUND =
+      new Background(new BackgroundFill(Color.LIGHTGREEN, null, null));
+
+  // decoded images by file name and size
+  private static final Map<String, Image> IMAGES = new HashMap<>();
+
+  private CellResources() {}
+
+  /**
+   * Returns the background of the given square when it is not selected.
+   *
+   * @param coordinate the square
+   * @return the shared background of a light or dark square
+   */
+  static Background getBackground(Coordinate coordinate) {
+    return ((coordinate.getRow() + coordinate.getColumn()) % 2 == 0)
+        ? LIGHT_BACKGROUND
+        : DARK_BACKGROUND;
+  }
+
+  /**
+   * Returns the image of a piece in its original size.
+   *
+   * @param color "white" or "black"
+   * @return the shared image
+   */
+  static Image getPieceImage(String color) {
+    return getPieceImage(color, 0);
+  }
+
+  /**
+   * Returns the image of a piece scaled to fit into a square of the given size, so that it need
+   * not be scaled while drawing.
+   *
+   * @param color "white" or "black"
+   * @param size the width and height to scale the image to, or 0 for the original size
+   * @return the shared image
+   */
+  static Image getPieceImage(String color, double size) {
+    final String fileName = color + ".png";
+    return IMAGES.computeIfAbsent(
+        fileName + "@" + size,
+        key -> (size > 0) ? new Image(fileName, size, size, true, true) : new Image(fileName));
+  }
+}
@@ -1,12 +1,8 @@
 package bauernschach.view;
 
 import javafx.scene.control.Button;
+import javafx.scene.control.ContentDisplay;
 import javafx.scene.image.ImageView;
-import javafx.scene.layout.Background;
-import javafx.scene.layout.BackgroundFill;
-import javafx.scene.paint.Color;
-import static javafx.scene.paint.Color.*;
-
 import bauernschach.model.Bauernschach;
 import bauernschach.model.board.ChessPiece;
 import bauernschach.model.board.Coordinate;
@@ -26,6 +22,10 @@ public class CellView extends Button{
      * Coordinate
      */
     public Coordinate coordinate;
+    /**
+     * Shows the piece image, reused for every piece that occupies this cell
+     */
+    private final ImageView pieceView = new ImageView();
 
     /**
      * Contructs a CellView with the given dimension.
@@ -34,31 +34,23 @@ public class CellView extends Button{
      */
     public CellView(Coordinate coordinate){
         this.coordinate = coordinate;
-        if((coordinate.getRow()+coordinate.getColumn())%2==0) {
-            this.setBackground(new Background( new BackgroundFill(WHITE,null,null)));;
-        }
-        else {
-            this.setBackground(new Background( new BackgroundFill(Color.STEELBLUE,null,null)));;
-        }
+        this.setBackground(CellResources.getBackground(coordinate));
         occupyingPiece = null;
         occupied = false;
+        // a hint is shown on top of the piece image
+        this.setContentDisplay(ContentDisplay.CENTER);
     }
     /**
      * Reset color of CellView of white and black
      */
     public void resetColor(){
-        if((coordinate.getRow()+coordinate.getColumn())%2==0) {
-            this.setBackground(new Background( new BackgroundFill(WHITE,null,null)));;
-        }
-        else {
-            this.setBackground(new Background( new BackgroundFill(STEELBLUE,null,null)));;
-        }
+        this.setBackground(CellResources.getBackground(coordinate));
     }
     /**
      * set light green color for selected cell 
      */
     public void selectedCellColor() {
-        this.setBackground(new Background( new BackgroundFill(LIGHTGREEN,null,null)));
+        this.setBackground(CellResources.SELECTED_BACKGROUND);
     }
     /**
      * Returns the ChessPiece.
@@ -69,7 +61,7 @@ public class CellView extends Button{
         return occupyingPiece;
     }
     /**
-     * Add chess piece in the CellView
+     * Add chess piece in the CellView, replacing the previous one. An empty cell shows no image.
      *
      * @param piece piece
      */
@@ -78,10 +70,21 @@ public class CellView extends Button{
         if(!piece.isNone()) {
             this.occupied = true;
             this.setImage(occupyingPiece.getColor() == ChessPiece.Color.WHITE ? "white":"black");
+        } else {
+            this.occupied = false;
+            this.setImage(null);
         }
     }
     /**
-     * Set image in the ImageView by the color.
+     * Show the score of the move to this cell, or remove it.
+     *
+     * @param hint the score text, or null
+     */
+    public void setHint(String hint) {
+        this.setText(hint);
+    }
+    /**
+     * Set image in the ImageView by the color. The images are decoded once and shared by all cells.
      *
      * @param color player color
      */
@@ -90,7 +93,7 @@ public class CellView extends Button{
             this.setGraphic(null);
             return;
     	}
-	    ImageView img = new ImageView(""+color+".png");
-        this.setGraphic(img);
+        pieceView.setImage(CellResources.getPieceImage(color));
+        this.setGraphic(pieceView);
     }
 }
@@ -1,11 +1,17 @@
 package bauernschach.view;
 
+import bauernschach.log.GameEvent;
+import bauernschach.log.GameEventRecorder;
 import bauernschach.model.Bauernschach;
+import bauernschach.model.GameListener;
 import bauernschach.model.GameState;
 import bauernschach.model.Bauernschach.OperationStatus;
-import bauernschach.model.board.ChessBoard;
+import bauernschach.model.board.ChessBoardSnapshot;
 import bauernschach.model.board.ChessPiece;
 import bauernschach.model.board.Coordinate;
+import bauernschach.record.RecordedMove;
+import java.util.ArrayList;
+import java.util.List;
 import javafx.event.EventHandler;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.ColumnConstraints;
@@ -14,8 +20,11 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.RowConstraints;
 
 
-/** This class represents the playing field of the {@link Bauernschach} game. */
-public final class ChessBoardView extends GridPane {
+/**
+ * This class represents the playing field of the {@link Bauernschach} game. The cells are created
+ * once and observe the game, so a move only updates the cells whose piece changed.
+ */
+public final class ChessBoardView extends GridPane implements BoardView {
 
 	/** PrintMode. */
   public enum PrintMode {
@@ -29,12 +38,16 @@ public final class ChessBoardView extends GridPane {
   private final int numRows;
   private final int numCols;
   private final CellView[][] board;
-  private static final char ROW_START_CHAR = 'A';
-  private static final int COLUMN_DISPLAY_OFFSET = 1;
-  private static final String SELECT_PIECE_MESSAGE = "Please select a chess piece.";
-  private static final String SELECT_MOVE_MESSAGE = "Please select a move.";
-  private Bauernschach game;
+  private final Bauernschach game;
   private ChessPane mainpane;
+  // logs the operations of the player and the status changes they cause
+  private final GameEventRecorder events;
+  // the highlighted cell of the selected piece, or null
+  private CellView selectedCell;
+  // evaluates the moves of the selected piece, or null if no hints are shown
+  private MoveHints hints;
+  // the cells that show a hint
+  private final List<CellView> hintedCells = new ArrayList<>();
 	/** PrintMode. */
   public PrintMode printMode;
 
@@ -52,6 +65,7 @@ public final class ChessBoardView extends GridPane {
     }
     this.mainpane = mainpane;
     this.game = game;
+    events = GameEventRecorder.of(game, mainpane.eventLog);
 	printMode = PrintMode.PIECE_SELECT;
     this.numRows = numRows;
     this.numCols = numCols;
@@ -74,32 +88,50 @@ public final class ChessBoardView extends GridPane {
         cc.setFillWidth(true);
         this.getColumnConstraints().add(cc);
     }
+    // all cells share one click handler
+    final EventHandler<MouseEvent> clickHandler = mouseEvent -> {
+		CellView clickedCell = (CellView) mouseEvent.getSource();
+		events.log(
+		    GameEvent.click(clickedCell.coordinate.getRow(), clickedCell.coordinate.getColumn()));
+
+		// the board ignores clicks after the game ended, until a move is taken back
+		if(printMode == PrintMode.PIECE_SELECT) {
+			handleSelectCommand(clickedCell);
+		}else if(printMode == PrintMode.MOVE_SELECT) {
+			handleMoveCommand(clickedCell);
+		}
+	};
     for (int i = 0; i < numRows; ++i) {
       for (int j = 0; j < numCols; ++j) {
     	CellView cell;
         Coordinate coordinate = Coordinate.of(i, j);
-        ChessPiece piece = game.getGameState().getChessBoard().GetCurrentBoard()[i][j];
+        ChessPiece piece = game.getGameState().getChessBoardSnapshot().getPieceAt(coordinate);
         cell = new CellView(coordinate);
         cell.addPiece(piece);
         board[coordinate.getRow()][coordinate.getColumn()] = cell;
         cell.setMinSize(90,90);
-        cell.setOnMouseClicked(mouseEvent -> {
-			CellView clickedCell = (CellView) mouseEvent.getSource();
-			System.out.print(""+ clickedCell.coordinate.getRow() + ":" + clickedCell.coordinate.getColumn()+"\n");
-
-			if(printMode == PrintMode.PIECE_SELECT) {
-				handleSelectCommand(clickedCell);
-			}else if(printMode == PrintMode.MOVE_SELECT) {
-				handleMoveCommand(clickedCell);
-			}else {
-
-			}
-			printCurrentChessBoardView();
-		});
+        cell.setOnMouseClicked(clickHandler);
         this.add(cell, j, i);
       }
     }
     this.setGridLinesVisible(true);
+    game.addListener(new GameListener() {
+      @Override
+      public void squaresChanged(List<Coordinate> coordinates) {
+        UpdateChessBoardCells(coordinates);
+      }
+
+      @Override
+      public void selectionChanged(ChessPiece selectedPiece) {
+        UpdateSelectedCell(selectedPiece);
+        UpdateHints(selectedPiece);
+      }
+
+      @Override
+      public void currentRoundChanged(ChessPiece.Color currentRound) {
+        mainpane.lblPlayer.setText("Current Player : " + currentRound);
+      }
+    });
   }
   
   /**
@@ -121,18 +153,16 @@ public final class ChessBoardView extends GridPane {
 	    
 	    OperationStatus status = game.selectPieceById(id);
 	    if (status == OperationStatus.SUCCESS) {
-		    clickedCell.selectedCellColor();
+	    	events.log(GameEvent.select(id));
 		    printMode = PrintMode.MOVE_SELECT;
 
 	    }else if(status == OperationStatus.SAME_FAIL) {
 	    	if(OperationStatus.SUCCESS==game.deselectPiece()) {
-	    		RefreshPossibleCells();	
+	    		events.log(GameEvent.deselect());
 	  	        printMode = PrintMode.PIECE_SELECT;
 	    	}
-	    } 
-	    else {
-	      displayError("Error");
 	    }
+	    // other pieces cannot be selected since they cannot move, which needs no message
   }
   
   /**
@@ -148,7 +178,7 @@ public final class ChessBoardView extends GridPane {
 
 	if(selectedChessPiece.getCoordinate().equals(clickedCell.getOccupyingPiece().getCoordinate())) {
     	if(OperationStatus.SUCCESS==game.deselectPiece()) {
-    		RefreshPossibleCells();	
+    		events.log(GameEvent.deselect());
   	        printMode = PrintMode.PIECE_SELECT;
   	        return;
     	}
@@ -161,180 +191,177 @@ public final class ChessBoardView extends GridPane {
     if (operationStatus == OperationStatus.FAIL) {
       return;
     }
-    
-    UpdateChessBoardCells();	
+    events.log(GameEvent.move(id));
 	
 	if (game.getGameState().isGameRunning()) {
 	    printMode = PrintMode.PIECE_SELECT;
 	} else {
 		printMode = PrintMode.PLAIN;
 	}
-    printCurrentChessBoardView();
-
-    if (!game.getGameState().isGameRunning()) {
-      game = null;
-    }
+    UpdateGameStatus();
   }
   
   /**
    * Handler when click Pass Button
    */
+  @Override
   public void handlePassCommand() {
     if (!isGameRunning()) {
       return;
     }
 
     game.pass();
+    events.log(GameEvent.pass());
     printMode = PrintMode.PIECE_SELECT;
-    printCurrentChessBoardView();
+    UpdateGameStatus();
   }
   
   /**
-   * Update All CellViews in the ChessBoard with Updated GameState
+   * Handler when click Undo Button
    */
-  private void UpdateChessBoardCells() {
-	this.setGridLinesVisible(false);
-	this.getChildren().clear();
-    for (int i = 0; i < numRows; ++i) {
-      for (int j = 0; j < numCols; ++j) {
-    	CellView cell;
-        Coordinate coordinate = Coordinate.of(i, j);
-        ChessPiece piece = game.getGameState().getChessBoard().GetCurrentBoard()[i][j];
-        cell = new CellView(coordinate);
-        cell.addPiece(piece);
-        board[coordinate.getRow()][coordinate.getColumn()] = cell;
-        cell.setMinSize(90,90);
-		  cell.setOnMouseClicked(mouseEvent -> {
-			  CellView clickedCell = (CellView) mouseEvent.getSource();
-			  System.out.print(""+ clickedCell.coordinate.getRow() + ":" + clickedCell.coordinate.getColumn()+"\n");
+  @Override
+  public void handleUndoCommand() {
+    // also allowed after the game ended, which makes it running again
+    if (game.undo() == OperationStatus.FAIL) {
+      return;
+    }
+    events.log(GameEvent.undo());
+    printMode = PrintMode.PIECE_SELECT;
+    UpdateGameStatus();
+  }
+
+  /**
+   * Handler when click Redo Button
+   */
+  @Override
+  public void handleRedoCommand() {
+    if (game.redo() == OperationStatus.FAIL) {
+      return;
+    }
+    events.log(GameEvent.redo());
 
-			  if(printMode == PrintMode.PIECE_SELECT) {
-				  handleSelectCommand(clickedCell);
-			  }else if(printMode == PrintMode.MOVE_SELECT) {
-				  handleMoveCommand(clickedCell);
-			  }else {
+    if (game.getGameState().isGameRunning()) {
+      printMode = PrintMode.PIECE_SELECT;
+    } else {
+      printMode = PrintMode.PLAIN;
+    }
+    UpdateGameStatus();
+  }
 
-			  }
-			  printCurrentChessBoardView();
-		  });
-        this.add(cell, j, i);
+  @Override
+  public void handleComputerMove(int packedMove) {
+    if (!isGameRunning()) {
+      return;
+    }
+
+    final int recordedMove = RecordedMove.fromPackedMove(game.getGameState(), packedMove);
+    if (RecordedMove.isPass(recordedMove)) {
+      handlePassCommand();
+      return;
+    }
+    final int id = RecordedMove.getPieceId(recordedMove);
+    if (game.selectPieceById(id) != OperationStatus.SUCCESS) {
+      return;
+    }
+    events.log(GameEvent.select(id));
+    final int moveIndex = RecordedMove.getMoveIndex(recordedMove);
+    if (game.move(moveIndex) == OperationStatus.FAIL) {
+      return;
+    }
+    events.log(GameEvent.move(moveIndex));
+
+    if (game.getGameState().isGameRunning()) {
+      printMode = PrintMode.PIECE_SELECT;
+    } else {
+      printMode = PrintMode.PLAIN;
+    }
+    UpdateGameStatus();
+  }
+
+  @Override
+  public void setShowHints(boolean showHints) {
+    if (showHints == (hints != null)) {
+      return;
+    }
+    if (showHints) {
+      hints = new MoveHints();
+      if (isGameRunning()) {
+        UpdateHints(game.getGameState().getSelectedPiece());
       }
+    } else {
+      hints.shutdown();
+      hints = null;
+      UpdateHints(ChessPiece.NONE);
     }
-    
-    this.setGridLinesVisible(true);
   }
-  
+
   /**
-   * Refresh CellView Button with Original Color
+   * Remove the hints and evaluate the moves of the selected piece, if hints are shown
    */
-  private void RefreshPossibleCells() {
-	  
-    for (int i = 0; i < numRows; ++i) {
-        for (int j = 0; j < numCols; ++j) {
-          board[i][j].resetColor();
-      }
+  private void UpdateHints(ChessPiece selectedPiece) {
+    for (CellView cell : hintedCells) {
+      cell.setHint(null);
     }
-    
-  } 
+    hintedCells.clear();
+    if (hints == null) {
+      return;
+    }
+    if (selectedPiece.isNone()) {
+      hints.cancel();
+      return;
+    }
+    hints.evaluate(game.getGameState(), selectedPiece, (coordinate, hint) -> {
+      final CellView cell = board[coordinate.getRow()][coordinate.getColumn()];
+      cell.setHint(hint);
+      hintedCells.add(cell);
+    });
+  }
+
   /**
-   * print Current ChessBoard View
+   * Update the CellViews of the given squares with the pieces of the current GameState
    */
-  private void printCurrentChessBoardView() {
-
-	    if(game==null) return;
-	    final GameState gameState = game.getGameState();
-	    final GameState.GameStatus gameStatus = gameState.getStatus();
-	    final ChessBoard ChessBoardView = gameState.getChessBoard();
+  private void UpdateChessBoardCells(List<Coordinate> coordinates) {
+    final ChessBoardSnapshot chessBoard = game.getGameState().getChessBoardSnapshot();
+    for (Coordinate coordinate : coordinates) {
+      final CellView cell = board[coordinate.getRow()][coordinate.getColumn()];
+      cell.addPiece(chessBoard.getPieceAt(coordinate));
+    }
+  }
 
-	    final int numRows = ChessBoardView.getNumRows();
-	    final int numColumns = ChessBoardView.getNumColumns();
+  /**
+   * Highlight the CellView of the selected piece and reset the previously highlighted one
+   */
+  private void UpdateSelectedCell(ChessPiece selectedPiece) {
+    if (selectedCell != null) {
+      selectedCell.resetColor();
+      selectedCell = null;
+    }
+    if (!selectedPiece.isNone()) {
+      final Coordinate coordinate = selectedPiece.getCoordinate();
+      selectedCell = board[coordinate.getRow()][coordinate.getColumn()];
+      selectedCell.selectedCellColor();
+    }
+  }
 
-	    // print column index (1~8)
-	    StringBuilder line = new StringBuilder("  ");
-	    for (int colNum = 0; colNum < numColumns; ++colNum) {
-	      line.append(" ").append(colNum + COLUMN_DISPLAY_OFFSET);
-	    }
-	    System.out.println(line);
+  /**
+   * Show the winner when the game ended. The moves are written to the event log by the handlers.
+   */
+  private void UpdateGameStatus() {
 
-	    // print each row with row index (A~Z)
-	    for (int rowNum = 0; rowNum < numRows; ++rowNum) {
-	      line = new StringBuilder(" ");
-	      line.append((char) (rowNum + ROW_START_CHAR));
-	      for (int colNum = 0; colNum < numColumns; ++colNum) {
-	        Coordinate coord = Coordinate.of(rowNum, colNum);
-	        line.append(" ");
-	        line.append(chessPieceToString(coord, gameState));
-	      }
-	      System.out.println(line);
-	    }
+	    final GameState.GameStatus gameStatus = game.getGameState().getStatus();
 
-	    if (gameStatus == GameState.GameStatus.ONGOING) {
-	      System.out.println("Current round: " + gameState.getCurrentRound());
-	    } else if (gameStatus == GameState.GameStatus.WHITE_WON) {
+	    if (gameStatus == GameState.GameStatus.WHITE_WON) {
 //	    	mainpane.winStage.hide();
 	    	GameOver pane = new GameOver("WHITE", mainpane.winStage);
 	    	pane.Show();
-	      System.out.println("Player WHITE wins!");
 	    } else if (gameStatus == GameState.GameStatus.BLACK_WON) {
-	    	mainpane.winStage.hide();
 	    	GameOver pane = new GameOver("BLACK", mainpane.winStage);
 	    	pane.Show();
-	      System.out.println("Player BLACK wins!");
-	    } else { // gameStatus == GameStatus.DRAW
-	      System.out.println("No possible move left. Draw!");
-	    }
-
-	    if (printMode == PrintMode.PIECE_SELECT) {
-	      System.out.println(SELECT_PIECE_MESSAGE);
-	    } else if (printMode == PrintMode.MOVE_SELECT) {
-	      System.out.println(SELECT_MOVE_MESSAGE);
 	    }
 	    mainpane.lblPlayer.setText("Current Player : " + game.getGameState().getCurrentRound());
 	  }
 
-	  private String pieceColorToString(ChessPiece.Color color) {
-	    return (color == ChessPiece.Color.WHITE) ? "W" : "B";
-	  }
-
-	  private String chessPieceToString(Coordinate coord, GameState gameState) {
-	    ChessPiece piece = gameState.getChessBoard().getPieceAt(coord);
-	    if (printMode == PrintMode.PIECE_SELECT) {
-	      if (piece.isNone()) {
-	        return ".";
-	      } else if (piece.getColor() == gameState.getCurrentRound()) {
-	        if (piece.hasPossibleMoves()) {
-	          return String.valueOf(piece.getId());
-	        } else {
-	          return pieceColorToString(piece.getColor());
-	        }
-	      } else { // piece.getColor() == currentRound
-	        return pieceColorToString(piece.getColor());
-	      }
-	    } else if (printMode == PrintMode.MOVE_SELECT) {
-	      if (piece.equals(gameState.getSelectedPiece())) {
-	        return "*";
-	      } else if (gameState.getSelectedPiece().getPossibleMoveCoordinates().contains(coord)) {
-	        final int i = gameState.getSelectedPiece().getPossibleMoveCoordinates().indexOf(coord);
-	        return String.valueOf(i);
-	      } else if (!piece.isNone()) {
-	        return pieceColorToString(piece.getColor());
-	      } else {
-	        return ".";
-	      }
-	    } else {
-	      if (piece.isNone()) {
-	        return ".";
-	      } else {
-	        return pieceColorToString(piece.getColor());
-	      }
-	    }
-	  }
-
-	  private void displayError(String message) {
-	    System.out.println("Error! " + message);
-	  }
-
 	  private boolean isGameRunning() {
-	    return game != null;
+	    return game.getGameState().isGameRunning();
 	  }
 }
@@ -5,7 +5,13 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import javafx.stage.*;
+import bauernschach.log.GameEvent;
+import bauernschach.log.GameEventLog;
 import bauernschach.model.Bauernschach;
+import bauernschach.model.GameListener;
+import bauernschach.model.GameState;
+import bauernschach.model.board.ChessPiece;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.*;
@@ -18,8 +24,21 @@ public class ChessPane {
     public Stage winStage;
     private Scene scene;
     private Bauernschach game;
+    private final int numRows;
+    private final int numCols;
+    // plays BLACK against the human, or null if two humans play
+    private final ComputerPlayer computer;
+    private BoardView chessboard;
+    private Region boardNode;
+    private ProgressIndicator piThinking;
+    private Button btnMoveNow;
+    private Button btnPassGame;
+    private Button btnUndo;
+    private Button btnRedo;
 	/** lblPlayer Label to show current status*/
     public Label lblPlayer;
+	/** eventLog Log of the game events */
+    public final GameEventLog eventLog = Main.getEventLog();
     
     /**
      * Contructs a ChessPane.
@@ -27,10 +46,59 @@ public class ChessPane {
      * @param winStage Stage of ChessPane
      */
 	public ChessPane(Stage winStage) {
-		game = new Bauernschach();
+		this(winStage, 8, 8);
+	}
+
+    /**
+     * Contructs a ChessPane with the given board dimensions. Boards larger than 8x8 are drawn by a
+     * {@link CanvasBoardView} that can zoom and pan.
+     *
+     * @param winStage Stage of ChessPane
+     * @param numRows the number of rows of the chess board
+     * @param numCols the number of columns of the chess board
+     */
+	public ChessPane(Stage winStage, int numRows, int numCols) {
+		this(winStage, numRows, numCols, false);
+	}
+
+    /**
+     * Contructs a ChessPane. Against the computer, the human plays WHITE and the computer thinks
+     * on a background thread while the window stays responsive.
+     *
+     * @param winStage Stage of ChessPane
+     * @param numRows the number of rows of the chess board
+     * @param numCols the number of columns of the chess board
+     * @param againstComputer whether the computer plays BLACK
+     */
+	public ChessPane(Stage winStage, int numRows, int numCols, boolean againstComputer) {
+		game = new Bauernschach(numRows, numCols);
+		this.numRows = numRows;
+		this.numCols = numCols;
 		this.winStage = winStage;
+		computer = againstComputer ? new ComputerPlayer(ChessPiece.Color.BLACK) : null;
+		eventLog.log(GameEvent.newGame(numRows, numCols));
 		Initialize();
-		winStage.setOnCloseRequest( event -> {System.out.println("Closing Stage");} );
+		this.winStage.setOnCloseRequest( event -> {
+			chessboard.setShowHints(false);
+			if(computer != null) {
+				computer.shutdown();
+			}
+		});
+		if(computer != null) {
+			// start thinking after the human's move has been handled completely
+			game.addListener(new GameListener() {
+				@Override
+				public void currentRoundChanged(ChessPiece.Color currentRound) {
+					Platform.runLater(ChessPane.this::UpdateComputerPlayer);
+				}
+
+				@Override
+				public void statusChanged(GameState.GameStatus status) {
+					Platform.runLater(ChessPane.this::UpdateComputerPlayer);
+				}
+			});
+			Platform.runLater(this::UpdateComputerPlayer);
+		}
 	}
 	
 	/** initialize GUI with hBox and vBox, Button, Label */
@@ -53,10 +121,18 @@ public class ChessPane {
 	    lblPlayer.setFont(Font.font("Verdana", FontWeight.NORMAL, 12));
 	    
 	    Label lblSpace = new Label("");
-	    lblSpace.setMinHeight(550);
+	    lblSpace.setMinHeight(computer == null ? 410 : 300);
 	    
-	    ChessBoardView chessboard = new ChessBoardView(8,8,game, this);
-	    Button btnPassGame = new Button("Pass");
+	    if(numRows > 8 || numCols > 8) {
+	    	CanvasBoardView canvasBoard = new CanvasBoardView(game, this);
+	    	chessboard = canvasBoard;
+	    	boardNode = canvasBoard;
+	    } else {
+	    	ChessBoardView gridBoard = new ChessBoardView(numRows, numCols, game, this);
+	    	chessboard = gridBoard;
+	    	boardNode = gridBoard;
+	    }
+	    btnPassGame = new Button("Pass");
 	    btnPassGame.setFont(Font.font("Verdana", FontWeight.BOLD, 16));
 	    btnPassGame.setMinWidth(140);
 	    btnPassGame.setMinHeight(30);
@@ -64,16 +140,63 @@ public class ChessPane {
 	    btnPassGame.setOnAction((event)->{
 	    	chessboard.handlePassCommand();
 	    });
+	    btnUndo = new Button("Undo");
+	    btnUndo.setFont(Font.font("Verdana", FontWeight.BOLD, 16));
+	    btnUndo.setMinWidth(140);
+	    btnUndo.setMinHeight(30);
+	    btnUndo.setCursor(Cursor.HAND);
+	    btnUndo.setOnAction((event)->{
+	    	chessboard.handleUndoCommand();
+	    	// take back the computer's move together with the human's
+	    	if(isComputerOnTurn() && game.canUndo()) {
+	    		chessboard.handleUndoCommand();
+	    	}
+	    });
+	    btnRedo = new Button("Redo");
+	    btnRedo.setFont(Font.font("Verdana", FontWeight.BOLD, 16));
+	    btnRedo.setMinWidth(140);
+	    btnRedo.setMinHeight(30);
+	    btnRedo.setCursor(Cursor.HAND);
+	    btnRedo.setOnAction((event)->{
+	    	chessboard.handleRedoCommand();
+	    	if(isComputerOnTurn() && game.canRedo()) {
+	    		chessboard.handleRedoCommand();
+	    	}
+	    });
 	        
 	    vBox.getChildren().add(txtTitle);
 	    vBox.getChildren().add(lblPlayer);
 	    vBox.getChildren().add(lblSpace);
 	    vBox.getChildren().add(btnPassGame);
+	    vBox.getChildren().add(btnUndo);
+	    vBox.getChildren().add(btnRedo);
+	    CheckBox chkHints = new CheckBox("Show move hints");
+	    chkHints.setFont(Font.font("Verdana", FontWeight.NORMAL, 12));
+	    chkHints.setOnAction((event)->{
+	    	chessboard.setShowHints(chkHints.isSelected());
+	    });
+	    vBox.getChildren().add(chkHints);
+	    if(computer != null) {
+	    	piThinking = new ProgressIndicator();
+	    	piThinking.setMaxSize(40, 40);
+	    	piThinking.setVisible(false);
+	    	btnMoveNow = new Button("Move now");
+	    	btnMoveNow.setFont(Font.font("Verdana", FontWeight.BOLD, 16));
+	    	btnMoveNow.setMinWidth(140);
+	    	btnMoveNow.setMinHeight(30);
+	    	btnMoveNow.setCursor(Cursor.HAND);
+	    	btnMoveNow.setDisable(true);
+	    	btnMoveNow.setOnAction((event)->{
+	    		computer.moveNow();
+	    	});
+	    	vBox.getChildren().add(piThinking);
+	    	vBox.getChildren().add(btnMoveNow);
+	    }
 	    vBox.setAlignment(Pos.TOP_CENTER);
 	    vBox.setSpacing(20);
 	    
 
-		hBox.getChildren().add(chessboard);
+		hBox.getChildren().add(boardNode);
 		hBox.getChildren().add(vBox);
 		
         scene = new Scene(hBox, 970, 722);
@@ -84,6 +207,35 @@ public class ChessPane {
         winStage.setScene(scene);
 	}
 	
+	/** Let the computer think if it is on turn, and play its move when it is done */
+	private void UpdateComputerPlayer() {
+		if(!isComputerOnTurn() || computer.isThinking()) {
+			return;
+		}
+		computer.startThinking(game.getGameState(), move -> {
+			SetThinking(false);
+			chessboard.handleComputerMove(move);
+		});
+		SetThinking(true);
+	}
+
+	/** Block the input of the human while the computer thinks */
+	private void SetThinking(boolean thinking) {
+		piThinking.setVisible(thinking);
+		btnMoveNow.setDisable(!thinking);
+		boardNode.setMouseTransparent(thinking);
+		btnPassGame.setDisable(thinking);
+		btnUndo.setDisable(thinking);
+		btnRedo.setDisable(thinking);
+	}
+
+	private boolean isComputerOnTurn() {
+		final GameState gameState = game.getGameState();
+		return computer != null
+				&& gameState.isGameRunning()
+				&& gameState.getCurrentRound() == computer.getColor();
+	}
+
 	/** show chess pane */
 	public void ShowChessPane() {
         winStage.showAndWait();
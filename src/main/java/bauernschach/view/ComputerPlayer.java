@@ -0,0 +1,131 @@
+package bauernschach.view;
+
+import bauernschach.engine.AlphaBetaSearcher;
+import bauernschach.engine.SearchLimits;
+import bauernschach.engine.SearchPosition;
+import bauernschach.engine.SearchResult;
+import bauernschach.engine.TranspositionTable;
+import bauernschach.model.GameState;
+import bauernschach.model.board.ChessPiece;
+import bauernschach.model.board.PackedMove;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import javafx.concurrent.Task;
+
+/**
+ * The computer player of a {@link ChessPane}. It searches its moves with the {@link
+ * AlphaBetaSearcher} on a background thread, so that the JavaFX application thread stays
+ * responsive however long the search takes, and hands the result back on the application thread.
+ * All methods must be called on the JavaFX application thread.
+ */
+final class ComputerPlayer {
+  // the search deepens until this time is up or the player is told to move now
+  private static final SearchLimits LIMITS = SearchLimits.ofTimeMillis(10_000);
+
+  private final ChessPiece.Color color;
+  // kept across moves; every search has its own searcher, so that a stop request reaches
+  // exactly the search it was meant for
+  private final TranspositionTable table =
+      new TranspositionTable(AlphaBetaSearcher.DEFAULT_TABLE_SIZE_MB);
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            final Thread thread = new Thread(runnable, "bauernschach-computer");
+            thread.setDaemon(true);
+            return thread;
+          });
+  // the running search and its searcher, or null
+  private Task<SearchResult> task;
+  private AlphaBetaSearcher searcher;
+
+  /**
+   * Constructs a computer player.
+   *
+   * @param color the color the computer plays
+   */
+  ComputerPlayer(ChessPiece.Color color) {
+    this.color = color;
+  }
+
+  /**
+   * Returns the color the computer plays.
+   *
+   * @return the color
+   */
+  ChessPiece.Color getColor() {
+    return color;
+  }
+
+  /**
+   * Returns whether a search is running.
+   *
+   * @return true while the computer thinks
+   */
+  boolean isThinking() {
+    return task != null;
+  }
+
+  /**
+   * Starts searching a move in the given game state, which is copied first, so the game may change
+   * while the search runs. Does nothing if a search is already running.
+   *
+   * @param gameState a running game state in which the computer is on turn
+   * @param onMove called on the application thread with the chosen {@link PackedMove packed
+   *     move} unless the search is cancelled, or with {@link PackedMove#PASS} if the search failed
+   */
+  void startThinking(GameState gameState, IntConsumer onMove) {
+    if (task != null) {
+      return;
+    }
+    final SearchPosition position = SearchPosition.of(gameState);
+    final AlphaBetaSearcher taskSearcher = new AlphaBetaSearcher(table);
+    final Task<SearchResult> search =
+        new Task<>() {
+          @Override
+          protected SearchResult call() {
+            // a cancelled search is not needed at all, not even its first iteration
+            return isCancelled() ? null : taskSearcher.search(position, LIMITS);
+          }
+        };
+    search.setOnSucceeded(
+        event -> {
+          task = null;
+          searcher = null;
+          onMove.accept(search.getValue().getBestMove());
+        });
+    search.setOnFailed(
+        event -> {
+          task = null;
+          searcher = null;
+          System.err.println("Computer move failed: " + search.getException());
+          onMove.accept(PackedMove.PASS);
+        });
+    task = search;
+    searcher = taskSearcher;
+    executor.execute(search);
+  }
+
+  /** Stops the running search; the best move found so far is played. */
+  void moveNow() {
+    if (task != null) {
+      searcher.stop();
+    }
+  }
+
+  /** Stops the running search without playing its move. */
+  void cancel() {
+    if (task != null) {
+      task.cancel(false);
+      searcher.stop();
+      task = null;
+      searcher = null;
+    }
+  }
+
+  /** Cancels the running search and ends the background thread. */
+  void shutdown() {
+    cancel();
+    executor.shutdown();
+  }
+}
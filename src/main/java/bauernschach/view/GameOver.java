@@ -76,7 +76,6 @@ public class GameOver {
 		winStage.initModality(Modality.APPLICATION_MODAL);
         winStage.setTitle("Pawn Chess");
         winStage.setScene(scene);
-		winStage.setOnCloseRequest( event -> {System.out.println("Closing Stage");} );
 	}
 	/** Show GUI of GameOver Dialog */
 	public void Show() {
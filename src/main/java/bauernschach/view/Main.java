@@ -1,11 +1,14 @@
 package bauernschach.view;
 
+import bauernschach.log.GameEventLog;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Cursor;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
@@ -16,6 +19,9 @@ import javafx.stage.Stage;
 /** Main GUI class. */
 public class Main extends Application {
 
+  // events of all games, configured by the --log=off|console|file:<path> parameter
+  private static GameEventLog eventLog = GameEventLog.off();
+
   /**
    * Launches the pawnchess GUI.
    *
@@ -28,6 +34,25 @@ public class Main extends Application {
   /** Creates a new instance of this class. */
   public Main() {}
 
+  /**
+   * Returns the log that the game events of the GUI are written to.
+   *
+   * @return the event log
+   */
+  static GameEventLog getEventLog() {
+    return eventLog;
+  }
+
+  @Override
+  public void init() throws Exception {
+    eventLog = GameEventLog.open(getParameters().getNamed().getOrDefault("log", "console"));
+  }
+
+  @Override
+  public void stop() {
+    eventLog.close();
+  }
+
   @Override
   public void start(Stage primaryStage) {
     primaryStage.setTitle("Bauernschach");
@@ -40,9 +65,24 @@ public class Main extends Application {
     btnStartGame.setMinWidth(180);
     btnStartGame.setMinHeight(40);
     btnStartGame.setCursor(Cursor.HAND);
+
+    // boards larger than 8x8 are drawn on a canvas that can zoom and pan
+    ComboBox<String> cbBoardSize = new ComboBox<>();
+    cbBoardSize.getItems().addAll("8x8", "16x16", "26x26", "26x64");
+    cbBoardSize.setValue("8x8");
+    cbBoardSize.setMinWidth(180);
+
+    CheckBox chkComputer = new CheckBox("Play against the computer");
+
     btnStartGame.setOnAction((event)->{
     	primaryStage.hide();
-    	ChessPane pane = new ChessPane(primaryStage);
+    	String[] size = cbBoardSize.getValue().split("x");
+    	ChessPane pane =
+    	    new ChessPane(
+    	        primaryStage,
+    	        Integer.parseInt(size[0]),
+    	        Integer.parseInt(size[1]),
+    	        chkComputer.isSelected());
     	pane.ShowChessPane();
     });
     
@@ -56,9 +96,11 @@ public class Main extends Application {
     
     VBox vBox = new VBox();
     vBox.getChildren().add(txtTitle);
+    vBox.getChildren().add(cbBoardSize);
+    vBox.getChildren().add(chkComputer);
     vBox.getChildren().add(btnStartGame);
     vBox.setAlignment(Pos.CENTER);
-    vBox.setSpacing(150);
+    vBox.setSpacing(30);
     
     Scene scene = new Scene(vBox);
     primaryStage.setWidth(500);
@@ -0,0 +1,149 @@
+package bauernschach.view;
+
+import bauernschach.engine.AlphaBetaSearcher;
+import bauernschach.engine.Evaluation;
+import bauernschach.engine.SearchLimits;
+import bauernschach.engine.SearchPosition;
+import bauernschach.engine.TranspositionTable;
+import bauernschach.model.GameState;
+import bauernschach.model.board.ChessPiece;
+import bauernschach.model.board.Coordinate;
+import bauernschach.model.board.CoordinateTable;
+import bauernschach.model.board.MoveBuffer;
+import bauernschach.model.board.PackedMove;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import javafx.application.Platform;
+
+/**
+ * Evaluates the possible moves of a selected piece for the hint overlay of the board views. Every
+ * move is searched as its own task on a pool of worker threads, and each score is handed to the
+ * application thread as soon as its search is done, so hints appear one by one instead of after
+ * the slowest move. Selecting another piece cancels the searches of the previous one. All methods
+ * must be called on the JavaFX application thread.
+ */
+final class MoveHints {
+  // short searches, so that hints appear while the player still thinks about the move
+  private static final SearchLimits LIMITS = SearchLimits.ofDepth(6).withMaxTimeMillis(1_000);
+  private static final int TABLE_SIZE_MB = 16;
+
+  private final ExecutorService executor;
+  // shared by all searches, which also share what they found about common positions
+  private final TranspositionTable table = new TranspositionTable(TABLE_SIZE_MB);
+  // increased by every evaluation and cancellation; results of older ones are dropped
+  private final AtomicInteger generation = new AtomicInteger();
+  private final List<Future<?>> running = new ArrayList<>();
+  private final List<AlphaBetaSearcher> searchers = new ArrayList<>();
+
+  /** Constructs the hints with one worker thread per available processor. */
+  MoveHints() {
+    final AtomicInteger numThreads = new AtomicInteger();
+    executor =
+        Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            runnable -> {
+              final Thread thread =
+                  new Thread(runnable, "bauernschach-hints-" + numThreads.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Starts evaluating the possible moves of the given piece, after cancelling the running
+   * evaluation.
+   *
+   * @param gameState the running game state, which is copied first
+   * @param piece the selected piece of the player on turn
+   * @param onHint called on the application thread with the target square and the hint text of
+   *     each move, in the order the searches finish
+   */
+  void evaluate(GameState gameState, ChessPiece piece, BiConsumer<Coordinate, String> onHint) {
+    cancel();
+    final int currentGeneration = generation.get();
+    final SearchPosition position = SearchPosition.of(gameState);
+    final CoordinateTable coordinates = gameState.getChessBoardSnapshot().getCoordinateTable();
+    final int fromSquare = coordinates.getSquare(piece.getCoordinate());
+    final MoveBuffer moves = new MoveBuffer();
+    position.generateMoves(moves);
+
+    for (int i = 0; i < moves.size(); ++i) {
+      final int move = moves.get(i);
+      if (PackedMove.getFromSquare(move) != fromSquare) {
+        continue;
+      }
+      final Coordinate target = coordinates.getCoordinate(PackedMove.getToSquare(move));
+      final SearchPosition movePosition = position.copyOf();
+      final AlphaBetaSearcher searcher = new AlphaBetaSearcher(table);
+      searchers.add(searcher);
+      running.add(
+          executor.submit(
+              () -> {
+                if (generation.get() != currentGeneration) {
+                  return;
+                }
+                final String hint = formatScore(evaluateMove(movePosition, move, searcher));
+                Platform.runLater(
+                    () -> {
+                      if (generation.get() == currentGeneration) {
+                        onHint.accept(target, hint);
+                      }
+                    });
+              }));
+    }
+  }
+
+  /** Cancels the running evaluation; none of its remaining hints are reported. */
+  void cancel() {
+    generation.incrementAndGet();
+    for (AlphaBetaSearcher searcher : searchers) {
+      searcher.stop();
+    }
+    for (Future<?> future : running) {
+      future.cancel(false);
+    }
+    searchers.clear();
+    running.clear();
+  }
+
+  /** Cancels the running evaluation and ends the worker threads. */
+  void shutdown() {
+    cancel();
+    executor.shutdown();
+  }
+
+  /** Returns the score of the given move from the view of the player who makes it. */
+  private static int evaluateMove(SearchPosition position, int move, AlphaBetaSearcher searcher) {
+    final ChessPiece.Color mover = position.getSideToMove();
+    position.play(move);
+    switch (position.getStatus()) {
+      case ONGOING:
+        return -searcher.search(position, LIMITS).getScore();
+      case DRAW:
+        return Evaluation.DRAW;
+      case WHITE_WON:
+        return (mover == ChessPiece.Color.WHITE) ? Evaluation.WIN : -Evaluation.WIN;
+      default:
+        return (mover == ChessPiece.Color.BLACK) ? Evaluation.WIN : -Evaluation.WIN;
+    }
+  }
+
+  /**
+   * Formats a score for the overlay: forced results as {@code WIN} or {@code LOSS}, all other
+   * scores in pawns with a sign, e.g. {@code +1.2}.
+   */
+  static String formatScore(int score) {
+    if (score > Evaluation.WIN_THRESHOLD) {
+      return "WIN";
+    } else if (score < -Evaluation.WIN_THRESHOLD) {
+      return "LOSS";
+    }
+    return String.format(Locale.ROOT, "%+.1f", score / 100.0);
+  }
+}
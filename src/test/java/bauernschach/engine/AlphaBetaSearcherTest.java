@@ -0,0 +1,76 @@
+package bauernschach.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.board.MoveBuffer;
+import bauernschach.model.board.PackedMove;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/** Tests the {@link AlphaBetaSearcher} against the exact results of a {@link Tablebase}. */
+class AlphaBetaSearcherTest {
+  private static final int NUM_GAMES = 40;
+
+  @ParameterizedTest
+  @CsvSource({"4, 3", "4, 4", "5, 3"})
+  void forcedResultsAgreeWithTablebase(int numRows, int numCols) throws IOException {
+    final Path file = Files.createTempFile("bauernschach-tablebase", ".bin");
+    try {
+      Tablebase.generate(numRows, numCols, file);
+      final Tablebase tablebase = Tablebase.open(file);
+      final AlphaBetaSearcher searcher = new AlphaBetaSearcher(new TranspositionTable(1));
+      final Random random = new Random(31L * numRows + numCols);
+      for (int game = 0; game < NUM_GAMES; ++game) {
+        final Bauernschach bauernschach = new Bauernschach(numRows, numCols);
+        while (bauernschach.getGameState().isGameRunning()) {
+          final SearchPosition position = SearchPosition.of(bauernschach.getGameState());
+          final SearchResult result = searcher.search(position, SearchLimits.ofDepth(10));
+          assertAgrees(tablebase.probe(position), result);
+          GameMoves.play(bauernschach, randomMove(position, random));
+        }
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void stopBeforeSearchIsNotLost() {
+    final Bauernschach game = new Bauernschach();
+    final AlphaBetaSearcher searcher = new AlphaBetaSearcher();
+    searcher.stop();
+    final SearchResult stopped = searcher.bestMove(game.getGameState(), SearchLimits.ofDepth(30));
+    assertTrue(stopped.getDepth() < 30);
+    assertFalse(PackedMove.isPass(stopped.getBestMove()));
+
+    // the request was used up by the stopped search
+    assertEquals(4, searcher.bestMove(game.getGameState(), SearchLimits.ofDepth(4)).getDepth());
+  }
+
+  /**
+   * Checks that a forced result of the search is also a forced result of the same sign in the
+   * tablebase. The search may miss forced results beyond its depth, but must never find wrong ones.
+   */
+  private static void assertAgrees(int entry, SearchResult result) {
+    if (Math.abs(result.getScore()) <= Evaluation.WIN_THRESHOLD || entry == Tablebase.NOT_FOUND) {
+      return;
+    }
+    final Tablebase.Outcome expected =
+        (result.getScore() > 0) ? Tablebase.Outcome.WIN : Tablebase.Outcome.LOSS;
+    assertEquals(expected, Tablebase.getOutcome(entry));
+  }
+
+  private static int randomMove(SearchPosition position, Random random) {
+    final MoveBuffer moves = new MoveBuffer();
+    position.generateMoves(moves);
+    return (moves.size() == 0) ? PackedMove.PASS : moves.get(random.nextInt(moves.size()));
+  }
+}
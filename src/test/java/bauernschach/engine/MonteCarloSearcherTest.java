@@ -0,0 +1,114 @@
+package bauernschach.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.board.MoveBuffer;
+import bauernschach.model.board.PackedMove;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/** Tests the {@link MonteCarloSearcher} against the exact results of a {@link Tablebase}. */
+class MonteCarloSearcherTest {
+  private static final int NUM_GAMES = 40;
+  private static final long NUM_PLAYOUTS = 20_000;
+
+  /**
+   * Searches drawn positions where a pass would leave the opponent without a piece move that does
+   * not lose. The opponent can pass back, so the search must not rate passing as a near-certain
+   * win.
+   */
+  @ParameterizedTest
+  @CsvSource({"4, 3", "4, 4"})
+  void passIntoZugzwangIsNoWin(int numRows, int numCols) throws IOException {
+    final Path file = Files.createTempFile("bauernschach-tablebase", ".bin");
+    try {
+      Tablebase.generate(numRows, numCols, file);
+      final Tablebase tablebase = Tablebase.open(file);
+      final Random random = new Random(31L * numRows + numCols);
+      int numSearched = 0;
+      for (int game = 0; game < NUM_GAMES; ++game) {
+        final Bauernschach bauernschach = new Bauernschach(numRows, numCols);
+        while (bauernschach.getGameState().isGameRunning()) {
+          final SearchPosition position = SearchPosition.of(bauernschach.getGameState());
+          final int entry = tablebase.probe(position);
+          if (entry != Tablebase.NOT_FOUND
+              && Tablebase.getOutcome(entry) == Tablebase.Outcome.DRAW
+              && passLeavesOpponentLost(tablebase, position)) {
+            final MonteCarloResult result =
+                new MonteCarloSearcher(1, MonteCarloSearcher.DEFAULT_EXPLORATION)
+                    .bestMove(bauernschach.getGameState(), SearchLimits.ofNodes(NUM_PLAYOUTS));
+            assertTrue(result.getWinRate() < 0.9, result.toString());
+            ++numSearched;
+          }
+          GameMoves.play(bauernschach, randomMove(position, random));
+        }
+      }
+      assertTrue(numSearched > 0);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void stopBeforeSearchIsNotLost() {
+    final Bauernschach game = new Bauernschach();
+    final MonteCarloSearcher searcher = new MonteCarloSearcher();
+    searcher.stop();
+    final MonteCarloResult stopped =
+        searcher.bestMove(game.getGameState(), SearchLimits.ofNodes(1_000_000));
+    assertEquals(0, stopped.getPlayouts());
+
+    // the request was used up by the stopped search
+    searcher.clearTree();
+    final MonteCarloResult result =
+        searcher.bestMove(game.getGameState(), SearchLimits.ofNodes(100));
+    assertTrue(result.getPlayouts() >= 100);
+  }
+
+  /** Returns whether every piece move of the opponent loses after the player to move passes. */
+  private static boolean passLeavesOpponentLost(Tablebase tablebase, SearchPosition position) {
+    final SearchPosition afterPass = position.copyOf();
+    afterPass.play(PackedMove.PASS);
+    if (afterPass.getSideToMove() == position.getSideToMove()) {
+      return false;
+    }
+    final MoveBuffer moves = new MoveBuffer();
+    afterPass.generateMoves(moves);
+    for (int i = 0; i < moves.size(); ++i) {
+      afterPass.play(moves.get(i));
+      final boolean loses = afterPass.isGameRunning() && isWonBy(tablebase, afterPass, position);
+      afterPass.undo();
+      if (!loses) {
+        return false;
+      }
+    }
+    return moves.size() > 0;
+  }
+
+  /** Returns whether the player to move in the original position wins the current one. */
+  private static boolean isWonBy(
+      Tablebase tablebase, SearchPosition current, SearchPosition original) {
+    final int entry = tablebase.probe(current);
+    if (entry == Tablebase.NOT_FOUND) {
+      return false;
+    }
+    final Tablebase.Outcome winner =
+        (current.getSideToMove() == original.getSideToMove())
+            ? Tablebase.Outcome.WIN
+            : Tablebase.Outcome.LOSS;
+    return Tablebase.getOutcome(entry) == winner;
+  }
+
+  private static int randomMove(SearchPosition position, Random random) {
+    final MoveBuffer moves = new MoveBuffer();
+    position.generateMoves(moves);
+    return (moves.size() == 0) ? PackedMove.PASS : moves.get(random.nextInt(moves.size()));
+  }
+}
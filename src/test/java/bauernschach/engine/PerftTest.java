@@ -0,0 +1,68 @@
+package bauernschach.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.GameState;
+import bauernschach.model.board.PackedMove;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Pins the node counts of {@link Perft}. The counts were checked against a count that plays every
+ * move through the public {@link Bauernschach} API and takes it back with {@link
+ * Bauernschach#undo()}.
+ */
+class PerftTest {
+  @ParameterizedTest
+  @CsvSource({
+    "8, 8, 1, 17",
+    "8, 8, 2, 289",
+    "8, 8, 3, 4641",
+    "8, 8, 4, 74529",
+    "8, 8, 5, 1131591",
+    "3, 3, 6, 1699",
+    "4, 4, 6, 96653",
+    "5, 3, 8, 618489",
+    "6, 6, 5, 279241"
+  })
+  void countMatchesKnownNodes(int numRows, int numCols, int depth, long nodes) {
+    final GameState gameState = new Bauernschach(numRows, numCols).getGameState();
+    assertEquals(nodes, Perft.count(gameState, depth));
+    assertEquals(nodes, Perft.countParallel(gameState, depth, ForkJoinPool.commonPool()));
+  }
+
+  @Test
+  void divideMatchesKnownNodes() {
+    final GameState gameState = new Bauernschach(4, 4).getGameState();
+    final Map<Integer, Long> divide = Perft.divide(gameState, 4);
+
+    // the pawns of the first row, each with a single and a double step, and the pass last
+    final List<Integer> moves =
+        List.of(
+            PackedMove.forward(0, 4),
+            PackedMove.forward(0, 8),
+            PackedMove.forward(1, 5),
+            PackedMove.forward(1, 9),
+            PackedMove.forward(2, 6),
+            PackedMove.forward(2, 10),
+            PackedMove.forward(3, 7),
+            PackedMove.forward(3, 11),
+            PackedMove.PASS);
+    assertEquals(moves, List.copyOf(divide.keySet()));
+    assertEquals(
+        List.of(390L, 310L, 385L, 362L, 385L, 362L, 390L, 310L, 553L),
+        List.copyOf(divide.values()));
+    assertEquals(divide, Perft.divideParallel(gameState, 4, ForkJoinPool.commonPool()));
+
+    long sum = 0;
+    for (long nodes : divide.values()) {
+      sum += nodes;
+    }
+    assertEquals(Perft.count(gameState, 4), sum);
+  }
+}
@@ -0,0 +1,160 @@
+package bauernschach.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.Bauernschach.OperationStatus;
+import bauernschach.model.GameState.GameStatus;
+import bauernschach.model.board.ChessPiece.Color;
+import bauernschach.model.board.MoveBuffer;
+import bauernschach.model.board.PackedMove;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Tests that the entries of a {@link Tablebase} follow from the entries of the positions after
+ * each move, and that its best moves win or lose in the stored number of plies.
+ */
+class TablebaseTest {
+  private static final int NUM_GAMES = 40;
+
+  @ParameterizedTest
+  @CsvSource({"4, 3", "4, 4", "5, 3", "3, 5"})
+  void entriesFollowFromChildren(int numRows, int numCols) throws IOException {
+    final Path file = Files.createTempFile("bauernschach-tablebase", ".bin");
+    try {
+      Tablebase.generate(numRows, numCols, file);
+      final Tablebase tablebase = Tablebase.open(file);
+      final Random random = new Random(31L * numRows + numCols);
+      for (int game = 0; game < NUM_GAMES; ++game) {
+        final Bauernschach bauernschach = new Bauernschach(numRows, numCols);
+        final SearchPosition position = SearchPosition.of(bauernschach.getGameState());
+        while (position.isGameRunning()) {
+          assertEquals(expectedOutcome(tablebase, position), outcome(tablebase, position));
+          position.play(randomMove(position, random));
+        }
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @ParameterizedTest
+  @CsvSource({"4, 3", "4, 4", "5, 3"})
+  void bestMovesEndGameAtStoredDistance(int numRows, int numCols) throws IOException {
+    final Path file = Files.createTempFile("bauernschach-tablebase", ".bin");
+    try {
+      Tablebase.generate(numRows, numCols, file);
+      final Tablebase tablebase = Tablebase.open(file);
+      final Random random = new Random(17L * numRows + numCols);
+      int numDecided = 0;
+      for (int game = 0; game < NUM_GAMES; ++game) {
+        final Bauernschach bauernschach = new Bauernschach(numRows, numCols);
+        final List<Integer> moves = new ArrayList<>();
+        while (bauernschach.getGameState().isGameRunning()) {
+          final SearchPosition position = SearchPosition.of(bauernschach.getGameState());
+          final int entry = tablebase.probe(position);
+          if (Tablebase.getOutcome(entry) != Tablebase.Outcome.DRAW) {
+            assertBestMovesWin(tablebase, numRows, numCols, moves, entry);
+            ++numDecided;
+          }
+          final int move = randomMove(position, random);
+          assertEquals(OperationStatus.SUCCESS, GameMoves.play(bauernschach, move));
+          moves.add(move);
+        }
+      }
+      assertTrue(numDecided > 0);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Derives the outcome of a position from the entries after each move. A player wins if a piece
+   * move wins. Otherwise passing draws, since the opponent may pass back, unless the opponent has a
+   * winning move in the same placement. Then the player loses if no piece move draws either.
+   */
+  private static Tablebase.Outcome expectedOutcome(Tablebase tablebase, SearchPosition position) {
+    final Color side = position.getSideToMove();
+    final MoveBuffer moves = new MoveBuffer();
+    position.generateMoves(moves);
+    boolean canDraw = false;
+    for (int i = 0; i < moves.size(); ++i) {
+      position.play(moves.get(i));
+      final Tablebase.Outcome child = outcomeFor(tablebase, position, side);
+      position.undo();
+      if (child == Tablebase.Outcome.WIN) {
+        return Tablebase.Outcome.WIN;
+      }
+      canDraw |= child == Tablebase.Outcome.DRAW;
+    }
+
+    position.play(PackedMove.PASS);
+    final boolean opponentWins =
+        position.getSideToMove() != side && outcome(tablebase, position) == Tablebase.Outcome.WIN;
+    position.undo();
+    return (opponentWins && !canDraw) ? Tablebase.Outcome.LOSS : Tablebase.Outcome.DRAW;
+  }
+
+  /** Returns the outcome of the position for the given player, who may not be on turn. */
+  private static Tablebase.Outcome outcomeFor(
+      Tablebase tablebase, SearchPosition position, Color side) {
+    if (!position.isGameRunning()) {
+      return (position.getStatus() == GameStatus.DRAW)
+          ? Tablebase.Outcome.DRAW
+          : Tablebase.Outcome.WIN;
+    }
+    final Tablebase.Outcome outcome = outcome(tablebase, position);
+    if (position.getSideToMove() == side || outcome == Tablebase.Outcome.DRAW) {
+      return outcome;
+    }
+    return (outcome == Tablebase.Outcome.WIN) ? Tablebase.Outcome.LOSS : Tablebase.Outcome.WIN;
+  }
+
+  private static Tablebase.Outcome outcome(Tablebase tablebase, SearchPosition position) {
+    final int entry = tablebase.probe(position);
+    assertNotEquals(Tablebase.NOT_FOUND, entry);
+    return Tablebase.getOutcome(entry);
+  }
+
+  /**
+   * Replays the given moves and lets both players play the best moves of the table. The player who
+   * is on turn after the moves must win or lose as the entry says, after exactly its distance.
+   */
+  private static void assertBestMovesWin(
+      Tablebase tablebase, int numRows, int numCols, List<Integer> moves, int entry) {
+    final Bauernschach game = new Bauernschach(numRows, numCols);
+    for (int move : moves) {
+      GameMoves.play(game, move);
+    }
+    final Color side = game.getGameState().getCurrentRound();
+    int plies = 0;
+    while (game.getGameState().isGameRunning()) {
+      assertEquals(
+          OperationStatus.SUCCESS, GameMoves.play(game, tablebase.bestMove(game.getGameState())));
+      ++plies;
+    }
+    final Color winner =
+        (game.getGameState().getStatus() == GameStatus.WHITE_WON) ? Color.WHITE : Color.BLACK;
+    assertNotEquals(GameStatus.DRAW, game.getGameState().getStatus());
+    assertEquals(Tablebase.getOutcome(entry) == Tablebase.Outcome.WIN, winner == side);
+    assertEquals(Tablebase.getDistance(entry), plies);
+  }
+
+  private static int randomMove(SearchPosition position, Random random) {
+    final MoveBuffer moves = new MoveBuffer();
+    position.generateMoves(moves);
+    if (random.nextInt(8) == 0) {
+      return PackedMove.PASS;
+    }
+    return moves.get(random.nextInt(moves.size()));
+  }
+}
@@ -0,0 +1,113 @@
+package bauernschach.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.Bauernschach.OperationStatus;
+import bauernschach.model.GameState;
+import bauernschach.model.board.ChessPiece;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Tests that the events a {@link GameEventRecorder} logs replay to the game that was played. */
+class GameEventTraceTest {
+  @ParameterizedTest
+  @ValueSource(longs = {1, 2, 3, 4, 5})
+  void recordedGameReplays(long seed) {
+    final List<GameEvent> events = new ArrayList<>();
+    final GameEventLog log = GameEventLog.of(new ListSink(events), GameEventLog.DEFAULT_CAPACITY);
+    final Bauernschach game = playRecordedGame(new Random(seed), log, 4, 3);
+    log.close();
+
+    assertEquals(0, log.getDroppedEvents());
+    assertSameGame(game, GameEventTrace.replay(events));
+  }
+
+  @Test
+  void recordedGameReplaysFromFile() throws IOException {
+    final Path directory = Files.createTempDirectory("bauernschach-log");
+    final Path file = directory.resolve("events.log");
+    try {
+      final GameEventLog log =
+          GameEventLog.of(RollingFileEventSink.of(file, 512, 8), GameEventLog.DEFAULT_CAPACITY);
+      final Bauernschach game = playRecordedGame(new Random(7), log, 8, 8);
+      log.close();
+
+      assertSameGame(game, GameEventTrace.replay(GameEventTrace.read(file)));
+    } finally {
+      for (int backup = 8; backup >= 0; --backup) {
+        Files.deleteIfExists(RollingFileEventSink.backupFileOf(file, backup));
+      }
+      Files.delete(directory);
+    }
+  }
+
+  /**
+   * Plays a random game to its end like a view does, logging every operation after it succeeded,
+   * then takes back the last move, so the trace contains status changes in both directions.
+   */
+  private static Bauernschach playRecordedGame(
+      Random random, GameEventLog log, int numRows, int numCols) {
+    final Bauernschach game = new Bauernschach(numRows, numCols);
+    log.log(GameEvent.newGame(numRows, numCols));
+    final GameEventRecorder recorder = GameEventRecorder.of(game, log);
+    while (game.getGameState().isGameRunning()) {
+      final GameState gameState = game.getGameState();
+      final List<ChessPiece> movablePieces = new ArrayList<>();
+      for (ChessPiece piece :
+          gameState.getChessBoardSnapshot().getPieceListByColor(gameState.getCurrentRound())) {
+        if (piece.hasPossibleMoves()) {
+          movablePieces.add(piece);
+        }
+      }
+      if (movablePieces.isEmpty() || random.nextInt(8) == 0) {
+        assertEquals(OperationStatus.SUCCESS, game.pass());
+        recorder.log(GameEvent.pass());
+        continue;
+      }
+      final ChessPiece piece = movablePieces.get(random.nextInt(movablePieces.size()));
+      assertEquals(OperationStatus.SUCCESS, game.selectPieceById(piece.getId()));
+      recorder.log(GameEvent.select(piece.getId()));
+      final int moveIndex = random.nextInt(piece.getPossibleMoves().size());
+      assertEquals(OperationStatus.SUCCESS, game.move(moveIndex));
+      recorder.log(GameEvent.move(moveIndex));
+    }
+    assertEquals(OperationStatus.SUCCESS, game.undo());
+    recorder.log(GameEvent.undo());
+    assertEquals(OperationStatus.SUCCESS, game.redo());
+    recorder.log(GameEvent.redo());
+    return game;
+  }
+
+  private static void assertSameGame(Bauernschach expected, Bauernschach actual) {
+    assertEquals(expected.getPly(), actual.getPly());
+    assertEquals(expected.getHistoryLength(), actual.getHistoryLength());
+    assertEquals(expected.getGameState().getStatus(), actual.getGameState().getStatus());
+    assertEquals(
+        expected.getGameState().getPositionKey(), actual.getGameState().getPositionKey());
+  }
+
+  /** Collects the written events in a list. */
+  private static final class ListSink implements GameEventSink {
+    private final List<GameEvent> events;
+
+    ListSink(List<GameEvent> events) {
+      this.events = events;
+    }
+
+    @Override
+    public void write(List<GameEvent> batch) {
+      events.addAll(batch);
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,116 @@
+package bauernschach.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import bauernschach.model.Bauernschach.OperationStatus;
+import bauernschach.model.board.ChessBoardSnapshot;
+import bauernschach.model.board.ChessPiece;
+import bauernschach.model.board.Coordinate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Tests that undo and redo restore exactly the states a game went through. */
+class BauernschachTest {
+  @ParameterizedTest
+  @ValueSource(longs = {1, 2, 3, 4, 5, 6, 7, 8})
+  void undoAndRedoRestorePlayedStates(long seed) {
+    final Random random = new Random(seed);
+    final Bauernschach game = new Bauernschach(6 + random.nextInt(3), 3 + random.nextInt(6));
+    final List<String> states = new ArrayList<>();
+    states.add(describe(game.getGameState()));
+    while (game.getGameState().isGameRunning()) {
+      playRandomMove(game, random);
+      states.add(describe(game.getGameState()));
+    }
+    final int numPlies = states.size() - 1;
+    assertEquals(numPlies, game.getPly());
+    assertFalse(game.canRedo());
+
+    for (int ply = numPlies - 1; ply >= 0; --ply) {
+      assertEquals(OperationStatus.SUCCESS, game.undo());
+      assertEquals(states.get(ply), describe(game.getGameState()));
+    }
+    assertFalse(game.canUndo());
+    assertEquals(OperationStatus.FAIL, game.undo());
+
+    for (int ply = 1; ply <= numPlies; ++ply) {
+      assertEquals(OperationStatus.SUCCESS, game.redo());
+      assertEquals(states.get(ply), describe(game.getGameState()));
+    }
+    assertEquals(OperationStatus.FAIL, game.redo());
+
+    for (int jump = 0; jump < 20; ++jump) {
+      final int ply = random.nextInt(numPlies + 1);
+      assertEquals(OperationStatus.SUCCESS, game.jumpTo(ply));
+      assertEquals(states.get(ply), describe(game.getGameState()));
+    }
+  }
+
+  @Test
+  void undoContinuesEndedGame() {
+    final Bauernschach game = new Bauernschach(6, 4);
+    final Random random = new Random(42);
+    while (game.getGameState().isGameRunning()) {
+      playRandomMove(game, random);
+    }
+    final int numPlies = game.getPly();
+
+    assertEquals(OperationStatus.SUCCESS, game.undo());
+    assertTrue(game.getGameState().isGameRunning());
+    assertTrue(game.canRedo());
+
+    // playing another move discards the move that could be redone
+    playRandomMove(game, random);
+    assertEquals(numPlies, game.getPly());
+    assertEquals(numPlies, game.getHistoryLength());
+    assertFalse(game.canRedo());
+  }
+
+  /** Plays a random move of the player on turn, or passes now and then. */
+  private static void playRandomMove(Bauernschach game, Random random) {
+    final GameState gameState = game.getGameState();
+    final List<ChessPiece> movablePieces = new ArrayList<>();
+    for (ChessPiece piece :
+        gameState.getChessBoardSnapshot().getPieceListByColor(gameState.getCurrentRound())) {
+      if (piece.hasPossibleMoves()) {
+        movablePieces.add(piece);
+      }
+    }
+    if (movablePieces.isEmpty() || random.nextInt(10) == 0) {
+      assertEquals(OperationStatus.SUCCESS, game.pass());
+      return;
+    }
+    final ChessPiece piece = movablePieces.get(random.nextInt(movablePieces.size()));
+    assertEquals(OperationStatus.SUCCESS, game.selectPieceById(piece.getId()));
+    final int numMoves = piece.getPossibleMoves().size();
+    assertEquals(OperationStatus.SUCCESS, game.move(random.nextInt(numMoves)));
+  }
+
+  /** Describes the position, the player on turn and the status of the given state. */
+  private static String describe(GameState gameState) {
+    final ChessBoardSnapshot chessBoard = gameState.getChessBoardSnapshot();
+    final StringBuilder builder = new StringBuilder();
+    builder.append(gameState.getStatus()).append(' ').append(gameState.getCurrentRound());
+    builder.append(' ').append(gameState.getPositionKey()).append('\n');
+    for (int row = 0; row < chessBoard.getNumRows(); ++row) {
+      for (int column = 0; column < chessBoard.getNumColumns(); ++column) {
+        final ChessPiece piece = chessBoard.getPieceAt(Coordinate.of(row, column));
+        if (piece.isNone()) {
+          builder.append('-');
+        } else {
+          builder.append(piece.getColor()).append('#').append(piece.getId());
+          builder.append(piece.getPossibleMoveCoordinates());
+        }
+        builder.append(' ');
+      }
+      builder.append('\n');
+    }
+    return builder.toString();
+  }
+}
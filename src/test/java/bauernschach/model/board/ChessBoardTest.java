@@ -0,0 +1,181 @@
+package bauernschach.model.board;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import bauernschach.model.board.ChessPiece.Color;
+import java.util.Random;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Tests that {@link ChessBoard#makeMove(int)} and {@link ChessBoard#unmakeMove()} keep the board
+ * in the same state as copying it with {@link ChessBoard#copyOf()}, which recomputes everything,
+ * and that they keep the Zobrist key up to date.
+ */
+class ChessBoardTest {
+  @ParameterizedTest
+  @CsvSource({"4, 4, 5", "5, 5, 5", "6, 3, 7", "8, 8, 4"})
+  void makeAndUnmakeMatchCopies(int numRows, int numCols, int depth) {
+    final ChessBoard board = new ChessBoard(numRows, numCols);
+    final long nodes = perft(board, Color.WHITE, depth);
+
+    assertEquals(nodes, perftOnCopies(new ChessBoard(numRows, numCols), Color.WHITE, depth));
+    assertEquals(0, board.getUndoDepth());
+  }
+
+  @ParameterizedTest
+  @CsvSource({"8, 8", "5, 7", "12, 3"})
+  void zobristKeyFollowsPiecePlacement(int numRows, int numCols) {
+    final Random random = new Random(31L * numRows + numCols);
+    final ChessBoard board = new ChessBoard(numRows, numCols);
+    final long startKey = board.getZobristKey();
+    assertEquals(computeZobristKey(board), startKey);
+
+    // a random walk that makes two moves for every move it takes back
+    Color color = Color.WHITE;
+    final MoveBuffer moves = new MoveBuffer();
+    for (int step = 0; step < 2000; ++step) {
+      moves.clear();
+      board.generateMovesByColor(color, moves);
+      if (moves.size() > 0 && (board.getUndoDepth() == 0 || random.nextInt(3) != 0)) {
+        board.makeMove(moves.get(random.nextInt(moves.size())));
+      } else if (board.getUndoDepth() > 0) {
+        board.unmakeMove();
+      } else {
+        break;
+      }
+      color = color.getOpposingColor();
+      assertEquals(computeZobristKey(board), board.getZobristKey());
+      assertEquals(board.getZobristKey(), board.snapshot().getZobristKey());
+      assertEquals(board.getZobristKey(), board.copyOf().getZobristKey());
+    }
+    while (board.getUndoDepth() > 0) {
+      board.unmakeMove();
+    }
+    assertEquals(startKey, board.getZobristKey());
+  }
+
+  /** Computes the Zobrist key of the piece placement from scratch. */
+  private static long computeZobristKey(ChessBoard board) {
+    final CoordinateTable coordinates = board.getCoordinateTable();
+    long key = 0;
+    for (int row = 0; row < board.getNumRows(); ++row) {
+      for (int column = 0; column < board.getNumColumns(); ++column) {
+        final ChessPiece piece = board.getPieceAt(Coordinate.of(row, column));
+        if (!piece.isNone()) {
+          key ^= ZobristKeys.pieceKey(piece.getColor(), coordinates.getSquare(row, column));
+        }
+      }
+    }
+    return key;
+  }
+
+  /**
+   * Counts the leaf positions below the given one by making and taking back moves on the board.
+   * The board state after each move must equal the state of a copy that made the same move, and
+   * the state after taking the move back must equal the state before it.
+   */
+  private static long perft(ChessBoard board, Color color, int depth) {
+    if (depth == 0) {
+      return 1;
+    }
+    final MoveBuffer moves = new MoveBuffer();
+    board.generateMovesByColor(color, moves);
+    if (moves.size() == 0) {
+      return 1;
+    }
+    final String state = describe(board);
+    final String pieceLists = describePieceLists(board);
+    assertEquals(state, describe(board.copyOf()));
+
+    long nodes = 0;
+    for (int i = 0; i < moves.size(); ++i) {
+      final ChessBoard copy = board.copyOf();
+      copy.makeMove(moves.get(i));
+      board.makeMove(moves.get(i));
+      assertEquals(describe(copy), describe(board));
+
+      nodes += perft(board, color.getOpposingColor(), depth - 1);
+      board.unmakeMove();
+      assertEquals(state, describe(board));
+      assertEquals(pieceLists, describePieceLists(board));
+    }
+    return nodes;
+  }
+
+  /** Counts the leaf positions below the given one by making every move on a new copy. */
+  private static long perftOnCopies(ChessBoard board, Color color, int depth) {
+    if (depth == 0) {
+      return 1;
+    }
+    final MoveBuffer moves = new MoveBuffer();
+    board.generateMovesByColor(color, moves);
+    if (moves.size() == 0) {
+      return 1;
+    }
+    long nodes = 0;
+    for (int i = 0; i < moves.size(); ++i) {
+      final ChessBoard copy = board.copyOf();
+      copy.makeMove(moves.get(i));
+      nodes += perftOnCopies(copy, color.getOpposingColor(), depth - 1);
+    }
+    return nodes;
+  }
+
+  /**
+   * Describes everything about the board that does not depend on the order in which pieces were
+   * moved: the pieces and their possible moves, the counts, the Zobrist key and the generated
+   * moves. Capture moves must refer to the pieces on this board.
+   */
+  private static String describe(ChessBoard board) {
+    assertTrue(board.hasUpToDatePossibleMoves());
+    final StringBuilder builder = new StringBuilder();
+    for (int row = 0; row < board.getNumRows(); ++row) {
+      for (int column = 0; column < board.getNumColumns(); ++column) {
+        final ChessPiece piece = board.getPieceAt(Coordinate.of(row, column));
+        builder.append(describe(piece)).append(piece.possibleMoves.size());
+        for (Move move : piece.possibleMoves) {
+          final ChessPiece target = board.getPieceAt(move.getNewCoordinate());
+          assertSame(move.getCapturedPiece(), target.isNone() ? ChessPiece.NONE : target);
+          builder.append(' ').append(move.getMoveType()).append(describe(move.getNewCoordinate()));
+        }
+        builder.append('\n');
+      }
+    }
+    for (Color color : Color.values()) {
+      final MoveBuffer moves = new MoveBuffer();
+      board.generateMovesByColor(color, moves);
+      builder.append(color).append(' ').append(board.getPieceCountByColor(color));
+      builder.append(' ').append(board.getPossibleMoveCountByColor(color)).append(':');
+      for (int i = 0; i < moves.size(); ++i) {
+        builder.append(' ').append(moves.get(i));
+      }
+      builder.append('\n');
+    }
+    return builder.append(board.getZobristKey()).toString();
+  }
+
+  /** Describes the order of the piece lists, which taking back a move must restore as well. */
+  private static String describePieceLists(ChessBoard board) {
+    final StringBuilder builder = new StringBuilder();
+    for (Color color : Color.values()) {
+      for (ChessPiece piece : board.getImmutablePieceListByColor(color)) {
+        builder.append(describe(piece)).append(' ');
+      }
+    }
+    return builder.toString();
+  }
+
+  private static String describe(ChessPiece piece) {
+    if (piece.isNone()) {
+      return "-";
+    }
+    return piece.getColor() + "#" + piece.getId() + describe(piece.getCoordinate());
+  }
+
+  private static String describe(Coordinate coordinate) {
+    return "(" + coordinate.getRow() + "," + coordinate.getColumn() + ")";
+  }
+}
@@ -0,0 +1,142 @@
+package bauernschach.record;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import bauernschach.model.Bauernschach;
+import bauernschach.model.Bauernschach.OperationStatus;
+import bauernschach.model.GameState;
+import bauernschach.model.board.ChessPiece;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Tests that games written by a {@link GameArchiveWriter} are read back by a {@link
+ * GameArchiveReader} and replay to the games that were played.
+ */
+class GameArchiveTest {
+  private static final int NUM_GAMES = 50;
+
+  @ParameterizedTest
+  @CsvSource({"4, 3", "8, 8", "10, 40"})
+  void writtenGamesReplay(int numRows, int numCols) throws IOException {
+    final Path directory = Files.createTempDirectory("bauernschach-archive");
+    final Path file = directory.resolve("games.bin");
+    try {
+      final Random random = new Random(31L * numRows + numCols);
+      final List<int[]> games = new ArrayList<>();
+      final List<Bauernschach> playedGames = new ArrayList<>();
+      try (GameArchiveWriter writer = GameArchiveWriter.open(file)) {
+        for (int game = 0; game < NUM_GAMES; ++game) {
+          final Bauernschach bauernschach = new Bauernschach(numRows, numCols);
+          final int[] moves = playRandomGame(bauernschach, random);
+          writer.writeGame(
+              numRows, numCols, bauernschach.getGameState().getStatus(), moves, moves.length);
+          games.add(moves);
+          playedGames.add(bauernschach);
+        }
+      }
+
+      assertArchiveHolds(GameArchiveReader.open(file), numRows, numCols, games, playedGames);
+      // without the index, the reader finds the games by skipping through the archive
+      Files.delete(GameArchiveReader.indexFileOf(file));
+      assertArchiveHolds(GameArchiveReader.open(file), numRows, numCols, games, playedGames);
+    } finally {
+      Files.deleteIfExists(GameArchiveReader.indexFileOf(file));
+      Files.deleteIfExists(file);
+      Files.delete(directory);
+    }
+  }
+
+  @Test
+  void reopenedArchiveKeepsGames() throws IOException {
+    final Path directory = Files.createTempDirectory("bauernschach-archive");
+    final Path file = directory.resolve("games.bin");
+    try {
+      final Random random = new Random(5);
+      final List<int[]> games = new ArrayList<>();
+      final List<Bauernschach> playedGames = new ArrayList<>();
+      for (int run = 0; run < 3; ++run) {
+        try (GameArchiveWriter writer = GameArchiveWriter.open(file)) {
+          assertEquals(games.size(), writer.getNumGames());
+          for (int game = 0; game < 4; ++game) {
+            final Bauernschach bauernschach = new Bauernschach(6, 5);
+            final int[] moves = playRandomGame(bauernschach, random);
+            writer.writeGame(6, 5, bauernschach.getGameState().getStatus(), moves, moves.length);
+            games.add(moves);
+            playedGames.add(bauernschach);
+          }
+        }
+      }
+
+      assertArchiveHolds(GameArchiveReader.open(file), 6, 5, games, playedGames);
+    } finally {
+      Files.deleteIfExists(GameArchiveReader.indexFileOf(file));
+      Files.deleteIfExists(file);
+      Files.delete(directory);
+    }
+  }
+
+  /**
+   * Plays random recorded moves and passes, and returns the moves. Some games are stopped before
+   * they end, which the archive records as an ongoing game.
+   */
+  private static int[] playRandomGame(Bauernschach game, Random random) {
+    final int maxMoves = random.nextBoolean() ? Integer.MAX_VALUE : random.nextInt(20);
+    final List<Integer> moves = new ArrayList<>();
+    while (game.getGameState().isGameRunning() && moves.size() < maxMoves) {
+      final GameState gameState = game.getGameState();
+      final List<ChessPiece> movablePieces = new ArrayList<>();
+      for (ChessPiece piece :
+          gameState.getChessBoardSnapshot().getPieceListByColor(gameState.getCurrentRound())) {
+        if (piece.hasPossibleMoves()) {
+          movablePieces.add(piece);
+        }
+      }
+      final int move;
+      if (movablePieces.isEmpty() || random.nextInt(10) == 0) {
+        move = RecordedMove.PASS;
+      } else {
+        final ChessPiece piece = movablePieces.get(random.nextInt(movablePieces.size()));
+        move = RecordedMove.of(piece.getId(), random.nextInt(piece.getPossibleMoves().size()));
+      }
+      assertEquals(OperationStatus.SUCCESS, RecordedMove.play(game, move));
+      moves.add(move);
+    }
+    return moves.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static void assertArchiveHolds(
+      GameArchiveReader reader,
+      int numRows,
+      int numCols,
+      List<int[]> games,
+      List<Bauernschach> playedGames) {
+    assertEquals(games.size(), reader.getNumGames());
+    for (int game = 0; game < games.size(); ++game) {
+      final int[] moves = games.get(game);
+      final Bauernschach played = playedGames.get(game);
+      assertEquals(numRows, reader.getNumRows(game));
+      assertEquals(numCols, reader.getNumColumns(game));
+      assertEquals(played.getGameState().getStatus(), reader.getResult(game));
+      assertEquals(moves.length, reader.getNumMoves(game));
+
+      final int[] readMoves = new int[moves.length];
+      assertEquals(moves.length, reader.readMoves(game, readMoves));
+      assertArrayEquals(moves, readMoves);
+
+      final Bauernschach replayed = reader.replay(game);
+      assertEquals(played.getPly(), replayed.getPly());
+      assertEquals(played.getGameState().getStatus(), replayed.getGameState().getStatus());
+      assertEquals(
+          played.getGameState().getPositionKey(), replayed.getGameState().getPositionKey());
+    }
+  }
+}